@@ -0,0 +1,135 @@
+package de.mw.spring.data.jpa.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import de.mw.spring.data.jpa.repository.benchmark.BenchmarkDto;
+import de.mw.spring.data.jpa.repository.benchmark.BenchmarkEntity;
+import de.mw.spring.data.jpa.repository.benchmark.BenchmarkPersistence;
+import de.mw.spring.data.jpa.repository.projection.ConstructorProjection;
+import de.mw.spring.data.jpa.repository.projection.ProjectionByAttributeNames;
+import de.mw.spring.data.jpa.repository.query.LruQueryCache;
+
+/**
+ * Cost of building a projection query by {@link ProjectingJpaSpecificationRepositoryImpl#createProjectionQuery}
+ * per invocation, with and without a {@link LruQueryCache} for a {@link CacheableSpecification}.
+ * 
+ * Lives in the repository package to access the protected query construction, no query is executed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+public class CreateProjectionQueryBenchmark {
+    
+    private static final Sort SORT = Sort.by("name", "id");
+    
+    @State(Scope.Benchmark)
+    public static class Persistence {
+        
+        EntityManagerFactory entityManagerFactory;
+        
+        @Setup
+        public void setup() {
+            entityManagerFactory = BenchmarkPersistence.createEntityManagerFactory();
+        }
+        
+        @TearDown
+        public void tearDown() {
+            entityManagerFactory.close();
+        }
+        
+    }
+    
+    @State(Scope.Thread)
+    public static class Repository {
+        
+        @Param({"false", "true"})
+        boolean cached;
+        
+        EntityManager entityManager;
+        ProjectingJpaSpecificationRepositoryImpl<BenchmarkEntity,Long> repository;
+        
+        ProjectionByAttributeNames<BenchmarkEntity> attributeProjection = new ProjectionByAttributeNames<>("id", "name", "amount");
+        ConstructorProjection<BenchmarkEntity,BenchmarkDto> constructorProjection = new ConstructorProjection<>(BenchmarkDto.class);
+        CacheableSpecification<BenchmarkEntity> spec = new AmountSpecification(42);
+        
+        @Setup
+        public void setup(Persistence persistence) {
+            entityManager = persistence.entityManagerFactory.createEntityManager();
+            repository = new ProjectingJpaSpecificationRepositoryImpl<>(BenchmarkEntity.class, entityManager);
+            if (cached) {
+                repository.setQueryCache(new LruQueryCache(16));
+            }
+        }
+        
+        @TearDown
+        public void tearDown() {
+            entityManager.close();
+        }
+        
+    }
+    
+    @Benchmark
+    public TypedQuery<Tuple> attributeNames(Repository state) {
+        return state.repository.createProjectionQuery(state.spec, SORT, Tuple.class, state.attributeProjection);
+    }
+    
+    @Benchmark
+    public TypedQuery<Tuple> constructor(Repository state) {
+        return state.repository.createProjectionQuery(state.spec, SORT, Tuple.class, state.constructorProjection);
+    }
+    
+    
+    static class AmountSpecification implements CacheableSpecification<BenchmarkEntity> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final Integer amount;
+        
+        AmountSpecification(Integer amount) {
+            this.amount = amount;
+        }
+        
+        @Override
+        public Predicate toPredicate(Root<BenchmarkEntity> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+            return criteriaBuilder.greaterThan(root.get("amount"), criteriaBuilder.parameter(Integer.class, "amount"));
+        }
+        
+        @Override
+        public Object getFingerprint() {
+            return AmountSpecification.class;
+        }
+        
+        @Override
+        public Map<String, Object> getParameters() {
+            return Map.of("amount", amount);
+        }
+        
+    }
+    
+}
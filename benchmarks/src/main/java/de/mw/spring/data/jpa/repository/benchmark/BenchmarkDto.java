@@ -0,0 +1,27 @@
+package de.mw.spring.data.jpa.repository.benchmark;
+
+public class BenchmarkDto {
+    
+    private final Long id;
+    private final String name;
+    private final Integer amount;
+    
+    public BenchmarkDto(Long id, String name, Integer amount) {
+        this.id = id;
+        this.name = name;
+        this.amount = amount;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public Integer getAmount() {
+        return amount;
+    }
+    
+}
@@ -0,0 +1,16 @@
+package de.mw.spring.data.jpa.repository.benchmark;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+@Entity
+public class BenchmarkEntity {
+    
+    @Id
+    Long id;
+    
+    String name;
+    
+    Integer amount;
+    
+}
@@ -0,0 +1,30 @@
+package de.mw.spring.data.jpa.repository.benchmark;
+
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.persistence.EntityManagerFactory;
+
+import java.util.Map;
+
+/**
+ * Creates an {@link EntityManagerFactory} of the {@link BenchmarkEntity} on an in-memory H2 database
+ */
+public class BenchmarkPersistence {
+    
+    public static EntityManagerFactory createEntityManagerFactory() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setDriverClassName("org.h2.Driver");
+        
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(BenchmarkEntity.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+        factoryBean.afterPropertiesSet();
+        
+        return factoryBean.getObject();
+    }
+    
+}
@@ -0,0 +1,143 @@
+package de.mw.spring.data.jpa.repository.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import de.mw.spring.data.jpa.repository.ProjectionMapper;
+import de.mw.spring.data.jpa.repository.projection.ConstructorProjection;
+import de.mw.spring.data.jpa.repository.projection.MetamodelProjection;
+import de.mw.spring.data.jpa.repository.projection.ProjectionMapperByConstructor;
+import de.mw.spring.data.jpa.repository.projection.ProjectionMapperByMetamodelConstructor;
+import de.mw.spring.data.jpa.repository.projection.ProjectionMapperByTupleElementsConstructor;
+
+/**
+ * Throughput of the {@link ProjectionMapper} strategies mapping a {@link Tuple} to a DTO, 
+ * compared to hand written mappings of a {@link Tuple} and an {@code Object[]} row.
+ * 
+ * The rows are preallocated and cycled, so only the mapping itself is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+@State(Scope.Thread)
+public class ProjectionMapperBenchmark {
+    
+    private static final int ROWS = 1024;
+    
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Tuple[] tuples;
+    private Object[][] rows;
+    private int index;
+    
+    private ProjectionMapper<Tuple,BenchmarkDto> reflectiveConstructorMapper;
+    private ProjectionMapper<Tuple,BenchmarkDto> compiledConstructorMapper;
+    private ProjectionMapper<Tuple,BenchmarkDto> tupleElementsConstructorMapper;
+    private ProjectionMapper<Tuple,BenchmarkDto> metamodelConstructorMapper;
+    private ConstructorProjection<BenchmarkEntity,BenchmarkDto> constructorProjection;
+    private MetamodelProjection<BenchmarkEntity,BenchmarkDto> metamodelProjection;
+    
+    
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        entityManagerFactory = BenchmarkPersistence.createEntityManagerFactory();
+        EntityType<BenchmarkEntity> entity = entityManagerFactory.getMetamodel().entity(BenchmarkEntity.class);
+        
+        List<TupleElement<?>> elements = List.of(SyntheticTuple.element("id", Long.class),
+                                                 SyntheticTuple.element("name", String.class),
+                                                 SyntheticTuple.element("amount", Integer.class));
+        tuples = new Tuple[ROWS];
+        rows = new Object[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = new Object[] {Long.valueOf(i), "name" + i, Integer.valueOf(i % 100)};
+            tuples[i] = new SyntheticTuple(elements, rows[i]);
+        }
+        
+        reflectiveConstructorMapper = new ProjectionMapperByConstructor<>(BenchmarkDto.class.getConstructor(Long.class, String.class, Integer.class), false);
+        compiledConstructorMapper = new ProjectionMapperByConstructor<>(BenchmarkDto.class.getConstructor(Long.class, String.class, Integer.class), true);
+        tupleElementsConstructorMapper = new ProjectionMapperByTupleElementsConstructor<>(BenchmarkDto.class, true);
+        metamodelConstructorMapper = new ProjectionMapperByMetamodelConstructor<>(BenchmarkDto.class, true, 
+                                                                                  attribute(entity, "id"), attribute(entity, "name"), attribute(entity, "amount"));
+        constructorProjection = new ConstructorProjection<>(BenchmarkDto.class);
+        metamodelProjection = new MetamodelProjection<>(BenchmarkDto.class, attribute(entity, "id"), attribute(entity, "name"), attribute(entity, "amount"));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Attribute<BenchmarkEntity,?> attribute(EntityType<BenchmarkEntity> entity, String name) {
+        return (Attribute<BenchmarkEntity,?>) entity.getSingularAttribute(name);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        entityManagerFactory.close();
+    }
+    
+    private int next() {
+        index = (index + 1) & (ROWS - 1);
+        return index;
+    }
+    
+    @Benchmark
+    public void manualObjectArray(Blackhole blackhole) {
+        Object[] row = rows[next()];
+        blackhole.consume(new BenchmarkDto((Long) row[0], (String) row[1], (Integer) row[2]));
+    }
+    
+    @Benchmark
+    public void manualTuple(Blackhole blackhole) {
+        Tuple tuple = tuples[next()];
+        blackhole.consume(new BenchmarkDto(tuple.get(0, Long.class), tuple.get(1, String.class), tuple.get(2, Integer.class)));
+    }
+    
+    @Benchmark
+    public void constructorReflective(Blackhole blackhole) {
+        blackhole.consume(reflectiveConstructorMapper.toModel(tuples[next()]));
+    }
+    
+    @Benchmark
+    public void constructorCompiled(Blackhole blackhole) {
+        blackhole.consume(compiledConstructorMapper.toModel(tuples[next()]));
+    }
+    
+    @Benchmark
+    public void tupleElementsConstructor(Blackhole blackhole) {
+        blackhole.consume(tupleElementsConstructorMapper.toModel(tuples[next()]));
+    }
+    
+    @Benchmark
+    public void metamodelConstructor(Blackhole blackhole) {
+        blackhole.consume(metamodelConstructorMapper.toModel(tuples[next()]));
+    }
+    
+    @Benchmark
+    public void constructorProjection(Blackhole blackhole) {
+        blackhole.consume(constructorProjection.toModel(tuples[next()]));
+    }
+    
+    @Benchmark
+    public void metamodelProjection(Blackhole blackhole) {
+        blackhole.consume(metamodelProjection.toModel(tuples[next()]));
+    }
+    
+}
@@ -0,0 +1,91 @@
+package de.mw.spring.data.jpa.repository.benchmark;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Minimal {@link Tuple} similar to the tuples produced by Hibernate, without a database
+ */
+public class SyntheticTuple implements Tuple {
+    
+    private final List<TupleElement<?>> elements;
+    private final Object[] values;
+    
+    
+    public SyntheticTuple(List<TupleElement<?>> elements, Object... values) {
+        this.elements = elements;
+        this.values = values;
+    }
+    
+    public static TupleElement<?> element(String alias, Class<?> javaType) {
+        return new SyntheticTupleElement<>(alias, javaType);
+    }
+    
+    @Override
+    public <X> X get(TupleElement<X> tupleElement) {
+        return tupleElement.getJavaType().cast(values[elements.indexOf(tupleElement)]);
+    }
+    
+    @Override
+    public <X> X get(String alias, Class<X> type) {
+        return type.cast(get(alias));
+    }
+    
+    @Override
+    public Object get(String alias) {
+        for (int i = 0; i < elements.size(); i++) {
+            if (alias.equals(elements.get(i).getAlias())) {
+                return values[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown alias " + alias);
+    }
+    
+    @Override
+    public <X> X get(int i, Class<X> type) {
+        return type.cast(values[i]);
+    }
+    
+    @Override
+    public Object get(int i) {
+        return values[i];
+    }
+    
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(values, values.length);
+    }
+    
+    @Override
+    public List<TupleElement<?>> getElements() {
+        return elements;
+    }
+    
+    
+    private static class SyntheticTupleElement<X> implements TupleElement<X> {
+        
+        private final String alias;
+        private final Class<X> javaType;
+        
+        @SuppressWarnings("unchecked")
+        SyntheticTupleElement(String alias, Class<?> javaType) {
+            this.alias = alias;
+            this.javaType = (Class<X>) javaType;
+        }
+        
+        @Override
+        public Class<? extends X> getJavaType() {
+            return javaType;
+        }
+        
+        @Override
+        public String getAlias() {
+            return alias;
+        }
+        
+    }
+    
+}
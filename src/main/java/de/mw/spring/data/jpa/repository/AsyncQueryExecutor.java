@@ -0,0 +1,126 @@
+package de.mw.spring.data.jpa.repository;
+
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executes repository queries asynchronously on an {@link Executor}.
+ * 
+ * If a transaction manager is given, each query runs within its own new read-only transaction and therefore
+ * with its own transactional {@link javax.persistence.EntityManager}, otherwise the shared entity manager 
+ * of the repository creates a new entity manager per query.
+ * The repository must use a shared (thread-safe) entity manager, as injected by Spring.
+ * 
+ * Streaming queries, e.g. publishers, require a transaction manager, because outside of a transaction 
+ * the shared entity manager is closed as soon as the result stream is returned.
+ */
+public class AsyncQueryExecutor {
+    
+    private static volatile ExecutorService defaultExecutor;
+    
+    private final Executor executor;
+    private final TransactionTemplate transactionTemplate;
+    
+    
+    /**
+     * Creates an executor running the queries on the default executor without own transactions.
+     */
+    public AsyncQueryExecutor() {
+        this(getDefaultExecutor(), null);
+    }
+    
+    /**
+     * Creates an executor running the queries on the given executor.
+     * 
+     * @param executor the executor to run the queries on, must not be {@literal null}.
+     * @param transactionManager the transaction manager for the read-only query transactions, 
+     *                           {@literal null} runs the queries without own transactions
+     */
+    public AsyncQueryExecutor(Executor executor, @Nullable PlatformTransactionManager transactionManager) {
+        Assert.notNull(executor, "Executor must not be null");
+        this.executor = executor;
+        this.transactionTemplate = transactionManager == null ? null : createTransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Returns the shared default executor, using virtual threads if available on the runtime (Java 21+), 
+     * otherwise a cached pool of daemon threads.
+     */
+    public static ExecutorService getDefaultExecutor() {
+        if (defaultExecutor == null) {
+            synchronized (AsyncQueryExecutor.class) {
+                if (defaultExecutor == null) {
+                    defaultExecutor = createDefaultExecutor();
+                }
+            }
+        }
+        return defaultExecutor;
+    }
+    
+    
+    /**
+     * Runs the given query asynchronously.
+     * 
+     * @param query the query to run
+     * @return future completed with the result of the query or exceptionally with the exception thrown by the query
+     */
+    public <R> CompletableFuture<R> submit(Supplier<R> query) {
+        return CompletableFuture.supplyAsync(() -> execute(query), executor);
+    }
+    
+    /**
+     * Runs the given query within a read-only transaction on the calling thread, if a transaction manager is configured.
+     * 
+     * @param query the query to run
+     * @return the result of the query
+     */
+    public <R> R execute(Supplier<R> query) {
+        if (transactionTemplate == null) {
+            return query.get();
+        }
+        return transactionTemplate.execute(status -> query.get());
+    }
+    
+    public Executor getExecutor() {
+        return executor;
+    }
+    
+    /**
+     * @return whether the queries run within their own transactions, i.e. a transaction manager is configured
+     */
+    public boolean isTransactional() {
+        return transactionTemplate != null;
+    }
+    
+    
+    protected TransactionTemplate createTransactionTemplate(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(true);
+        return template;
+    }
+    
+    private static ExecutorService createDefaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "async-query-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+}
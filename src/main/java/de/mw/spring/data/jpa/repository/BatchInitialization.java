@@ -0,0 +1,50 @@
+package de.mw.spring.data.jpa.repository;
+
+import org.springframework.util.Assert;
+
+import java.util.List;
+
+/**
+ * Batch initialization of lazy associations of streamed entities.
+ *
+ * The streamed entities are buffered into chunks and the given association paths of all entities of a chunk
+ * are initialized by one IN-query per association and chunk, before the entities of the chunk are emitted.
+ * So touching the associations does not fire one query per entity.
+ *
+ * A path is a dot separated path of associations starting at the streamed entity, e.g. {@code customer.address}.
+ * Each association of the path is initialized, single valued associations (e.g. {@code @ManyToOne}) by loading
+ * the referenced entities by their ids, collections by a fetch join query of their owners.
+ */
+public class BatchInitialization {
+
+    private final int chunkSize;
+    private final List<String> associationPaths;
+
+
+    protected BatchInitialization(int chunkSize, List<String> associationPaths) {
+        Assert.isTrue(chunkSize > 0, "Chunk size must be greater than zero");
+        Assert.notEmpty(associationPaths, "At least one association path is required");
+        Assert.noNullElements(associationPaths, "Association paths must not be null");
+        this.chunkSize = chunkSize;
+        this.associationPaths = List.copyOf(associationPaths);
+    }
+
+    /**
+     * Initializes the given association paths for chunks of the given size.
+     *
+     * @param chunkSize number of entities per chunk
+     * @param associationPaths dot separated association paths
+     */
+    public static BatchInitialization of(int chunkSize, String... associationPaths) {
+        return new BatchInitialization(chunkSize, List.of(associationPaths));
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public List<String> getAssociationPaths() {
+        return associationPaths;
+    }
+
+}
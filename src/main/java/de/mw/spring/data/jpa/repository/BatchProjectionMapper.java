@@ -0,0 +1,40 @@
+package de.mw.spring.data.jpa.repository;
+
+import javax.persistence.Tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mapper interface for mapping chunks of {@link Tuple}s to the target type at once,
+ * e.g. for enriching the results by a single lookup per chunk instead of one per result.
+ *
+ * @param <P> input type of mapper
+ * @param <R> produced type of mapper
+ */
+@FunctionalInterface
+public interface BatchProjectionMapper<P,R> {
+    
+    /**
+     * Transforms a chunk of input values e.g. {@link Tuple}s to the target type
+     * 
+     * @param tuples chunk of inputs of projection query
+     * @return objects of target type in the order of the inputs
+     */
+    List<R> toModels(List<P> tuples);
+    
+    /**
+     * Adapts a row by row {@link ProjectionMapper} to a batch mapper
+     * 
+     * @param mapper the row mapper
+     * @return batch mapper mapping each row with the given mapper
+     */
+    static <P,R> BatchProjectionMapper<P,R> of(ProjectionMapper<P,R> mapper) {
+        return tuples -> {
+            List<R> models = new ArrayList<>(tuples.size());
+            tuples.forEach(tuple -> models.add(mapper.toModel(tuple)));
+            return models;
+        };
+    }
+    
+}
@@ -0,0 +1,39 @@
+package de.mw.spring.data.jpa.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.ParameterExpression;
+
+import java.util.Map;
+
+/**
+ * {@link Specification} with a fingerprint identifying the structure of the produced predicate,
+ * which allows to cache the compiled queries of the specification.
+ * 
+ * Values which change between invocations should be declared as named {@link ParameterExpression}s
+ * by {@link CriteriaBuilder#parameter(Class, String)} and provided by {@link #getParameters()}.
+ * These parameters are re-bound on each invocation. All other values, e.g. literals, are part of 
+ * the compiled query, so the fingerprint must include them.
+ *
+ * @param <T> type of entity
+ */
+public interface CacheableSpecification<T> extends Specification<T> {
+
+    /**
+     * Fingerprint of the predicate structure, must implement {@link Object#equals(Object)} and {@link Object#hashCode()}.
+     * 
+     * @return never {@literal null}.
+     */
+    Object getFingerprint();
+    
+    /**
+     * Values of the named parameters declared by the predicate.
+     * 
+     * @return parameter values by name, never {@literal null}.
+     */
+    default Map<String, Object> getParameters() {
+        return Map.of();
+    }
+    
+}
@@ -2,6 +2,7 @@ package de.mw.spring.data.jpa.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -14,8 +15,12 @@ import javax.persistence.Tuple;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.stream.Stream;
 
+import de.mw.spring.data.jpa.repository.fetch.AdaptiveFetchSizeController;
+
 /**
  * Extension to {@link JpaSpecificationExecutor}, {@link StreamingJpaSpecificationRepository}
  * and {@link ProjectingJpaSpecificationRepository} that allows mapping of the projection result.
@@ -165,6 +170,161 @@ public interface MappingJpaSpecificationRepository<T, ID> extends Repository<T,
      */
     <R, P> Stream<R> findAllStream(Specification<T> spec, Sort sort, Map<String, Object> queryHints, Class<P> projectionClass, Projection<T, P> projection, ProjectionMapper<P, R> mapper);
 
+    /**
+     * Projecting and mapping version of {@link StreamingJpaSpecificationRepository#findAllKeysetStream(Specification, Sort, int)}.
+     * Returns all mapped results matching the given {@link Specification} and {@link Sort} 
+     * by repeated keyset (seek) queries of the given chunk size.
+     *
+     * @param <R> type of mapped result
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}, sort properties should be non-nullable.
+     * @param chunkSize maximum number of results per query, must be greater than zero.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the tuple mapper to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R> Stream<R> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, int chunkSize, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper);
+
+    /**
+     * Projecting and mapping version of {@link StreamingJpaSpecificationRepository#findAllKeysetStream(Specification, Sort, Map, int)}.
+     * Returns all mapped results matching the given {@link Specification} and {@link Sort} 
+     * by repeated keyset (seek) queries of the given chunk size.
+     *
+     * @param <R> type of mapped result
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}, sort properties should be non-nullable.
+     * @param queryHints must not be {@literal null}.
+     * @param chunkSize maximum number of results per query, must be greater than zero.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the tuple mapper to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R> Stream<R> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, int chunkSize, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper);
+
+    /**
+     * Projecting and mapping version of {@link StreamingJpaSpecificationRepository#findAllKeysetStream(Specification, Sort, Map, AdaptiveFetchSizeController)}.
+     * Returns all mapped results matching the given {@link Specification} and {@link Sort} 
+     * by repeated keyset (seek) queries with the fetch size chosen by the given {@link AdaptiveFetchSizeController}.
+     *
+     * @param <R> type of mapped result
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}, sort properties should be non-nullable.
+     * @param queryHints must not be {@literal null}.
+     * @param fetchSizeController chooses the fetch size of each query, must not be {@literal null} and not be shared with other streams.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the tuple mapper to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R> Stream<R> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, AdaptiveFetchSizeController fetchSizeController, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper);
+
+    /**
+     * Projecting and batch mapping version of {@link StreamingJpaSpecificationRepository#findAllStream(Specification, Sort, Map)}.
+     * Returns all mapped results matching the given {@link Specification} and {@link Sort}.
+     * The projection results are lazily grouped into chunks of the given batch size, each chunk is mapped by a single mapper call.
+     *
+     * @param <R> type of mapped result
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param batchSize maximum number of results per mapper call, must be greater than zero.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the batch tuple mapper to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R> Stream<R> findAllBatchMappedStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, int batchSize, Projection<T,Tuple> projection, BatchProjectionMapper<Tuple,R> mapper);
+
+    /**
+     * Generic projecting and batch mapping version of {@link StreamingJpaSpecificationRepository#findAllStream(Specification, Sort, Map)}.
+     * Returns all mapped results matching the given {@link Specification} and {@link Sort}.
+     * The projection results are lazily grouped into chunks of the given batch size, each chunk is mapped by a single mapper call.
+     *
+     * @param <R> type of mapped result
+     * @param <P> target type of projection, e.g. {@link Tuple}, {@link Object[]}, ...
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param batchSize maximum number of results per mapper call, must be greater than zero.
+     * @param projectionClass class of target projection type
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the batch mapper to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R, P> Stream<R> findAllBatchMappedStream(Specification<T> spec, Sort sort, Map<String, Object> queryHints, int batchSize, Class<P> projectionClass, Projection<T, P> projection, BatchProjectionMapper<P, R> mapper);
+
+    /**
+     * Projecting, mapping and prefetching version of {@link StreamingJpaSpecificationRepository#findAllStream(Specification, Sort, Map)}.
+     * Returns all mapped results matching the given {@link Specification} and {@link Sort}.
+     * The projection results are read ahead by a reader thread of the configured {@link AsyncQueryExecutor} into a buffer
+     * of the given size, while the results are mapped on the consuming thread, so reading the cursor overlaps with mapping.
+     * The reader uses its own entity manager within a read-only transaction, which is closed with the returned stream.
+     *
+     * @param <R> type of mapped result
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the tuple mapper to apply, must not be {@literal null}.
+     * @param bufferSize maximum number of results read ahead, e.g. a multiple of the fetch size, must be greater than zero.
+     * @return never {@literal null}.
+     */
+    <R> Stream<R> findAllPrefetchingStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper, int bufferSize);
+
+    /**
+     * Generic projecting, mapping and prefetching version of {@link StreamingJpaSpecificationRepository#findAllStream(Specification, Sort, Map)}.
+     * Returns all mapped results matching the given {@link Specification} and {@link Sort}.
+     * The projection results are read ahead by a reader thread of the configured {@link AsyncQueryExecutor} into a buffer
+     * of the given size, while the results are mapped on the consuming thread, so reading the cursor overlaps with mapping.
+     * The reader uses its own entity manager within a read-only transaction, which is closed with the returned stream.
+     *
+     * @param <R> type of mapped result
+     * @param <P> target type of projection, e.g. {@link Tuple}, {@link Object[]}, ...
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param projectionClass class of target projection type
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the mapper to apply, must not be {@literal null}.
+     * @param bufferSize maximum number of results read ahead, e.g. a multiple of the fetch size, must be greater than zero.
+     * @return never {@literal null}.
+     */
+    <R,P> Stream<R> findAllPrefetchingStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Class<P> projectionClass, Projection<T,P> projection, ProjectionMapper<P,R> mapper, int bufferSize);
+
+    /**
+     * Projecting and parallel mapping version of {@link StreamingJpaSpecificationRepository#findAllStream(Specification, Sort, Map)}.
+     * Returns all mapped results matching the given {@link Specification} and {@link Sort}.
+     * The projection results are read on the consuming thread and mapped in chunks by tasks of the executor of the given {@link ParallelMapping},
+     * for mappers doing expensive work per result. The mapper must be thread-safe.
+     *
+     * @param <R> type of mapped result
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the tuple mapper to apply, must not be {@literal null}.
+     * @param parallelMapping chunk size, window size, order and executor of the mapping, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R> Stream<R> findAllParallelMappedStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper, ParallelMapping parallelMapping);
+
+    /**
+     * Generic projecting and parallel mapping version of {@link StreamingJpaSpecificationRepository#findAllStream(Specification, Sort, Map)}.
+     * Returns all mapped results matching the given {@link Specification} and {@link Sort}.
+     * The projection results are read on the consuming thread and mapped in chunks by tasks of the executor of the given {@link ParallelMapping},
+     * for mappers doing expensive work per result. The mapper must be thread-safe.
+     *
+     * @param <R> type of mapped result
+     * @param <P> target type of projection, e.g. {@link Tuple}, {@link Object[]}, ...
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param projectionClass class of target projection type
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the mapper to apply, must not be {@literal null}.
+     * @param parallelMapping chunk size, window size, order and executor of the mapping, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R,P> Stream<R> findAllParallelMappedStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Class<P> projectionClass, Projection<T,P> projection, ProjectionMapper<P,R> mapper, ParallelMapping parallelMapping);
+
 
     /**
      * Projecting and mapping version of {@link JpaSpecificationExecutor#findAll(Specification, Pageable)}.
@@ -194,4 +354,132 @@ public interface MappingJpaSpecificationRepository<T, ID> extends Repository<T,
      */
     <R, P> Page<R> findAll(Specification<T> spec, Pageable pageable, Class<P> projectionClass, Projection<T, P> projection, ProjectionMapper<P, R> mapper);
 
+    /**
+     * Projecting and mapping version of {@link ProjectingJpaSpecificationRepository#findSlice(Specification, Pageable, Projection)}.
+     * Returns a {@link Slice} of mapped results matching the given {@link Specification} without a count query.
+     *
+     * @param <R> type of mapped result
+     * @param spec can be {@literal null}.
+     * @param pageable must not be {@literal null}.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the tuple mapper to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R> Slice<R> findSlice(@Nullable Specification<T> spec, Pageable pageable, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper);
+
+    /**
+     * Generic projecting and mapping version of {@link ProjectingJpaSpecificationRepository#findSlice(Specification, Pageable, Class, Projection)}.
+     * Returns a {@link Slice} of mapped results matching the given {@link Specification} without a count query.
+     *
+     * @param <R> type of mapped result
+     * @param <P> target type of projection, e.g. {@link Tuple}, {@link Object[]}, ...
+     * @param spec can be {@literal null}.
+     * @param pageable must not be {@literal null}.
+     * @param projectionClass class of target projection type
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the tuple mapper to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R, P> Slice<R> findSlice(@Nullable Specification<T> spec, Pageable pageable, Class<P> projectionClass, Projection<T, P> projection, ProjectionMapper<P, R> mapper);
+
+    /**
+     * Asynchronous version of {@link #findOne(Specification, Sort, Class, Projection, ProjectionMapper)}, 
+     * executed by the configured {@link AsyncQueryExecutor}.
+     *
+     * @param <R> type of mapped result
+     * @param <P> target type of projection, e.g. {@link Tuple}, {@link Object[]}, ...
+     * @param spec can be {@literal null}.
+     * @param sort the sorting to apply, must not be {@literal null}.
+     * @param projectionClass class of target projection type
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the tuple mapper to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R, P> CompletableFuture<Optional<R>> findOneAsync(@Nullable Specification<T> spec, Sort sort, Class<P> projectionClass, Projection<T, P> projection, ProjectionMapper<P, R> mapper);
+
+    /**
+     * Asynchronous version of {@link #findAll(Specification, Sort, Projection, ProjectionMapper)}, 
+     * executed by the configured {@link AsyncQueryExecutor}.
+     *
+     * @param <R> type of mapped result
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the tuple mapper to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R> CompletableFuture<List<R>> findAllAsync(@Nullable Specification<T> spec, Sort sort, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper);
+
+    /**
+     * Asynchronous version of {@link #findAll(Specification, Sort, Class, Projection, ProjectionMapper)}, 
+     * executed by the configured {@link AsyncQueryExecutor}.
+     *
+     * @param <R> type of mapped result
+     * @param <P> target type of projection, e.g. {@link Tuple}, {@link Object[]}, ...
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param projectionClass class of target projection type
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the tuple mapper to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R, P> CompletableFuture<List<R>> findAllAsync(@Nullable Specification<T> spec, Sort sort, Class<P> projectionClass, Projection<T, P> projection, ProjectionMapper<P, R> mapper);
+
+    /**
+     * Asynchronous version of {@link #findAll(Specification, Pageable, Projection, ProjectionMapper)}, 
+     * executed by the configured {@link AsyncQueryExecutor}.
+     *
+     * @param <R> type of mapped result
+     * @param spec can be {@literal null}.
+     * @param pageable must not be {@literal null}.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the tuple mapper to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R> CompletableFuture<Page<R>> findAllAsync(@Nullable Specification<T> spec, Pageable pageable, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper);
+
+    /**
+     * Asynchronous version of {@link #findAll(Specification, Pageable, Class, Projection, ProjectionMapper)}, 
+     * executed by the configured {@link AsyncQueryExecutor}.
+     *
+     * @param <R> type of mapped result
+     * @param <P> target type of projection, e.g. {@link Tuple}, {@link Object[]}, ...
+     * @param spec can be {@literal null}.
+     * @param pageable must not be {@literal null}.
+     * @param projectionClass class of target projection type
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the tuple mapper to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R, P> CompletableFuture<Page<R>> findAllAsync(@Nullable Specification<T> spec, Pageable pageable, Class<P> projectionClass, Projection<T, P> projection, ProjectionMapper<P, R> mapper);
+
+    /**
+     * Projecting and mapping version of {@link StreamingJpaSpecificationRepository#findAllPublisher(Specification, Sort, Map)}.
+     * Returns a {@link Flow.Publisher} of all mapped results matching the given {@link Specification} and {@link Sort}.
+     *
+     * @param <R> type of mapped result
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the tuple mapper to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R> Flow.Publisher<R> findAllPublisher(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper);
+
+    /**
+     * Generic projecting and mapping version of {@link StreamingJpaSpecificationRepository#findAllPublisher(Specification, Sort, Map)}.
+     * Returns a {@link Flow.Publisher} of all mapped results matching the given {@link Specification} and {@link Sort}.
+     *
+     * @param <R> type of mapped result
+     * @param <P> target type of projection, e.g. {@link Tuple}, {@link Object[]}, ...
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param projectionClass class of target projection type
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param mapper the mapper to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <R, P> Flow.Publisher<R> findAllPublisher(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Class<P> projectionClass, Projection<T, P> projection, ProjectionMapper<P, R> mapper);
 }
\ No newline at end of file
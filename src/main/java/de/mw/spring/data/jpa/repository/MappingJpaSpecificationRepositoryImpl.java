@@ -3,11 +3,14 @@ package de.mw.spring.data.jpa.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Tuple;
@@ -15,9 +18,17 @@ import javax.persistence.Tuple;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import de.mw.spring.data.jpa.repository.fetch.AdaptiveFetchSizeController;
+import de.mw.spring.data.jpa.repository.metrics.RepositoryMetrics;
+import de.mw.spring.data.jpa.repository.stream.ChunkingSpliterator;
+import de.mw.spring.data.jpa.repository.stream.ParallelMappingSpliterator;
+import de.mw.spring.data.jpa.repository.stream.PrefetchingSpliterator;
+
 public class MappingJpaSpecificationRepositoryImpl<T, ID> extends ProjectingJpaSpecificationRepositoryImpl<T, ID> 
                                                           implements MappingJpaSpecificationRepository<T, ID> {
 
@@ -51,7 +62,7 @@ public class MappingJpaSpecificationRepositoryImpl<T, ID> extends ProjectingJpaS
     
     @Override
     public <R,P> Optional<R> findOne(@Nullable Specification<T> spec, Sort sort, Class<P> projectionClass, Projection<T,P> projection, ProjectionMapper<P,R> mapper) {
-        return findOne(spec, sort, projectionClass, projection).map(mapper::toModel);
+        return findOne(spec, sort, projectionClass, projection).map(meterMapper(projectionClass, mapper)::toModel);
     }
 
 
@@ -67,7 +78,7 @@ public class MappingJpaSpecificationRepositoryImpl<T, ID> extends ProjectingJpaS
     
     @Override
     public <R,P> List<R> findAll(@Nullable Specification<T> spec, Sort sort, Class<P> projectionClass, Projection<T,P> projection, ProjectionMapper<P,R> mapper) {
-        return transformTupleList(findAll(spec, sort, projectionClass, projection), mapper);
+        return transformTupleList(findAll(spec, sort, projectionClass, projection), meterMapper(projectionClass, mapper));
     }
 
 
@@ -88,7 +99,74 @@ public class MappingJpaSpecificationRepositoryImpl<T, ID> extends ProjectingJpaS
     
     @Override
     public <R,P> Stream<R> findAllStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Class<P> projectionClass, Projection<T,P> projection, ProjectionMapper<P,R> mapper) {
-        return findAllStream(spec, sort, queryHints, projectionClass, projection).map(mapper::toModel);
+        return findAllStream(spec, sort, queryHints, projectionClass, projection).map(meterMapper(projectionClass, mapper)::toModel);
+    }
+
+    @Override
+    public <R> Flow.Publisher<R> findAllPublisher(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper) {
+        return findAllPublisher(spec, sort, queryHints, Tuple.class, projection, mapper);
+    }
+    
+    @Override
+    public <R,P> Flow.Publisher<R> findAllPublisher(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Class<P> projectionClass, Projection<T,P> projection, ProjectionMapper<P,R> mapper) {
+        return createPublisher(fetchSizeHints -> findAllStream(spec, sort, fetchSizeHints, projectionClass, projection, mapper), queryHints);
+    }
+
+
+    @Override
+    public <R> Stream<R> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, int chunkSize, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper) {
+        return findAllKeysetStream(spec, sort, Map.of(), chunkSize, projection, mapper);
+    }
+    
+    @Override
+    public <R> Stream<R> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, int chunkSize, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper) {
+        return findAllKeysetStream(spec, sort, queryHints, chunkSize, projection).map(meterMapper(Tuple.class, mapper)::toModel);
+    }
+    
+    @Override
+    public <R> Stream<R> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, AdaptiveFetchSizeController fetchSizeController, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper) {
+        return findAllKeysetStream(spec, sort, queryHints, fetchSizeController, projection).map(meterMapper(Tuple.class, mapper)::toModel);
+    }
+
+
+    @Override
+    public <R> Stream<R> findAllBatchMappedStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, int batchSize, Projection<T,Tuple> projection, BatchProjectionMapper<Tuple,R> mapper) {
+        return findAllBatchMappedStream(spec, sort, queryHints, batchSize, Tuple.class, projection, mapper);
+    }
+    
+    @Override
+    public <R,P> Stream<R> findAllBatchMappedStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, int batchSize, Class<P> projectionClass, Projection<T,P> projection, BatchProjectionMapper<P,R> mapper) {
+        return ChunkingSpliterator.mapChunks(findAllStream(spec, sort, queryHints, projectionClass, projection), batchSize, chunk -> transformChunk(chunk, meterBatchMapper(projectionClass, mapper)));
+    }
+
+    @Override
+    public <R> Stream<R> findAllPrefetchingStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper, int bufferSize) {
+        return findAllPrefetchingStream(spec, sort, queryHints, Tuple.class, projection, mapper, bufferSize);
+    }
+    
+    @Override
+    public <R,P> Stream<R> findAllPrefetchingStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Class<P> projectionClass, Projection<T,P> projection, ProjectionMapper<P,R> mapper, int bufferSize) {
+        Stream<P> prefetched = PrefetchingSpliterator.stream(() -> openUntrackedPartitionStream(em -> em.createQuery(createProjectionCriteriaQuery(spec, sort, projectionClass, projection)), queryHints), 
+                                                             bufferSize, 
+                                                             getAsyncQueryExecutor().getExecutor());
+        return trackStream(prefetched).map(meterMapper(projectionClass, mapper)::toModel);
+    }
+
+    @Override
+    public <R> Stream<R> findAllParallelMappedStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper, ParallelMapping parallelMapping) {
+        return findAllParallelMappedStream(spec, sort, queryHints, Tuple.class, projection, mapper, parallelMapping);
+    }
+    
+    @Override
+    public <R,P> Stream<R> findAllParallelMappedStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Class<P> projectionClass, Projection<T,P> projection, ProjectionMapper<P,R> mapper, ParallelMapping parallelMapping) {
+        Assert.notNull(parallelMapping, "Parallel mapping must not be null");
+        BatchProjectionMapper<P,R> chunkMapper = BatchProjectionMapper.of(meterMapper(projectionClass, mapper));
+        return ParallelMappingSpliterator.stream(findAllStream(spec, sort, queryHints, projectionClass, projection), 
+                                                 parallelMapping.getChunkSize(), 
+                                                 parallelMapping.getWindowSize(), 
+                                                 parallelMapping.isOrdered(), 
+                                                 parallelMapping.getExecutor(), 
+                                                 chunk -> transformChunk(chunk, chunkMapper));
     }
 
 
@@ -100,14 +178,91 @@ public class MappingJpaSpecificationRepositoryImpl<T, ID> extends ProjectingJpaS
     @Override
     public <R,P> Page<R> findAll(@Nullable Specification<T> spec, Pageable pageable, Class<P> projectionClass, Projection<T,P> projection, ProjectionMapper<P,R> mapper) {
         Page<P> page = findAll(spec, pageable, projectionClass, projection);
-        return new PageImpl<>(transformTupleList(page.getContent(), mapper), page.getPageable(), page.getTotalElements());
+        return new PageImpl<>(transformTupleList(page.getContent(), meterMapper(projectionClass, mapper)), page.getPageable(), page.getTotalElements());
+    }
+
+    @Override
+    public <R> Slice<R> findSlice(@Nullable Specification<T> spec, Pageable pageable, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper) {
+        return findSlice(spec, pageable, Tuple.class, projection, mapper);
+    }
+    
+    @Override
+    public <R,P> Slice<R> findSlice(@Nullable Specification<T> spec, Pageable pageable, Class<P> projectionClass, Projection<T,P> projection, ProjectionMapper<P,R> mapper) {
+        Slice<P> slice = findSlice(spec, pageable, projectionClass, projection);
+        return new SliceImpl<>(transformTupleList(slice.getContent(), meterMapper(projectionClass, mapper)), slice.getPageable(), slice.hasNext());
+    }
+
+
+    @Override
+    public <R,P> CompletableFuture<Optional<R>> findOneAsync(@Nullable Specification<T> spec, Sort sort, Class<P> projectionClass, Projection<T,P> projection, ProjectionMapper<P,R> mapper) {
+        return getAsyncQueryExecutor().submit(() -> findOne(spec, sort, projectionClass, projection, mapper));
+    }
+    
+    @Override
+    public <R> CompletableFuture<List<R>> findAllAsync(@Nullable Specification<T> spec, Sort sort, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper) {
+        return findAllAsync(spec, sort, Tuple.class, projection, mapper);
+    }
+    
+    @Override
+    public <R,P> CompletableFuture<List<R>> findAllAsync(@Nullable Specification<T> spec, Sort sort, Class<P> projectionClass, Projection<T,P> projection, ProjectionMapper<P,R> mapper) {
+        return getAsyncQueryExecutor().submit(() -> findAll(spec, sort, projectionClass, projection, mapper));
+    }
+    
+    @Override
+    public <R> CompletableFuture<Page<R>> findAllAsync(@Nullable Specification<T> spec, Pageable pageable, Projection<T,Tuple> projection, ProjectionMapper<Tuple,R> mapper) {
+        return findAllAsync(spec, pageable, Tuple.class, projection, mapper);
+    }
+    
+    @Override
+    public <R,P> CompletableFuture<Page<R>> findAllAsync(@Nullable Specification<T> spec, Pageable pageable, Class<P> projectionClass, Projection<T,P> projection, ProjectionMapper<P,R> mapper) {
+        return getAsyncQueryExecutor().submit(() -> findAll(spec, pageable, projectionClass, projection, mapper));
     }
 
 
+    /**
+     * Measures each mapping of the given mapper by the configured {@link RepositoryMetrics}.
+     */
+    protected <R,P> ProjectionMapper<P,R> meterMapper(Class<P> projectionClass, ProjectionMapper<P,R> mapper) {
+        RepositoryMetrics metrics = getRepositoryMetrics();
+        if (!metrics.isEnabled()) {
+            return mapper;
+        }
+        
+        return tuple -> {
+            long start = System.nanoTime();
+            R model = mapper.toModel(tuple);
+            metrics.recordMapping(getDomainClass(), projectionClass, System.nanoTime() - start);
+            return model;
+        };
+    }
+    
+    /**
+     * Measures each batch mapping of the given mapper by the configured {@link RepositoryMetrics}.
+     */
+    protected <R,P> BatchProjectionMapper<P,R> meterBatchMapper(Class<P> projectionClass, BatchProjectionMapper<P,R> mapper) {
+        RepositoryMetrics metrics = getRepositoryMetrics();
+        if (!metrics.isEnabled()) {
+            return mapper;
+        }
+        
+        return tuples -> {
+            long start = System.nanoTime();
+            List<R> models = mapper.toModels(tuples);
+            metrics.recordMapping(getDomainClass(), projectionClass, System.nanoTime() - start);
+            return models;
+        };
+    }
+    
     protected <R,P> List<R> transformTupleList(List<P> list, ProjectionMapper<P,R> mapper) {
         return list.stream()
                    .map(mapper::toModel)
                    .collect(Collectors.toList());
     }
+    
+    protected <R,P> List<R> transformChunk(List<P> chunk, BatchProjectionMapper<P,R> mapper) {
+        List<R> models = mapper.toModels(chunk);
+        Assert.state(models.size() == chunk.size(), "Batch mapper must return one result per input");
+        return models;
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package de.mw.spring.data.jpa.repository;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Configuration of the parallel mapping of streamed projection results.
+ *
+ * The results are read on the consuming thread, grouped into chunks and each chunk is mapped on a thread of the executor.
+ * At most the window size of chunks are mapped or wait for being emitted at the same time,
+ * so the memory of the mapping is bounded by window size times chunk size results.
+ * The mapper must be thread-safe and must not depend on the persistence context of the consuming thread,
+ * e.g. must not load lazy associations.
+ */
+public class ParallelMapping {
+
+    private final boolean ordered;
+    private final int chunkSize;
+    private final int windowSize;
+    private final Executor executor;
+
+
+    protected ParallelMapping(boolean ordered, int chunkSize, int windowSize, @Nullable Executor executor) {
+        Assert.isTrue(chunkSize > 0, "Chunk size must be greater than zero");
+        Assert.isTrue(windowSize > 0, "Window size must be greater than zero");
+        this.ordered = ordered;
+        this.chunkSize = chunkSize;
+        this.windowSize = windowSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Maps in parallel and emits the mapped results in the order of the query results.
+     * A slow chunk delays the emission of the following chunks, which are buffered within the window.
+     *
+     * @param chunkSize number of results mapped by a single task
+     * @param windowSize maximum number of chunks in flight
+     */
+    public static ParallelMapping ordered(int chunkSize, int windowSize) {
+        return new ParallelMapping(true, chunkSize, windowSize, null);
+    }
+
+    /**
+     * Maps in parallel and emits the chunks of mapped results as soon as they are mapped,
+     * for maximum throughput if the order of the results is irrelevant.
+     * The results within a chunk keep their order.
+     *
+     * @param chunkSize number of results mapped by a single task
+     * @param windowSize maximum number of chunks in flight
+     */
+    public static ParallelMapping unordered(int chunkSize, int windowSize) {
+        return new ParallelMapping(false, chunkSize, windowSize, null);
+    }
+
+    /**
+     * Returns this configuration with the given executor of the mapping tasks,
+     * e.g. an executor of virtual threads for mappers blocking on I/O.
+     *
+     * @param executor the executor, must not be {@literal null}.
+     */
+    public ParallelMapping executedBy(Executor executor) {
+        Assert.notNull(executor, "Executor must not be null");
+        return new ParallelMapping(ordered, chunkSize, windowSize, executor);
+    }
+
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * @return the configured executor or the {@link ForkJoinPool#commonPool()}
+     */
+    public Executor getExecutor() {
+        return executor == null ? ForkJoinPool.commonPool() : executor;
+    }
+
+}
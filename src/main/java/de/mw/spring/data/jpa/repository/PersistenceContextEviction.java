@@ -0,0 +1,71 @@
+package de.mw.spring.data.jpa.repository;
+
+import org.springframework.util.Assert;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Policy for evicting streamed entities from the persistence context, 
+ * so that streaming of entities is bounded in memory and flushes do not slow down by dirty checking.
+ * 
+ * Evicted entities are detached, so references still hold by the caller are usable as detached objects,
+ * but changes to them are not persisted and not initialized lazy associations can not be loaded anymore.
+ */
+public class PersistenceContextEviction {
+
+    /**
+     * Eviction policy
+     */
+    public enum Policy {
+        
+        /**
+         * Clears the whole persistence context by {@link EntityManager#clear()}.
+         * Not flushed changes of all managed entities are discarded!
+         */
+        CLEAR,
+        
+        /**
+         * Detaches only the streamed entities by {@link EntityManager#detach(Object)}.
+         * Associated entities stay managed unless the association cascades detach.
+         */
+        DETACH
+        
+    }
+    
+    private final Policy policy;
+    private final int interval;
+    
+    
+    protected PersistenceContextEviction(Policy policy, int interval) {
+        Assert.isTrue(interval > 0, "Eviction interval must be greater than zero");
+        this.policy = policy;
+        this.interval = interval;
+    }
+    
+    /**
+     * Clears the whole persistence context every given number of streamed entities.
+     * 
+     * @param interval number of entities between evictions
+     */
+    public static PersistenceContextEviction clearEvery(int interval) {
+        return new PersistenceContextEviction(Policy.CLEAR, interval);
+    }
+    
+    /**
+     * Detaches the streamed entities every given number of streamed entities.
+     * 
+     * @param interval number of entities between evictions
+     */
+    public static PersistenceContextEviction detachEvery(int interval) {
+        return new PersistenceContextEviction(Policy.DETACH, interval);
+    }
+    
+    public Policy getPolicy() {
+        return policy;
+    }
+    
+    public int getInterval() {
+        return interval;
+    }
+    
+}
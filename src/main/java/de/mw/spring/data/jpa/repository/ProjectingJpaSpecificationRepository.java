@@ -2,6 +2,7 @@ package de.mw.spring.data.jpa.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -10,12 +11,23 @@ import org.springframework.data.repository.Repository;
 import org.springframework.lang.Nullable;
 
 import javax.persistence.Tuple;
+import javax.persistence.metamodel.SingularAttribute;
 
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.stream.Stream;
 
+import de.mw.spring.data.jpa.repository.columnar.ColumnBatch;
+import de.mw.spring.data.jpa.repository.export.TupleExporter;
+import de.mw.spring.data.jpa.repository.fetch.AdaptiveFetchSizeController;
+import de.mw.spring.data.jpa.repository.spill.SpillFile;
+
 /**
  * Extension to {@link JpaSpecificationExecutor} and {@link StreamingJpaSpecificationRepository} 
  * that allows simple projection of the result to {@link Tuple}s.
@@ -144,6 +156,79 @@ public interface ProjectingJpaSpecificationRepository<T, ID> extends Repository<
      */
     <P> Stream<P> findAllStream(Specification<T> spec, Sort sort, Map<String, Object> queryHints, Class<P> projectionClass, Projection<T,P> projection);
 
+    /**
+     * Projecting version of {@link StreamingJpaSpecificationRepository#findAllKeysetStream(Specification, Sort, int)}.
+     * Returns all projected tuple results matching the given {@link Specification} and {@link Sort} 
+     * by repeated keyset (seek) queries of the given chunk size.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}, sort properties should be non-nullable.
+     * @param chunkSize maximum number of results per query, must be greater than zero.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    Stream<Tuple> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, int chunkSize, Projection<T,Tuple> projection);
+
+    /**
+     * Projecting version of {@link StreamingJpaSpecificationRepository#findAllKeysetStream(Specification, Sort, Map, int)}.
+     * Returns all projected tuple results matching the given {@link Specification} and {@link Sort} 
+     * by repeated keyset (seek) queries of the given chunk size.
+     * 
+     * The keys are selected in addition to the selections of the projection, but are not visible in the returned tuples.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}, sort properties should be non-nullable.
+     * @param queryHints must not be {@literal null}.
+     * @param chunkSize maximum number of results per query, must be greater than zero.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    Stream<Tuple> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, int chunkSize, Projection<T,Tuple> projection);
+
+    /**
+     * Projecting version of {@link StreamingJpaSpecificationRepository#findAllKeysetStream(Specification, Sort, Map, AdaptiveFetchSizeController)}.
+     * Returns all projected tuple results matching the given {@link Specification} and {@link Sort} 
+     * by repeated keyset (seek) queries with the fetch size chosen by the given {@link AdaptiveFetchSizeController}.
+     * 
+     * The keys are selected in addition to the selections of the projection, but are not visible in the returned tuples.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}, sort properties should be non-nullable.
+     * @param queryHints must not be {@literal null}.
+     * @param fetchSizeController chooses the fetch size of each query, must not be {@literal null} and not be shared with other streams.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    Stream<Tuple> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, AdaptiveFetchSizeController fetchSizeController, Projection<T,Tuple> projection);
+
+    /**
+     * Projecting version of {@link StreamingJpaSpecificationRepository#findAllParallelStream(Specification, int)}.
+     * Returns all projected tuple results matching the given {@link Specification} as unordered parallel stream.
+     *
+     * @param spec can be {@literal null}.
+     * @param partitions number of partitions, must be greater than zero.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @return parallel stream, never {@literal null}.
+     */
+    Stream<Tuple> findAllParallelStream(@Nullable Specification<T> spec, int partitions, Projection<T,Tuple> projection);
+
+    /**
+     * Projecting version of {@link StreamingJpaSpecificationRepository#findAllParallelStream(Specification, Sort, Map, String, int)}.
+     * Returns all projected tuple results matching the given {@link Specification} and {@link Sort} by range partitioned queries.
+     * 
+     * For sorted results the keys are selected in addition to the selections of the projection, but are not visible in the returned tuples,
+     * and like the entity version the sorted result is an ordered sequential stream merging the partitions, not a parallel stream.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param partitionAttribute numeric or date attribute to partition by, {@literal null} for the id of the entity.
+     * @param partitions number of partitions, must be greater than zero.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    Stream<Tuple> findAllParallelStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, @Nullable String partitionAttribute, int partitions, Projection<T,Tuple> projection);
+
     /**
      * Projecting version of {@link JpaSpecificationExecutor#findAll(Specification, Pageable)}.
      * Returns a {@link Page} of projected tuple results matching the given {@link Specification}.
@@ -168,4 +253,189 @@ public interface ProjectingJpaSpecificationRepository<T, ID> extends Repository<
      */
     <P> Page<P> findAll(Specification<T> spec, Pageable pageable, Class<P> projectionClass, Projection<T,P> projection);
 
+    /**
+     * Projecting version of {@link JpaSpecificationExecutor#findAll(Specification, Pageable)} without a count query.
+     * Returns a {@link Slice} of projected tuple results matching the given {@link Specification}.
+     * Fetches one result more than the page size to determine if there is a next slice.
+     *
+     * @param spec can be {@literal null}.
+     * @param pageable must not be {@literal null}.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    Slice<Tuple> findSlice(@Nullable Specification<T> spec, Pageable pageable, Projection<T,Tuple> projection);
+    
+    /**
+     * Generic projecting version of {@link JpaSpecificationExecutor#findAll(Specification, Pageable)} without a count query.
+     * Returns a {@link Slice} of projected results matching the given {@link Specification}.
+     * Fetches one result more than the page size to determine if there is a next slice.
+     * 
+     * @param <P> target type of projection, e.g. {@link Tuple}, {@link Object[]}, ...
+     * @param spec can be {@literal null}.
+     * @param pageable must not be {@literal null}.
+     * @param projectionClass class of target projection type
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <P> Slice<P> findSlice(@Nullable Specification<T> spec, Pageable pageable, Class<P> projectionClass, Projection<T,P> projection);
+
+    /**
+     * Columnar version of {@link #findAllStream(Specification, Sort, Projection)}.
+     * Returns the values of the given attributes of all results matching the given {@link Specification} and {@link Sort} 
+     * as a single {@link ColumnBatch} of primitive column arrays, without retaining an object per row.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param attributes numeric or {@link String} attributes to select, must not be empty.
+     * @return never {@literal null}.
+     */
+    ColumnBatch findAllColumnar(@Nullable Specification<T> spec, Sort sort, List<SingularAttribute<? super T,?>> attributes);
+
+    /**
+     * Chunked columnar version of {@link #findAllStream(Specification, Sort, Map, Projection)}.
+     * Returns the values of the given attributes of all results matching the given {@link Specification} and {@link Sort} 
+     * as stream of {@link ColumnBatch}es of the given maximum number of rows. The batches are read lazily from a single query.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param attributes numeric or {@link String} attributes to select, must not be empty.
+     * @param chunkSize maximum number of rows per batch, must be greater than zero.
+     * @return never {@literal null}.
+     */
+    Stream<ColumnBatch> findAllColumnarStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, List<SingularAttribute<? super T,?>> attributes, int chunkSize);
+
+    /**
+     * Exports all projected tuple results matching the given {@link Specification} and {@link Sort} 
+     * by the given {@link TupleExporter}, e.g. as CSV or NDJSON, without mapping the tuples.
+     * The output stream is flushed, but not closed.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param exporter the export format, must not be {@literal null}.
+     * @param out the target, must not be {@literal null}.
+     * @return number of exported results.
+     * @throws java.io.UncheckedIOException on failed write
+     */
+    long exportAll(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Projection<T,Tuple> projection, TupleExporter exporter, OutputStream out);
+
+    /**
+     * Exports all projected tuple results matching the given {@link Specification} and {@link Sort} 
+     * by the given {@link TupleExporter}, e.g. as CSV or NDJSON, without mapping the tuples.
+     * The channel is not closed.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param exporter the export format, must not be {@literal null}.
+     * @param channel the target, must not be {@literal null}.
+     * @return number of exported results.
+     * @throws java.io.UncheckedIOException on failed write
+     */
+    long exportAll(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Projection<T,Tuple> projection, TupleExporter exporter, WritableByteChannel channel);
+
+    /**
+     * Spills all projected tuple results matching the given {@link Specification} and {@link Sort} by a single query
+     * to a local binary file, which is returned as memory mapped view that can be read any number of times.
+     * The returned {@link SpillFile} should be closed, the file is not deleted.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @param path the target file, an existing file is replaced.
+     * @return never {@literal null}.
+     * @throws java.io.UncheckedIOException on failed write
+     */
+    SpillFile spillAll(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Projection<T,Tuple> projection, Path path);
+
+    /**
+     * Asynchronous version of {@link #findOne(Specification, Sort, Class, Projection)}, 
+     * executed by the configured {@link AsyncQueryExecutor}.
+     *
+     * @param <P> target type of projection, e.g. {@link Tuple}, {@link Object[]}, ...
+     * @param spec can be {@literal null}.
+     * @param sort the sorting to apply, must not be {@literal null}.
+     * @param projectionClass class of target projection type
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <P> CompletableFuture<Optional<P>> findOneAsync(@Nullable Specification<T> spec, Sort sort, Class<P> projectionClass, Projection<T,P> projection);
+
+    /**
+     * Asynchronous version of {@link #findAll(Specification, Sort, Projection)}, 
+     * executed by the configured {@link AsyncQueryExecutor}.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    CompletableFuture<List<Tuple>> findAllAsync(@Nullable Specification<T> spec, Sort sort, Projection<T,Tuple> projection);
+
+    /**
+     * Asynchronous version of {@link #findAll(Specification, Sort, Class, Projection)}, 
+     * executed by the configured {@link AsyncQueryExecutor}.
+     *
+     * @param <P> target type of projection, e.g. {@link Tuple}, {@link Object[]}, ...
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param projectionClass class of target projection type
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <P> CompletableFuture<List<P>> findAllAsync(@Nullable Specification<T> spec, Sort sort, Class<P> projectionClass, Projection<T,P> projection);
+
+    /**
+     * Asynchronous version of {@link #findAll(Specification, Pageable, Projection)}, 
+     * executed by the configured {@link AsyncQueryExecutor}.
+     *
+     * @param spec can be {@literal null}.
+     * @param pageable must not be {@literal null}.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    CompletableFuture<Page<Tuple>> findAllAsync(@Nullable Specification<T> spec, Pageable pageable, Projection<T,Tuple> projection);
+
+    /**
+     * Asynchronous version of {@link #findAll(Specification, Pageable, Class, Projection)}, 
+     * executed by the configured {@link AsyncQueryExecutor}.
+     *
+     * @param <P> target type of projection, e.g. {@link Tuple}, {@link Object[]}, ...
+     * @param spec can be {@literal null}.
+     * @param pageable must not be {@literal null}.
+     * @param projectionClass class of target projection type
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <P> CompletableFuture<Page<P>> findAllAsync(@Nullable Specification<T> spec, Pageable pageable, Class<P> projectionClass, Projection<T,P> projection);
+
+    /**
+     * Projecting version of {@link StreamingJpaSpecificationRepository#findAllPublisher(Specification, Sort, Map)}.
+     * Returns a {@link Flow.Publisher} of all projected tuple results matching the given {@link Specification} and {@link Sort}.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    Flow.Publisher<Tuple> findAllPublisher(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Projection<T,Tuple> projection);
+
+    /**
+     * Generic projecting version of {@link StreamingJpaSpecificationRepository#findAllPublisher(Specification, Sort, Map)}.
+     * Returns a {@link Flow.Publisher} of all projected results matching the given {@link Specification} and {@link Sort}.
+     *
+     * @param <P> target type of projection, e.g. {@link Tuple}, {@link Object[]}, ...
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param projectionClass class of target projection type
+     * @param projection the projection to apply, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    <P> Flow.Publisher<P> findAllPublisher(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Class<P> projectionClass, Projection<T,P> projection);
 }
\ No newline at end of file
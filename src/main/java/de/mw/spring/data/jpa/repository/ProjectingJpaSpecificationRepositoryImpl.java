@@ -3,6 +3,8 @@ package de.mw.spring.data.jpa.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
@@ -10,6 +12,7 @@ import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -20,17 +23,57 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.metamodel.SingularAttribute;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import de.mw.spring.data.jpa.repository.columnar.ColumnBatch;
+import de.mw.spring.data.jpa.repository.columnar.ColumnBatchBuilder;
+import de.mw.spring.data.jpa.repository.count.CountStrategy;
+import de.mw.spring.data.jpa.repository.export.TupleExporter;
+import de.mw.spring.data.jpa.repository.fetch.AdaptiveFetchSizeController;
+import de.mw.spring.data.jpa.repository.projection.AggregateProjection;
+import de.mw.spring.data.jpa.repository.query.CompiledQuery;
+import de.mw.spring.data.jpa.repository.query.Keyset;
+import de.mw.spring.data.jpa.repository.query.QueryCache;
+import de.mw.spring.data.jpa.repository.query.QueryCacheKey;
+import de.mw.spring.data.jpa.repository.query.QueryCacheKey.QueryType;
+import de.mw.spring.data.jpa.repository.query.WindowCount;
+import de.mw.spring.data.jpa.repository.spill.SpillFile;
+import de.mw.spring.data.jpa.repository.stream.KeyedTuple;
+import de.mw.spring.data.jpa.repository.stream.KeysetChunkIterator;
+import de.mw.spring.data.jpa.repository.stream.PartitionedSpliterator;
+import de.mw.spring.data.jpa.repository.stream.SortedMergeIterator;
+
 public class ProjectingJpaSpecificationRepositoryImpl<T, ID> extends StreamingJpaSpecificationRepositoryImpl<T, ID> 
                                                              implements ProjectingJpaSpecificationRepository<T, ID>  {
 
+    /**
+     * Initial number of rows of the columns of a single columnar result, which grow as required
+     */
+    protected static final int COLUMNAR_INITIAL_CAPACITY = 1024;
+    
     private final EntityManager entityManager;
+    private QueryCache queryCache;
+    private boolean windowCountPaging;
+    private CountStrategy countStrategy;
+    private Boolean windowCountSupported;
 
     /**
      * Constructor for usage as a replacement of SimpleJpaRepository in {@link EnableJpaRepositories#repositoryBaseClass()}
@@ -52,6 +95,53 @@ public class ProjectingJpaSpecificationRepositoryImpl<T, ID> extends StreamingJp
     }
 
 
+    /**
+     * Configures a cache for the compiled projection and count queries of {@link CacheableSpecification}s.
+     * 
+     * @param queryCache the cache, {@literal null} disables caching (default)
+     */
+    public void setQueryCache(@Nullable QueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+    
+    @Nullable
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+    
+    /**
+     * Enables reading the total count of paged tuple projection queries by the window function {@code count(*) over()}
+     * with the content rows instead of a separate count query.
+     * Requires the {@link de.mw.spring.data.jpa.repository.query.WindowCountFunctionContributor} to be registered, 
+     * otherwise or on dialects without window functions the separate count query is used.
+     * Distinct queries are counted by the count query, as the window count is computed before the distinct.
+     * 
+     * @param windowCountPaging {@literal true} to enable, disabled by default
+     */
+    public void setWindowCountPaging(boolean windowCountPaging) {
+        this.windowCountPaging = windowCountPaging;
+    }
+    
+    public boolean isWindowCountPaging() {
+        return windowCountPaging;
+    }
+    
+    /**
+     * Configures the strategy for the total count of paged queries, e.g. a {@link de.mw.spring.data.jpa.repository.count.CachingCountStrategy} 
+     * or an {@link de.mw.spring.data.jpa.repository.count.EstimatedCountStrategy}.
+     * 
+     * @param countStrategy the strategy, {@literal null} executes the exact count query (default)
+     */
+    public void setCountStrategy(@Nullable CountStrategy countStrategy) {
+        this.countStrategy = countStrategy;
+    }
+    
+    @Nullable
+    public CountStrategy getCountStrategy() {
+        return countStrategy;
+    }
+
+
     @Override
     public Optional<Tuple> findOne(@Nullable Specification<T> spec, Projection<T, Tuple> projection) {
         return findOne(spec, Sort.unsorted(), projection);
@@ -67,7 +157,7 @@ public class ProjectingJpaSpecificationRepositoryImpl<T, ID> extends StreamingJp
         TypedQuery<P> query = createProjectionQuery(spec, sort, projectionClass, projection);
         
         try {
-            return Optional.ofNullable(query.getSingleResult());
+            return Optional.ofNullable(meterQueryExecution(projectionClass, "findOne", query::getSingleResult));
         } catch (NoResultException e) {
             return Optional.empty();
         }
@@ -86,7 +176,8 @@ public class ProjectingJpaSpecificationRepositoryImpl<T, ID> extends StreamingJp
     
     @Override
     public <P> List<P> findAll(@Nullable Specification<T> spec, Sort sort, Class<P> projectionClass, Projection<T,P> projection) {
-        return createProjectionQuery(spec, sort, projectionClass, projection).getResultList();
+        TypedQuery<P> query = createProjectionQuery(spec, sort, projectionClass, projection);
+        return meterQueryExecution(projectionClass, "findAll", query::getResultList);
     }
 
 
@@ -108,8 +199,79 @@ public class ProjectingJpaSpecificationRepositoryImpl<T, ID> extends StreamingJp
     @Override
     public <P> Stream<P> findAllStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Class<P> projectionClass, Projection<T,P> projection) {
         TypedQuery<P> query = createProjectionQuery(spec, sort, projectionClass, projection);
-        queryHints.forEach((hintName, value) -> query.setHint(hintName, value));
-        return query.getResultStream();
+        applyStreamingHints(queryHints).forEach((hintName, value) -> query.setHint(hintName, value));
+        checkStreamingConnection();
+        return openStream(projectionClass, query::getResultStream);
+    }
+
+    @Override
+    public Flow.Publisher<Tuple> findAllPublisher(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Projection<T,Tuple> projection) {
+        return findAllPublisher(spec, sort, queryHints, Tuple.class, projection);
+    }
+    
+    @Override
+    public <P> Flow.Publisher<P> findAllPublisher(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Class<P> projectionClass, Projection<T,P> projection) {
+        return createPublisher(fetchSizeHints -> findAllStream(spec, sort, fetchSizeHints, projectionClass, projection), queryHints);
+    }
+
+
+    @Override
+    public Stream<Tuple> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, int chunkSize, Projection<T,Tuple> projection) {
+        return findAllKeysetStream(spec, sort, Map.of(), chunkSize, projection);
+    }
+    
+    @Override
+    public Stream<Tuple> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, int chunkSize, Projection<T,Tuple> projection) {
+        Keyset<T> keyset = createKeyset(sort);
+        Projection<T,Tuple> keyedProjection = createKeyedProjection(projection, keyset);
+        
+        return new KeysetChunkIterator<Tuple>(chunkSize, lastKeys -> {
+            TypedQuery<Tuple> query = createProjectionQuery(Specification.where(spec).and(keyset.after(lastKeys)), keyset.getSort(), Tuple.class, keyedProjection);
+            queryHints.forEach((hintName, value) -> query.setHint(hintName, value));
+            query.setMaxResults(chunkSize);
+            return query.getResultList().stream()
+                        .map(tuple -> new KeyedTuple(tuple, keyset.size()))
+                        .collect(Collectors.toList());
+        }, tuple -> ((KeyedTuple) tuple).getKeys()).stream();
+    }
+    
+    @Override
+    public Stream<Tuple> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, AdaptiveFetchSizeController fetchSizeController, Projection<T,Tuple> projection) {
+        Assert.notNull(fetchSizeController, "Fetch size controller must not be null");
+        Keyset<T> keyset = createKeyset(sort);
+        Projection<T,Tuple> keyedProjection = createKeyedProjection(projection, keyset);
+        
+        return new KeysetChunkIterator<Tuple>(fetchSizeController::nextFetchSize, (lastKeys, fetchSize) -> {
+            TypedQuery<Tuple> query = createProjectionQuery(Specification.where(spec).and(keyset.after(lastKeys)), keyset.getSort(), Tuple.class, keyedProjection);
+            return loadAdaptiveChunk(query, queryHints, fetchSize, fetchSizeController).stream()
+                        .map(tuple -> new KeyedTuple(tuple, keyset.size()))
+                        .collect(Collectors.toList());
+        }, tuple -> ((KeyedTuple) tuple).getKeys()).stream();
+    }
+
+
+    @Override
+    public Stream<Tuple> findAllParallelStream(@Nullable Specification<T> spec, int partitions, Projection<T,Tuple> projection) {
+        return findAllParallelStream(spec, Sort.unsorted(), Map.of(), null, partitions, projection);
+    }
+    
+    @Override
+    public Stream<Tuple> findAllParallelStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, @Nullable String partitionAttribute, int partitions, Projection<T,Tuple> projection) {
+        List<Specification<T>> partitionSpecs = createPartitionSpecifications(spec, partitionAttribute, partitions);
+        
+        if (sort.isUnsorted()) {
+            return PartitionedSpliterator.stream(partitionSpecs.stream()
+                                                               .map(partitionSpec -> (Supplier<Stream<Tuple>>) () -> openPartitionStream(em -> em.createQuery(createProjectionCriteriaQuery(partitionSpec, sort, Tuple.class, projection)), queryHints))
+                                                               .collect(Collectors.toList()));
+        }
+        
+        Keyset<T> keyset = createKeyset(sort);
+        Projection<T,Tuple> keyedProjection = createKeyedProjection(projection, keyset);
+        return SortedMergeIterator.stream(partitionSpecs.stream()
+                                                        .map(partitionSpec -> (Supplier<Stream<Tuple>>) () -> openPartitionStream(em -> em.createQuery(createProjectionCriteriaQuery(partitionSpec, keyset.getSort(), Tuple.class, keyedProjection)), queryHints)
+                                                                                                                  .map(tuple -> (Tuple) new KeyedTuple(tuple, keyset.size())))
+                                                        .collect(Collectors.toList()),
+                                          Comparator.comparing(tuple -> ((KeyedTuple) tuple).getKeys(), keyset.comparator()));
     }
 
 
@@ -119,22 +281,174 @@ public class ProjectingJpaSpecificationRepositoryImpl<T, ID> extends StreamingJp
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <P> Page<P> findAll(@Nullable Specification<T> spec, Pageable pageable, Class<P> projectionClass, Projection<T,P> projection) {
         if (pageable.isUnpaged()) {
             return new PageImpl<>(findAll(spec, pageable.getSort(), projectionClass, projection));
         }
         
+        if (windowCountPaging && projectionClass == Tuple.class && isWindowCountSupported()) {
+            return (Page<P>) findAllWithWindowCount(spec, pageable, (Projection<T,Tuple>) projection);
+        }
+        
         TypedQuery<P> q = createProjectionQuery(spec, pageable.getSort(), projectionClass, projection);
         if (pageable.isPaged()) {
             q.setFirstResult((int) pageable.getOffset());
             q.setMaxResults(pageable.getPageSize());
         }
         
-        return PageableExecutionUtils.getPage(q.getResultList(), pageable, () -> executeCountQuery(getCountQuery(spec)));
+        return PageableExecutionUtils.getPage(meterQueryExecution(projectionClass, "findPage", q::getResultList), pageable, () -> countTotal(spec, projection));
     }
 
+    @Override
+    public Slice<Tuple> findSlice(@Nullable Specification<T> spec, Pageable pageable, Projection<T,Tuple> projection) {
+        return findSlice(spec, pageable, Tuple.class, projection);
+    }
+    
+    @Override
+    public <P> Slice<P> findSlice(@Nullable Specification<T> spec, Pageable pageable, Class<P> projectionClass, Projection<T,P> projection) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(findAll(spec, pageable.getSort(), projectionClass, projection));
+        }
+        
+        TypedQuery<P> q = createProjectionQuery(spec, pageable.getSort(), projectionClass, projection);
+        q.setFirstResult((int) pageable.getOffset());
+        q.setMaxResults(pageable.getPageSize() + 1);
+        
+        List<P> content = meterQueryExecution(projectionClass, "findSlice", q::getResultList);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
 
+    @Override
+    public ColumnBatch findAllColumnar(@Nullable Specification<T> spec, Sort sort, List<SingularAttribute<? super T,?>> attributes) {
+        return ColumnBatchBuilder.of(attributes, COLUMNAR_INITIAL_CAPACITY).build(findAllColumnarRows(spec, sort, Map.of(), attributes));
+    }
+    
+    @Override
+    public Stream<ColumnBatch> findAllColumnarStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, List<SingularAttribute<? super T,?>> attributes, int chunkSize) {
+        Assert.isTrue(chunkSize > 0, "Chunk size must be greater than zero");
+        return ColumnBatchBuilder.of(attributes, chunkSize).chunks(findAllColumnarRows(spec, sort, queryHints, attributes), chunkSize);
+    }
+    
+    /**
+     * Streams the raw rows of the attribute values, an {@code Object[]} per row or the value itself for a single attribute.
+     */
+    protected Stream<Object> findAllColumnarRows(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, List<SingularAttribute<? super T,?>> attributes) {
+        Assert.notEmpty(attributes, "At least one attribute is required");
+        Projection<T,Object> projection = (root, query, cb) -> attributes.stream()
+                                                                       .<Selection<?>>map(attribute -> root.get(attribute))
+                                                                       .collect(Collectors.toList());
+        return findAllStream(spec, sort, queryHints, Object.class, projection);
+    }
+
+    @Override
+    public long exportAll(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Projection<T,Tuple> projection, TupleExporter exporter, OutputStream out) {
+        try (Stream<Tuple> tuples = findAllStream(spec, sort, queryHints, projection)) {
+            return exporter.export(tuples, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public long exportAll(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Projection<T,Tuple> projection, TupleExporter exporter, WritableByteChannel channel) {
+        try (Stream<Tuple> tuples = findAllStream(spec, sort, queryHints, projection)) {
+            return exporter.export(tuples, channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public SpillFile spillAll(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, Projection<T,Tuple> projection, Path path) {
+        try (Stream<Tuple> tuples = findAllStream(spec, sort, queryHints, projection)) {
+            return SpillFile.write(tuples, path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    @Override
+    public <P> CompletableFuture<Optional<P>> findOneAsync(@Nullable Specification<T> spec, Sort sort, Class<P> projectionClass, Projection<T,P> projection) {
+        return getAsyncQueryExecutor().submit(() -> findOne(spec, sort, projectionClass, projection));
+    }
+    
+    @Override
+    public CompletableFuture<List<Tuple>> findAllAsync(@Nullable Specification<T> spec, Sort sort, Projection<T,Tuple> projection) {
+        return findAllAsync(spec, sort, Tuple.class, projection);
+    }
+    
+    @Override
+    public <P> CompletableFuture<List<P>> findAllAsync(@Nullable Specification<T> spec, Sort sort, Class<P> projectionClass, Projection<T,P> projection) {
+        return getAsyncQueryExecutor().submit(() -> findAll(spec, sort, projectionClass, projection));
+    }
+    
+    @Override
+    public CompletableFuture<Page<Tuple>> findAllAsync(@Nullable Specification<T> spec, Pageable pageable, Projection<T,Tuple> projection) {
+        return findAllAsync(spec, pageable, Tuple.class, projection);
+    }
+    
+    @Override
+    public <P> CompletableFuture<Page<P>> findAllAsync(@Nullable Specification<T> spec, Pageable pageable, Class<P> projectionClass, Projection<T,P> projection) {
+        return getAsyncQueryExecutor().submit(() -> findAll(spec, pageable, projectionClass, projection));
+    }
+
+
+    /**
+     * Appends the keys of the keyset to the selections of the projection, e.g. to be read by {@link KeyedTuple#getKeys()}.
+     */
+    protected Projection<T,Tuple> createKeyedProjection(Projection<T,Tuple> projection, Keyset<T> keyset) {
+        return (root, query, cb) -> {
+            List<Selection<?>> selections = new ArrayList<>(projection.toSelections(root, query, cb));
+            selections.addAll(keyset.toSelections(root));
+            return selections;
+        };
+    }
+    
+    /**
+     * Reads a page of tuples with the total count selected by the window function as hidden trailing element.
+     * If the page is empty or the query is distinct, the total count is read by the count query if necessary.
+     */
+    protected Page<Tuple> findAllWithWindowCount(@Nullable Specification<T> spec, Pageable pageable, Projection<T,Tuple> projection) {
+        TypedQuery<Tuple> q = createProjectionQuery(spec, pageable.getSort(), Tuple.class, WindowCount.withTotalCount(projection));
+        q.setFirstResult((int) pageable.getOffset());
+        q.setMaxResults(pageable.getPageSize());
+        
+        List<Tuple> rows = meterQueryExecution(Tuple.class, "findPage", q::getResultList);
+        if (rows.isEmpty() || !WindowCount.hasTotalCount(rows.get(0))) {
+            return PageableExecutionUtils.getPage(rows, pageable, () -> countTotal(spec, projection));
+        }
+        
+        List<KeyedTuple> content = rows.stream()
+                                       .map(tuple -> new KeyedTuple(tuple, 1))
+                                       .collect(Collectors.toList());
+        long total = ((Number) content.get(0).getKeys()[0]).longValue();
+        return new PageImpl<>(new ArrayList<>(content), pageable, total);
+    }
+    
+    protected boolean isWindowCountSupported() {
+        if (windowCountSupported == null) {
+            windowCountSupported = WindowCount.isSupported(entityManager);
+        }
+        return windowCountSupported;
+    }
+    
     protected <P> TypedQuery<P> createProjectionQuery(@Nullable Specification<T> spec, Sort sort, Class<P> projectionClass, Projection<T,P> projection) {
+        return meterQueryConstruction(projectionClass, () -> {
+            if (queryCache != null && spec instanceof CacheableSpecification) {
+                CacheableSpecification<T> cacheableSpec = (CacheableSpecification<T>) spec;
+                QueryCacheKey key = new QueryCacheKey(QueryType.PROJECTION, getDomainClass(), cacheableSpec.getFingerprint(), sort, projectionClass, projection);
+                return createCachedQuery(key, cacheableSpec, projectionClass, () -> createProjectionCriteriaQuery(spec, sort, projectionClass, projection));
+            }
+            
+            return entityManager.createQuery(createProjectionCriteriaQuery(spec, sort, projectionClass, projection));
+        });
+    }
+    
+    @SuppressWarnings("unchecked")
+    protected <P> CriteriaQuery<P> createProjectionCriteriaQuery(@Nullable Specification<T> spec, Sort sort, Class<P> projectionClass, Projection<T,P> projection) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<P> cq = cb.createQuery(projectionClass);
         
@@ -151,7 +465,12 @@ public class ProjectingJpaSpecificationRepositoryImpl<T, ID> extends StreamingJp
         
         // SELECT (after WHERE, because specifications can provide a selection to the query, but this only works with a matching projectionType)
         if (cq.getSelection() == null) {
-            cq.multiselect(projection.toSelections(root, cq, cb));
+            List<Selection<?>> selections = projection.toSelections(root, cq, cb);
+            if (isConstructorExpression(selections, projectionClass)) {
+                cq.select((Selection<? extends P>) selections.get(0)); // already constructs the projection class, multiselect would wrap it
+            } else {
+                cq.multiselect(selections);
+            }
         }
         
         // ORDER BY
@@ -159,11 +478,84 @@ public class ProjectingJpaSpecificationRepositoryImpl<T, ID> extends StreamingJp
             cq.orderBy(QueryUtils.toOrders(sort, root, cb));
         }
         
-        return entityManager.createQuery(cq);
+        return cq;
+    }
+    
+    /**
+     * Whether the selections consist of a single {@link CriteriaBuilder#construct(Class, Selection...)} of the projection class.
+     */
+    protected boolean isConstructorExpression(List<Selection<?>> selections, Class<?> projectionClass) {
+        return selections.size() == 1 && 
+               selections.get(0).isCompoundSelection() && 
+               selections.get(0).getJavaType() == projectionClass &&
+               !Tuple.class.equals(projectionClass) && !projectionClass.isArray();
+    }
+    
+    /**
+     * Determines the total count of a paged query by the configured {@link CountStrategy}.
+     */
+    protected long countTotal(@Nullable Specification<T> spec) {
+        long start = System.nanoTime();
+        long total = countStrategy == null ? executeCountQuery(getCountQuery(spec)) 
+                                           : countStrategy.count(getDomainClass(), spec, () -> getCountQuery(spec));
+        
+        if (getRepositoryMetrics().isEnabled()) {
+            getRepositoryMetrics().recordCount(getDomainClass(), System.nanoTime() - start);
+        }
+        return total;
+    }
+    
+    /**
+     * Determines the total count of a paged projection query, which is the number of groups for an {@link AggregateProjection}.
+     */
+    @SuppressWarnings("unchecked")
+    protected long countTotal(@Nullable Specification<T> spec, Projection<T,?> projection) {
+        if (projection instanceof AggregateProjection) {
+            return countGroups(spec, (AggregateProjection<T>) projection);
+        }
+        return countTotal(spec);
+    }
+    
+    /**
+     * Counts the groups of an {@link AggregateProjection} by the number of rows of the grouped count query, 
+     * because JPQL does not support counting a grouped subquery. The {@link CountStrategy} is not applied.
+     */
+    protected long countGroups(@Nullable Specification<T> spec, AggregateProjection<T> projection) {
+        long start = System.nanoTime();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        
+        Root<T> root = cq.from(getDomainClass());
+        
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, cq, cb);
+            if (predicate != null) {
+                cq.where(predicate);
+            }
+        }
+        
+        projection.applyGrouping(root, cq, cb);
+        cq.select(cb.count(root));
+        
+        long total = entityManager.createQuery(cq).getResultList().size();
+        if (getRepositoryMetrics().isEnabled()) {
+            getRepositoryMetrics().recordCount(getDomainClass(), System.nanoTime() - start);
+        }
+        return total;
     }
     
     // Note: Similar to {@link SimpleJpaRepository}
     protected TypedQuery<Long> getCountQuery(@Nullable Specification<T> spec) {
+        if (queryCache != null && spec instanceof CacheableSpecification) {
+            CacheableSpecification<T> cacheableSpec = (CacheableSpecification<T>) spec;
+            QueryCacheKey key = new QueryCacheKey(QueryType.COUNT, getDomainClass(), cacheableSpec.getFingerprint(), Sort.unsorted(), Long.class, null);
+            return createCachedQuery(key, cacheableSpec, Long.class, () -> createCountCriteriaQuery(spec));
+        }
+        
+        return entityManager.createQuery(createCountCriteriaQuery(spec));
+    }
+    
+    protected CriteriaQuery<Long> createCountCriteriaQuery(@Nullable Specification<T> spec) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<Long> cq = cb.createQuery(Long.class);
 
@@ -185,7 +577,28 @@ public class ProjectingJpaSpecificationRepositoryImpl<T, ID> extends StreamingJp
         // Remove all Orders the Specifications might have applied
         cq.orderBy(Collections.<Order> emptyList());
 
-        return entityManager.createQuery(cq);
+        return cq;
+    }
+    
+    /**
+     * Creates the query from the {@link QueryCache} or compiles and caches the criteria query on a cache miss.
+     * The parameters of the specification are bound in both cases.
+     */
+    protected <R> TypedQuery<R> createCachedQuery(QueryCacheKey key, CacheableSpecification<T> spec, Class<R> resultClass, Supplier<CriteriaQuery<R>> criteriaQuery) {
+        Map<String, Object> parameters = spec.getParameters();
+        CompiledQuery compiledQuery = queryCache.get(key);
+        TypedQuery<R> query;
+        
+        if (compiledQuery != null) {
+            query = compiledQuery.createQuery(entityManager, resultClass);
+        } else {
+            CriteriaQuery<R> cq = criteriaQuery.get();
+            query = entityManager.createQuery(cq);
+            queryCache.put(key, CompiledQuery.of(cq, query, parameters.keySet()));
+        }
+        
+        parameters.forEach((name, value) -> query.setParameter(name, value));
+        return query;
     }
 
     // Note: Copy from {@link SimpleJpaRepository}
@@ -8,8 +8,11 @@ import org.springframework.data.repository.Repository;
 import org.springframework.lang.Nullable;
 
 import java.util.Map;
+import java.util.concurrent.Flow;
 import java.util.stream.Stream;
 
+import de.mw.spring.data.jpa.repository.fetch.AdaptiveFetchSizeController;
+
 /**
  * Extension to {@link JpaSpecificationExecutor} that allows to stream the result.
  *
@@ -46,4 +49,152 @@ public interface StreamingJpaSpecificationRepository<T, ID> extends Repository<T
      */
     Stream<T> findAllStream(Specification<T> spec, Sort sort, Map<String, Object> queryHints);
 
-}
+    /**
+     * Returns all entities matching the given {@link Specification} and {@link Sort},
+     * while evicting the streamed entities from the persistence context by the given policy.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param eviction the eviction policy, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    Stream<T> findAllStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, PersistenceContextEviction eviction);
+
+    /**
+     * Returns all entities matching the given {@link Specification} and {@link Sort},
+     * while initializing the given lazy associations of chunks of streamed entities by one query per association and chunk,
+     * optionally evicting the streamed entities from the persistence context by the given policy.
+     * 
+     * With {@link PersistenceContextEviction.Policy#DETACH} the initialized associated entities are detached 
+     * together with the streamed entities. The associations of evicted entities stay initialized.
+     * The queries of the associations are executed while the cursor of the stream is open,
+     * so the database must support multiple open results per connection.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param batchInitialization the chunk size and association paths to initialize, must not be {@literal null}.
+     * @param eviction the eviction policy, {@literal null} for no eviction.
+     * @return never {@literal null}.
+     */
+    Stream<T> findAllStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, BatchInitialization batchInitialization, @Nullable PersistenceContextEviction eviction);
+
+    /**
+     * Returns all entities matching the given {@link Specification} and {@link Sort} read by a Hibernate {@link org.hibernate.StatelessSession}
+     * with a forward-only cursor on the connection of the current transaction.
+     * 
+     * The returned entities are detached and never managed by a persistence context, so there is no first-level cache,
+     * no dirty checking and no lazy loading. Associations which are not fetched by the query are not available.
+     * The stateless session borrows the connection of the current transaction, so this must be called within a transaction,
+     * which must stay active until the returned stream is closed. The stateless session is closed when the returned stream is closed.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @return never {@literal null}.
+     * @throws IllegalStateException if there is no active transaction
+     */
+    Stream<T> findAllStatelessStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints);
+
+    /**
+     * Returns all entities matching the given {@link Specification} and {@link Sort} 
+     * by repeated keyset (seek) queries of the given chunk size.
+     * The id of the entity is always used as additional tie-breaker of the sort.
+     * 
+     * In contrast to {@link #findAllStream(Specification, Sort)} no database cursor is kept open
+     * while the stream is consumed, each chunk is loaded lazily by a separate query.
+     * 
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}, sort properties should be non-nullable.
+     * @param chunkSize maximum number of entities per query, must be greater than zero.
+     * @return never {@literal null}.
+     */
+    Stream<T> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, int chunkSize);
+
+    /**
+     * Returns all entities matching the given {@link Specification} and {@link Sort} 
+     * by repeated keyset (seek) queries of the given chunk size.
+     * The id of the entity is always used as additional tie-breaker of the sort.
+     * 
+     * In contrast to {@link #findAllStream(Specification, Sort, Map)} no database cursor is kept open
+     * while the stream is consumed, each chunk is loaded lazily by a separate query.
+     * 
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}, sort properties should be non-nullable.
+     * @param queryHints must not be {@literal null}.
+     * @param chunkSize maximum number of entities per query, must be greater than zero.
+     * @return never {@literal null}.
+     */
+    Stream<T> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, int chunkSize);
+
+    /**
+     * Returns all entities matching the given {@link Specification} and {@link Sort} 
+     * by repeated keyset (seek) queries, where the fetch size and maximum number of entities of each query 
+     * is chosen by the given {@link AdaptiveFetchSizeController}.
+     * The id of the entity is always used as additional tie-breaker of the sort.
+     * 
+     * The chosen fetch size and its measurements are available by {@link AdaptiveFetchSizeController#getStatistics()}.
+     * 
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}, sort properties should be non-nullable.
+     * @param queryHints must not be {@literal null}.
+     * @param fetchSizeController chooses the fetch size of each query, must not be {@literal null} and not be shared with other streams.
+     * @return never {@literal null}.
+     */
+    Stream<T> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, AdaptiveFetchSizeController fetchSizeController);
+
+    /**
+     * Returns all entities matching the given {@link Specification} as unordered parallel stream.
+     * The id range is split into the given number of partitions, which are queried on separate connections.
+     * 
+     * @param spec can be {@literal null}.
+     * @param partitions number of partitions, must be greater than zero.
+     * @return parallel stream, never {@literal null}.
+     * @see #findAllParallelStream(Specification, Sort, Map, String, int)
+     */
+    Stream<T> findAllParallelStream(@Nullable Specification<T> spec, int partitions);
+
+    /**
+     * Returns all entities matching the given {@link Specification} and {@link Sort} by range partitioned queries.
+     * 
+     * The value range of the partition attribute is split into the given number of partitions. 
+     * Each partition is queried lazily with its own {@link javax.persistence.EntityManager} and read-only resource local transaction,
+     * so the partitions do not take part in the transaction of the caller.
+     * 
+     * If the sort is unsorted, the result is an unordered parallel stream handing out the partitions on split.
+     * Otherwise the result is not a parallel stream: all partitions are queried at once, so the database executes
+     * the partition queries concurrently, but their results are merged by a sequential k-way merge into an ordered
+     * sequential stream. In this case the id of the entity is used as additional tie-breaker of the sort, 
+     * the sort properties should be non-nullable and their natural order must match the order of the database.
+     * If opening a partition fails, the already opened partitions are closed.
+     * 
+     * The returned stream should be closed in order to release the connections of not exhausted partitions.
+     * 
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @param partitionAttribute numeric or date attribute to partition by, {@literal null} for the id of the entity.
+     * @param partitions number of partitions, must be greater than zero.
+     * @return never {@literal null}.
+     */
+    Stream<T> findAllParallelStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, @Nullable String partitionAttribute, int partitions);
+
+    /**
+     * Reactive version of {@link #findAllStream(Specification, Sort, Map)}.
+     * Returns a {@link Flow.Publisher} of all entities matching the given {@link Specification} and {@link Sort}.
+     * 
+     * Each subscription streams the entities on the executor of the configured {@link AsyncQueryExecutor}
+     * within its transaction, so the executor must be configured with a transaction manager.
+     * Without a transaction manager an {@link IllegalStateException} is thrown, because outside of a transaction
+     * the shared entity manager is closed as soon as the result stream is returned.
+     * Entities are read from the cursor only on demand of the subscriber, the fetch size is aligned with the first request.
+     * The cursor is closed on completion, on error and on cancellation of the subscription.
+     *
+     * @param spec can be {@literal null}.
+     * @param sort must not be {@literal null}.
+     * @param queryHints must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    Flow.Publisher<T> findAllPublisher(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints);
+}
\ No newline at end of file
@@ -1,26 +1,81 @@
 package de.mw.spring.data.jpa.repository;
 
 import org.springframework.data.domain.Sort;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 
+import java.sql.Connection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import de.mw.spring.data.jpa.repository.dialect.StreamingProfile;
+import de.mw.spring.data.jpa.repository.dialect.StreamingProfileResolver;
+import de.mw.spring.data.jpa.repository.fetch.AdaptiveFetchSizeController;
+import de.mw.spring.data.jpa.repository.metrics.MeteredSpliterator;
+import de.mw.spring.data.jpa.repository.metrics.RepositoryMetrics;
+import de.mw.spring.data.jpa.repository.query.AssociationBatchLoader;
+import de.mw.spring.data.jpa.repository.query.CompiledQuery;
+import de.mw.spring.data.jpa.repository.query.Keyset;
+import de.mw.spring.data.jpa.repository.query.PropertyPaths;
+import de.mw.spring.data.jpa.repository.query.RangePartitions;
+import de.mw.spring.data.jpa.repository.stream.ChunkingSpliterator;
+import de.mw.spring.data.jpa.repository.stream.EvictingSpliterator;
+import de.mw.spring.data.jpa.repository.stream.KeysetChunkIterator;
+import de.mw.spring.data.jpa.repository.stream.PartitionedSpliterator;
+import de.mw.spring.data.jpa.repository.stream.SortedMergeIterator;
+import de.mw.spring.data.jpa.repository.stream.StreamPublisher;
+import de.mw.spring.data.jpa.repository.stream.StreamTracker;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 public class StreamingJpaSpecificationRepositoryImpl<T, ID> extends SimpleJpaRepository<T, ID> 
                                                             implements StreamingJpaSpecificationRepository<T, ID> {
     
+    /**
+     * Upper limit of the fetch size of publishers, which is aligned with the first request of the subscriber
+     */
+    protected static final int MAX_PUBLISHER_FETCH_SIZE = 1000;
+    
+    private final JpaEntityInformation<T, ?> entityInformation;
+    private final EntityManager entityManager;
+    private AsyncQueryExecutor asyncQueryExecutor;
+    private RepositoryMetrics repositoryMetrics = RepositoryMetrics.NOOP;
+    private StreamTracker streamTracker;
+    private StreamingProfile streamingProfile;
+    private final AtomicBoolean autoCommitWarned = new AtomicBoolean();
+    
     /**
      * Constructor for usage as a replacement of SimpleJpaRepository in {@link EnableJpaRepositories#repositoryBaseClass()}
      */
     public StreamingJpaSpecificationRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
         super(entityInformation, entityManager);
+        this.entityInformation = entityInformation;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -31,6 +86,68 @@ public class StreamingJpaSpecificationRepositoryImpl<T, ID> extends SimpleJpaRep
      */
     public StreamingJpaSpecificationRepositoryImpl(Class<T> domainClass, EntityManager entityManager) {
         super(domainClass, entityManager);
+        this.entityInformation = JpaEntityInformationSupport.getEntityInformation(domainClass, entityManager);
+        this.entityManager = entityManager;
+    }
+
+
+    /**
+     * Configures the executor of asynchronous queries.
+     * 
+     * @param asyncQueryExecutor the executor, {@literal null} for the default {@link AsyncQueryExecutor} 
+     *                           without own transactions
+     */
+    public void setAsyncQueryExecutor(@Nullable AsyncQueryExecutor asyncQueryExecutor) {
+        this.asyncQueryExecutor = asyncQueryExecutor;
+    }
+    
+    public AsyncQueryExecutor getAsyncQueryExecutor() {
+        if (asyncQueryExecutor == null) {
+            asyncQueryExecutor = new AsyncQueryExecutor();
+        }
+        return asyncQueryExecutor;
+    }
+    
+    /**
+     * Configures the receiver of query metrics, e.g. {@link de.mw.spring.data.jpa.repository.metrics.MicrometerRepositoryMetrics}.
+     * 
+     * @param repositoryMetrics the metrics, {@literal null} disables metrics (default)
+     */
+    public void setRepositoryMetrics(@Nullable RepositoryMetrics repositoryMetrics) {
+        this.repositoryMetrics = repositoryMetrics == null ? RepositoryMetrics.NOOP : repositoryMetrics;
+    }
+    
+    public RepositoryMetrics getRepositoryMetrics() {
+        return repositoryMetrics;
+    }
+    
+    /**
+     * Configures the tracker of open result streams for leak detection, a tracker can be shared by multiple repositories.
+     * 
+     * @param streamTracker the tracker, {@literal null} disables tracking (default)
+     */
+    public void setStreamTracker(@Nullable StreamTracker streamTracker) {
+        this.streamTracker = streamTracker;
+    }
+    
+    @Nullable
+    public StreamTracker getStreamTracker() {
+        return streamTracker;
+    }
+    
+    /**
+     * Configures the database specific streaming of the dialect of the entity manager factory,
+     * the {@link StreamingProfile} resolved by the given resolver is applied to all cursor based streaming queries.
+     * 
+     * @param streamingProfileResolver the resolver, {@literal null} disables streaming profiles (default)
+     */
+    public void setStreamingProfileResolver(@Nullable StreamingProfileResolver streamingProfileResolver) {
+        this.streamingProfile = streamingProfileResolver == null ? null : streamingProfileResolver.resolve(entityManager.getEntityManagerFactory());
+    }
+    
+    @Nullable
+    public StreamingProfile getStreamingProfile() {
+        return streamingProfile;
     }
 
 
@@ -46,9 +163,342 @@ public class StreamingJpaSpecificationRepositoryImpl<T, ID> extends SimpleJpaRep
 
     @Override
     public Stream<T> findAllStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints) {
-        TypedQuery<T> query = getQuery(spec, sort);
+        TypedQuery<T> query = meterQueryConstruction(getDomainClass(), () -> getQuery(spec, sort));
+        applyStreamingHints(queryHints).forEach((hintName, value) -> query.setHint(hintName, value));
+        checkStreamingConnection();
+        return openStream(getDomainClass(), query::getResultStream);
+    }
+
+    @Override
+    public Stream<T> findAllStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, PersistenceContextEviction eviction) {
+        return EvictingSpliterator.stream(findAllStream(spec, sort, queryHints), eviction.getInterval(), entities -> evict(entities, eviction.getPolicy()));
+    }
+
+    @Override
+    public Stream<T> findAllStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, BatchInitialization batchInitialization, @Nullable PersistenceContextEviction eviction) {
+        Assert.notNull(batchInitialization, "Batch initialization must not be null");
+        AssociationBatchLoader loader = new AssociationBatchLoader(entityManager);
+        List<String> associationPaths = batchInitialization.getAssociationPaths();
+        
+        Stream<T> initialized = ChunkingSpliterator.mapChunks(findAllStream(spec, sort, queryHints), batchInitialization.getChunkSize(), chunk -> {
+            loader.initialize(chunk, getDomainClass(), associationPaths);
+            return chunk;
+        });
+        if (eviction == null) {
+            return initialized;
+        }
+        
+        return EvictingSpliterator.stream(initialized, eviction.getInterval(), entities -> {
+            if (eviction.getPolicy() == PersistenceContextEviction.Policy.DETACH) {
+                loader.getInitialized(entities, getDomainClass(), associationPaths).forEach(entityManager::detach);
+            }
+            evict(entities, eviction.getPolicy());
+        });
+    }
+
+    @Override
+    public Stream<T> findAllStatelessStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints) {
+        // the stateless session borrows the connection of the transaction, which is only held beyond the work callback within a transaction
+        Assert.state(entityManager.isJoinedToTransaction(), "Stateless streams require an active transaction");
+        
+        // render the criteria query once with the stateful session, because the stateless session does not support criteria queries
+        CompiledQuery compiledQuery = meterQueryConstruction(getDomainClass(), () -> CompiledQuery.of(entityManager.createQuery(createCriteriaQuery(spec, sort)), Set.of()));
+        
+        Session session = entityManager.unwrap(Session.class);
+        StatelessSession statelessSession = session.getSessionFactory().openStatelessSession(session.doReturningWork(connection -> connection));
+        
+        try {
+            org.hibernate.query.Query<T> query = statelessSession.createQuery(compiledQuery.getQueryString(), getDomainClass());
+            compiledQuery.bindParameters(query);
+            applyStreamingHints(queryHints).forEach((hintName, value) -> query.setHint(hintName, value));
+            checkStreamingConnection();
+            return openStream(getDomainClass(), () -> query.stream().onClose(statelessSession::close));
+        } catch (RuntimeException e) {
+            statelessSession.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Flow.Publisher<T> findAllPublisher(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints) {
+        return createPublisher(fetchSizeHints -> findAllStream(spec, sort, fetchSizeHints), queryHints);
+    }
+
+
+    @Override
+    public Stream<T> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, int chunkSize) {
+        return findAllKeysetStream(spec, sort, Map.of(), chunkSize);
+    }
+
+    @Override
+    public Stream<T> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, int chunkSize) {
+        Keyset<T> keyset = createKeyset(sort);
+        
+        return new KeysetChunkIterator<T>(chunkSize, lastKeys -> {
+            TypedQuery<T> query = getQuery(Specification.where(spec).and(keyset.after(lastKeys)), keyset.getSort());
+            queryHints.forEach((hintName, value) -> query.setHint(hintName, value));
+            query.setMaxResults(chunkSize);
+            return query.getResultList();
+        }, keyset::extract).stream();
+    }
+
+    @Override
+    public Stream<T> findAllKeysetStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, AdaptiveFetchSizeController fetchSizeController) {
+        Assert.notNull(fetchSizeController, "Fetch size controller must not be null");
+        Keyset<T> keyset = createKeyset(sort);
+        
+        return new KeysetChunkIterator<T>(fetchSizeController::nextFetchSize, (lastKeys, fetchSize) -> {
+            TypedQuery<T> query = getQuery(Specification.where(spec).and(keyset.after(lastKeys)), keyset.getSort());
+            return loadAdaptiveChunk(query, queryHints, fetchSize, fetchSizeController);
+        }, keyset::extract).stream();
+    }
+
+
+    @Override
+    public Stream<T> findAllParallelStream(@Nullable Specification<T> spec, int partitions) {
+        return findAllParallelStream(spec, Sort.unsorted(), Map.of(), null, partitions);
+    }
+
+    @Override
+    public Stream<T> findAllParallelStream(@Nullable Specification<T> spec, Sort sort, Map<String, Object> queryHints, @Nullable String partitionAttribute, int partitions) {
+        List<Specification<T>> partitionSpecs = createPartitionSpecifications(spec, partitionAttribute, partitions);
+        
+        if (sort.isUnsorted()) {
+            return PartitionedSpliterator.stream(partitionSpecs.stream()
+                                                               .map(partitionSpec -> (Supplier<Stream<T>>) () -> openPartitionStream(em -> em.createQuery(createCriteriaQuery(partitionSpec, sort)), queryHints))
+                                                               .collect(Collectors.toList()));
+        }
+        
+        Keyset<T> keyset = createKeyset(sort);
+        return SortedMergeIterator.stream(partitionSpecs.stream()
+                                                        .map(partitionSpec -> (Supplier<Stream<T>>) () -> openPartitionStream(em -> em.createQuery(createCriteriaQuery(partitionSpec, keyset.getSort())), queryHints))
+                                                        .collect(Collectors.toList()),
+                                          Comparator.comparing(keyset::extract, keyset.comparator()));
+    }
+
+
+    protected void evict(List<T> entities, PersistenceContextEviction.Policy policy) {
+        if (policy == PersistenceContextEviction.Policy.CLEAR) {
+            entityManager.clear();
+        } else {
+            entities.forEach(entityManager::detach);
+        }
+    }
+    
+    /**
+     * Creates a publisher of the stream opened by the given factory with the given query hints 
+     * and the fetch size of the first request of a subscriber.
+     * The subscriptions are executed by the configured {@link AsyncQueryExecutor}, which must be transactional,
+     * because outside of a transaction the shared entity manager is closed as soon as the result stream is returned.
+     */
+    protected <R> Flow.Publisher<R> createPublisher(Function<Map<String, Object>, Stream<R>> streamFactory, Map<String, Object> queryHints) {
+        AsyncQueryExecutor asyncQueryExecutor = getAsyncQueryExecutor();
+        Assert.state(asyncQueryExecutor.isTransactional(), "Publishers require an AsyncQueryExecutor with a transaction manager");
+        return new StreamPublisher<>(fetchSize -> {
+                                         Map<String, Object> fetchSizeHints = new HashMap<>(queryHints);
+                                         fetchSizeHints.put(org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, String.valueOf(fetchSize));
+                                         return streamFactory.apply(fetchSizeHints);
+                                     },
+                                     asyncQueryExecutor.getExecutor(),
+                                     subscription -> asyncQueryExecutor.execute(() -> {
+                                         subscription.run();
+                                         return null;
+                                     }),
+                                     MAX_PUBLISHER_FETCH_SIZE);
+    }
+    
+    /**
+     * Measures the construction of a query by the configured {@link RepositoryMetrics}.
+     */
+    protected <Q> Q meterQueryConstruction(Class<?> projectionClass, Supplier<Q> construction) {
+        if (!repositoryMetrics.isEnabled()) {
+            return construction.get();
+        }
+        
+        long start = System.nanoTime();
+        Q query = construction.get();
+        repositoryMetrics.recordQueryConstruction(getDomainClass(), projectionClass, System.nanoTime() - start);
+        return query;
+    }
+    
+    /**
+     * Measures the execution of a non-streaming query by the configured {@link RepositoryMetrics}.
+     */
+    protected <R> R meterQueryExecution(Class<?> projectionClass, String operation, Supplier<R> execution) {
+        if (!repositoryMetrics.isEnabled()) {
+            return execution.get();
+        }
+        
+        long start = System.nanoTime();
+        try {
+            return execution.get();
+        } finally {
+            repositoryMetrics.recordQueryExecution(getDomainClass(), projectionClass, operation, System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Executes a streaming query, the returned stream is metered by the configured {@link RepositoryMetrics} 
+     * and tracked by the configured {@link StreamTracker}.
+     */
+    protected <R> Stream<R> openStream(Class<?> projectionClass, Supplier<Stream<R>> execution) {
+        if (!repositoryMetrics.isEnabled()) {
+            return trackStream(execution.get());
+        }
+        
+        long start = System.nanoTime();
+        return trackStream(MeteredSpliterator.stream(execution.get(), getDomainClass(), projectionClass, repositoryMetrics, start));
+    }
+    
+    /**
+     * Loads a chunk of a keyset stream with the given fetch size as fetch size and maximum number of results,
+     * the chunk and its load time is recorded by the given {@link AdaptiveFetchSizeController}.
+     */
+    protected <R> List<R> loadAdaptiveChunk(TypedQuery<R> query, Map<String, Object> queryHints, int fetchSize, AdaptiveFetchSizeController fetchSizeController) {
         queryHints.forEach((hintName, value) -> query.setHint(hintName, value));
-        return query.getResultStream();
+        query.setHint(org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, String.valueOf(fetchSize));
+        query.setMaxResults(fetchSize);
+        
+        long start = System.nanoTime();
+        List<R> chunk = query.getResultList();
+        fetchSizeController.recordChunk(chunk, System.nanoTime() - start);
+        return chunk;
+    }
+    
+    /**
+     * Applies the hints of the configured {@link StreamingProfile} to the hints of a cursor based streaming query.
+     */
+    protected Map<String, Object> applyStreamingHints(Map<String, Object> queryHints) {
+        return streamingProfile == null ? queryHints : streamingProfile.apply(queryHints);
+    }
+    
+    /**
+     * Warns once if the configured {@link StreamingProfile} requires a transaction, 
+     * but the connection of the entity manager is in auto-commit mode, so the driver reads the whole result.
+     */
+    protected void checkStreamingConnection() {
+        if (streamingProfile == null || !streamingProfile.isTransactionRequired() || autoCommitWarned.get()) {
+            return;
+        }
+        
+        boolean autoCommit = entityManager.unwrap(Session.class).doReturningWork(Connection::getAutoCommit);
+        if (autoCommit && autoCommitWarned.compareAndSet(false, true)) {
+            log.warn("Streaming of {} is not guaranteed, the {} driver streams only within a transaction, but the connection is in auto-commit mode", 
+                     getDomainClass().getName(), streamingProfile.getName());
+        }
+    }
+    
+    protected <R> Stream<R> trackStream(Stream<R> stream) {
+        return streamTracker == null ? stream : streamTracker.track(stream, getDomainClass());
+    }
+    
+    protected Keyset<T> createKeyset(Sort sort) {
+        return Keyset.of(sort, entityInformation.getIdAttributeNames());
+    }
+
+    protected CriteriaQuery<T> createCriteriaQuery(@Nullable Specification<T> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> cq = cb.createQuery(getDomainClass());
+        Root<T> root = cq.from(getDomainClass());
+        
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, cq, cb);
+            if (predicate != null) {
+                cq.where(predicate);
+            }
+        }
+        
+        cq.select(root);
+        
+        if (sort.isSorted()) {
+            cq.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        
+        return cq;
+    }
+    
+    /**
+     * Splits the value range of the partition attribute within the given specification into partitions.
+     * 
+     * @param spec can be {@literal null}.
+     * @param partitionAttribute the attribute to partition by, {@literal null} for the id of the entity.
+     * @param partitions the number of partitions
+     * @return specifications of the partitions including the given specification
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    protected List<Specification<T>> createPartitionSpecifications(@Nullable Specification<T> spec, @Nullable String partitionAttribute, int partitions) {
+        String attribute = partitionAttribute;
+        if (attribute == null) {
+            if (entityInformation.hasCompositeId()) {
+                throw new IllegalArgumentException("Partition attribute is required for entities with composite id");
+            }
+            attribute = entityInformation.getIdAttribute().getName();
+        }
+        
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+        Root<T> root = cq.from(getDomainClass());
+        
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, cq, cb);
+            if (predicate != null) {
+                cq.where(predicate);
+            }
+        }
+        
+        Expression path = PropertyPaths.get(root, attribute);
+        cq.multiselect(cb.least(path), cb.greatest(path));
+        Object[] range = entityManager.createQuery(cq).getSingleResult();
+        
+        if (range[0] == null) { // no results at all
+            return List.of(Specification.where(spec));
+        }
+        
+        return RangePartitions.<T>of(attribute, range[0], range[1], partitions).stream()
+                                                                               .map(partition -> Specification.where(spec).and(partition))
+                                                                               .collect(Collectors.toList());
+    }
+    
+    /**
+     * Opens the result stream of a partition query with a new {@link EntityManager} within a read-only resource local transaction.
+     * The transaction is rolled back and the entity manager is closed when the stream is closed.
+     * 
+     * @param queryFactory creates the query with the given entity manager
+     * @param queryHints must not be {@literal null}.
+     * @return the result stream
+     */
+    protected <R> Stream<R> openPartitionStream(Function<EntityManager, TypedQuery<R>> queryFactory, Map<String, Object> queryHints) {
+        return trackStream(openUntrackedPartitionStream(queryFactory, queryHints));
+    }
+    
+    /**
+     * Like {@link #openPartitionStream(Function, Map)}, but the returned stream is not tracked by the configured {@link StreamTracker},
+     * for streams which are owned by another tracked stream.
+     */
+    protected <R> Stream<R> openUntrackedPartitionStream(Function<EntityManager, TypedQuery<R>> queryFactory, Map<String, Object> queryHints) {
+        EntityManager partitionEntityManager = entityManager.getEntityManagerFactory().createEntityManager();
+        
+        try {
+            partitionEntityManager.getTransaction().begin();
+            partitionEntityManager.unwrap(Session.class).setDefaultReadOnly(true);
+            
+            TypedQuery<R> query = queryFactory.apply(partitionEntityManager);
+            applyStreamingHints(queryHints).forEach((hintName, value) -> query.setHint(hintName, value));
+            return query.getResultStream().onClose(() -> closePartitionEntityManager(partitionEntityManager));
+        } catch (RuntimeException e) {
+            closePartitionEntityManager(partitionEntityManager);
+            throw e;
+        }
+    }
+    
+    protected void closePartitionEntityManager(EntityManager partitionEntityManager) {
+        try {
+            if (partitionEntityManager.getTransaction().isActive()) {
+                partitionEntityManager.getTransaction().rollback();
+            }
+        } finally {
+            partitionEntityManager.close();
+        }
     }
 
 }
\ No newline at end of file
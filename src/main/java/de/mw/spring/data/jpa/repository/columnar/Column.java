@@ -0,0 +1,127 @@
+package de.mw.spring.data.jpa.repository.columnar;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+
+/**
+ * Growable column of a {@link ColumnBatch} with a bitmap of the {@literal null} values.
+ * 
+ * The values are stored in primitive arrays by the concrete columns, 
+ * a {@literal null} value is stored as default value and marked in the bitmap.
+ */
+public abstract class Column {
+
+    protected final String name;
+    protected int size;
+    protected long[] nulls;
+    
+    
+    protected Column(String name, int initialCapacity) {
+        this.name = name;
+        this.nulls = new long[bitmapLength(initialCapacity)];
+    }
+    
+    /**
+     * Creates an empty column for values of the given type.
+     * 
+     * @param name name of the column
+     * @param type java type of the values, numeric types or {@link String}
+     * @param initialCapacity initial number of values
+     * @return never {@literal null}.
+     * @throws IllegalArgumentException if the type is not supported
+     */
+    public static Column of(String name, Class<?> type, int initialCapacity) {
+        Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(type);
+        if (Long.class.equals(wrapperType)) {
+            return new LongColumn(name, initialCapacity);
+        } else if (Integer.class.equals(wrapperType) || Short.class.equals(wrapperType) || Byte.class.equals(wrapperType)) {
+            return new IntColumn(name, initialCapacity);
+        } else if (Double.class.equals(wrapperType) || Float.class.equals(wrapperType)) {
+            return new DoubleColumn(name, initialCapacity);
+        } else if (String.class.equals(wrapperType)) {
+            return new StringColumn(name, initialCapacity);
+        }
+        throw new IllegalArgumentException("Unsupported column type " + type.getName() + " of column " + name);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * @return number of values of the column
+     */
+    public int size() {
+        return size;
+    }
+    
+    public boolean isNull(int row) {
+        checkRow(row);
+        return (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+    
+    /**
+     * @return whether the column contains any {@literal null} value
+     */
+    public boolean hasNulls() {
+        for (long word : nulls) {
+            if (word != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Appends a value to the column, growing the column if necessary.
+     * 
+     * @param value can be {@literal null}.
+     */
+    public void append(@Nullable Object value) {
+        if (size == capacity()) {
+            grow(Math.max(16, size + (size >> 1)));
+        }
+        
+        if (value == null) {
+            nulls[size >>> 6] |= 1L << size;
+        } else {
+            set(size, value);
+        }
+        size++;
+    }
+    
+    protected void grow(int capacity) {
+        resize(capacity);
+        if (bitmapLength(capacity) > nulls.length) {
+            nulls = Arrays.copyOf(nulls, bitmapLength(capacity));
+        }
+    }
+    
+    protected void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for column " + name + " of size " + size);
+        }
+    }
+    
+    private static int bitmapLength(int capacity) {
+        return (capacity + 63) >>> 6;
+    }
+    
+    /**
+     * @return current capacity of the value array
+     */
+    protected abstract int capacity();
+    
+    /**
+     * Resizes the value array to the given capacity.
+     */
+    protected abstract void resize(int capacity);
+    
+    /**
+     * Sets a non {@literal null} value within the capacity.
+     */
+    protected abstract void set(int row, Object value);
+    
+}
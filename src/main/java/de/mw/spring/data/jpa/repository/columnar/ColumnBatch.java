@@ -0,0 +1,74 @@
+package de.mw.spring.data.jpa.repository.columnar;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Batch of rows stored by columns of primitive arrays, see {@link Column}.
+ * All columns have the same number of rows.
+ */
+public class ColumnBatch {
+
+    private final List<Column> columns;
+    private final int rowCount;
+    
+    
+    public ColumnBatch(List<Column> columns, int rowCount) {
+        this.columns = Collections.unmodifiableList(columns);
+        this.rowCount = rowCount;
+    }
+    
+    /**
+     * @return the columns in order of the selection, never {@literal null}.
+     */
+    public List<Column> getColumns() {
+        return columns;
+    }
+    
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    public Column getColumn(int index) {
+        return columns.get(index);
+    }
+    
+    /**
+     * @param name name of the column, i.e. the name of the selected attribute
+     * @return never {@literal null}.
+     * @throws IllegalArgumentException if there is no column of the name
+     */
+    public Column getColumn(String name) {
+        for (Column column : columns) {
+            if (column.getName().equals(name)) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column " + name);
+    }
+    
+    public LongColumn getLongColumn(String name) {
+        return getColumn(name, LongColumn.class);
+    }
+    
+    public IntColumn getIntColumn(String name) {
+        return getColumn(name, IntColumn.class);
+    }
+    
+    public DoubleColumn getDoubleColumn(String name) {
+        return getColumn(name, DoubleColumn.class);
+    }
+    
+    public StringColumn getStringColumn(String name) {
+        return getColumn(name, StringColumn.class);
+    }
+    
+    protected <C extends Column> C getColumn(String name, Class<C> type) {
+        Column column = getColumn(name);
+        if (!type.isInstance(column)) {
+            throw new IllegalArgumentException("Column " + name + " is a " + column.getClass().getSimpleName() + ", not a " + type.getSimpleName());
+        }
+        return type.cast(column);
+    }
+    
+}
@@ -0,0 +1,145 @@
+package de.mw.spring.data.jpa.repository.columnar;
+
+import org.springframework.util.Assert;
+
+import javax.persistence.metamodel.Attribute;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Builds {@link ColumnBatch}es by appending rows to the {@link Column}s.
+ * 
+ * A row is an {@code Object[]} of the column values or the single value itself if there is only one column,
+ * like the results of a query selecting the column values.
+ */
+public class ColumnBatchBuilder {
+
+    private final List<String> names;
+    private final List<Class<?>> types;
+    private final int initialCapacity;
+    private List<Column> columns;
+    private int rowCount;
+    
+    
+    /**
+     * @param names names of the columns
+     * @param types java types of the column values
+     * @param initialCapacity initial number of rows of the columns
+     */
+    public ColumnBatchBuilder(List<String> names, List<Class<?>> types, int initialCapacity) {
+        Assert.notEmpty(names, "At least one column is required");
+        Assert.isTrue(names.size() == types.size(), "Number of column names and types must match");
+        this.names = List.copyOf(names);
+        this.types = List.copyOf(types);
+        this.initialCapacity = initialCapacity;
+        this.columns = createColumns();
+    }
+    
+    /**
+     * Creates a builder for columns of the attributes.
+     * 
+     * @param attributes the selected attributes
+     * @param initialCapacity initial number of rows of the columns
+     * @return never {@literal null}.
+     */
+    public static ColumnBatchBuilder of(List<? extends Attribute<?,?>> attributes, int initialCapacity) {
+        return new ColumnBatchBuilder(attributes.stream().map(Attribute::getName).collect(Collectors.toList()),
+                                      attributes.stream().<Class<?>>map(Attribute::getJavaType).collect(Collectors.toList()),
+                                      initialCapacity);
+    }
+    
+    /**
+     * Appends all rows of the stream to a single batch, the stream is closed afterwards.
+     * 
+     * @param rows the rows
+     * @return never {@literal null}.
+     */
+    public ColumnBatch build(Stream<?> rows) {
+        try (rows) {
+            rows.forEachOrdered(this::append);
+        }
+        return build();
+    }
+    
+    /**
+     * Creates a lazy sequential stream of batches with a maximum number of rows of the source, closing the stream closes the source.
+     * 
+     * @param rows the rows
+     * @param chunkSize maximum number of rows per batch
+     * @return never {@literal null}.
+     */
+    public Stream<ColumnBatch> chunks(Stream<?> rows, int chunkSize) {
+        Assert.isTrue(chunkSize > 0, "Chunk size must be greater than zero");
+        Spliterator<?> source = rows.spliterator();
+        Spliterator<ColumnBatch> batches = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super ColumnBatch> action) {
+                while (rowCount < chunkSize && source.tryAdvance(ColumnBatchBuilder.this::append)) {
+                    // read until chunk is full or source is exhausted
+                }
+                
+                if (rowCount == 0) {
+                    return false;
+                }
+                action.accept(build());
+                return true;
+            }
+        };
+        
+        return StreamSupport.stream(batches, false)
+                            .onClose(rows::close);
+    }
+    
+    /**
+     * Appends a row to the columns.
+     * 
+     * @param row {@code Object[]} of the column values or the single value if there is only one column
+     */
+    public void append(Object row) {
+        if (columns.size() == 1 && !(row instanceof Object[])) {
+            columns.get(0).append(row);
+        } else {
+            Object[] values = (Object[]) row;
+            Assert.isTrue(values.length == columns.size(), "Row has " + values.length + " values, but there are " + columns.size() + " columns");
+            for (int i = 0; i < values.length; i++) {
+                columns.get(i).append(values[i]);
+            }
+        }
+        rowCount++;
+    }
+    
+    /**
+     * @return number of rows appended since the last build
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+    
+    /**
+     * Builds the batch of the appended rows, the builder starts a new batch afterwards.
+     * 
+     * @return never {@literal null}.
+     */
+    public ColumnBatch build() {
+        ColumnBatch batch = new ColumnBatch(columns, rowCount);
+        columns = createColumns();
+        rowCount = 0;
+        return batch;
+    }
+    
+    protected List<Column> createColumns() {
+        List<Column> newColumns = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            newColumns.add(Column.of(names.get(i), types.get(i), initialCapacity));
+        }
+        return newColumns;
+    }
+    
+}
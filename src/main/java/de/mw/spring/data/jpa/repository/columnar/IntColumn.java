@@ -0,0 +1,48 @@
+package de.mw.spring.data.jpa.repository.columnar;
+
+import java.util.Arrays;
+
+/**
+ * {@link Column} of {@code int} values.
+ */
+public class IntColumn extends Column {
+
+    private int[] values;
+    
+    
+    public IntColumn(String name, int initialCapacity) {
+        super(name, initialCapacity);
+        this.values = new int[initialCapacity];
+    }
+    
+    public int getInt(int row) {
+        checkRow(row);
+        return values[row];
+    }
+    
+    /**
+     * Backing array of the values, only the first {@link #size()} values are valid.
+     * {@literal null} values are stored as {@code 0}.
+     * 
+     * @return never {@literal null}.
+     */
+    public int[] getValues() {
+        return values;
+    }
+    
+    @Override
+    protected int capacity() {
+        return values.length;
+    }
+    
+    @Override
+    protected void resize(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+    
+    @Override
+    protected void set(int row, Object value) {
+        values[row] = ((Number) value).intValue();
+    }
+    
+}
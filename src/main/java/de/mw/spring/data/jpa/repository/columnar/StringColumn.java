@@ -0,0 +1,75 @@
+package de.mw.spring.data.jpa.repository.columnar;
+
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoded {@link Column} of {@link String} values.
+ * Each distinct value is stored once in the dictionary, the rows store the code of their value.
+ */
+public class StringColumn extends Column {
+
+    private int[] codes;
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+    
+    
+    public StringColumn(String name, int initialCapacity) {
+        super(name, initialCapacity);
+        this.codes = new int[initialCapacity];
+    }
+    
+    @Nullable
+    public String getString(int row) {
+        return isNull(row) ? null : dictionary.get(codes[row]);
+    }
+    
+    /**
+     * @return code of the value in the dictionary, {@code -1} for {@literal null}
+     */
+    public int getCode(int row) {
+        return isNull(row) ? -1 : codes[row];
+    }
+    
+    /**
+     * Backing array of the codes, only the first {@link #size()} codes are valid.
+     * {@literal null} values are stored as {@code 0}, so {@link #isNull(int)} has to be checked.
+     * 
+     * @return never {@literal null}.
+     */
+    public int[] getCodes() {
+        return codes;
+    }
+    
+    /**
+     * @return distinct values by their code, never {@literal null}.
+     */
+    public List<String> getDictionary() {
+        return Collections.unmodifiableList(dictionary);
+    }
+    
+    @Override
+    protected int capacity() {
+        return codes.length;
+    }
+    
+    @Override
+    protected void resize(int capacity) {
+        codes = Arrays.copyOf(codes, capacity);
+    }
+    
+    @Override
+    protected void set(int row, Object value) {
+        codes[row] = dictionaryCodes.computeIfAbsent((String) value, v -> {
+            dictionary.add(v);
+            return dictionary.size() - 1;
+        });
+    }
+    
+}
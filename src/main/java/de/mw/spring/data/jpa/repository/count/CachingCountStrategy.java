@@ -0,0 +1,128 @@
+package de.mw.spring.data.jpa.repository.count;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import javax.persistence.TypedQuery;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import de.mw.spring.data.jpa.repository.CacheableSpecification;
+import lombok.Value;
+
+/**
+ * Caches the counts of a delegate strategy per {@link CacheableSpecification} fingerprint and parameters 
+ * for a time to live, e.g. for repeated paging over the same specification.
+ * Counts of other specifications are not cached.
+ * 
+ * The cache is bounded by the given maximum size and evicts the least recently used count.
+ * A cached count does not reflect changes of the data until it expires.
+ */
+public class CachingCountStrategy implements CountStrategy {
+
+    private final CountStrategy delegate;
+    private final Duration timeToLive;
+    private final Clock clock;
+    private final Map<CountKey, CachedCount> counts;
+    
+    
+    /**
+     * @param delegate determines the counts on cache misses
+     * @param timeToLive time to live of cached counts
+     * @param maxSize maximum number of cached counts
+     */
+    public CachingCountStrategy(CountStrategy delegate, Duration timeToLive, int maxSize) {
+        this(delegate, timeToLive, maxSize, Clock.systemUTC());
+    }
+    
+    /**
+     * @param delegate determines the counts on cache misses
+     * @param timeToLive time to live of cached counts
+     * @param maxSize maximum number of cached counts
+     * @param clock clock for expiration of cached counts
+     */
+    public CachingCountStrategy(CountStrategy delegate, Duration timeToLive, int maxSize, Clock clock) {
+        Assert.notNull(delegate, "Delegate must not be null");
+        Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "Time to live must be positive");
+        Assert.isTrue(maxSize > 0, "Maximum size must be greater than zero");
+        this.delegate = delegate;
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+        this.counts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CountKey, CachedCount> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+    
+    @Override
+    public long count(Class<?> domainClass, @Nullable Specification<?> spec, Supplier<TypedQuery<Long>> countQuery) {
+        if (!(spec instanceof CacheableSpecification)) {
+            return delegate.count(domainClass, spec, countQuery);
+        }
+        
+        CacheableSpecification<?> cacheableSpec = (CacheableSpecification<?>) spec;
+        CountKey key = new CountKey(domainClass, cacheableSpec.getFingerprint(), cacheableSpec.getParameters());
+        Instant now = clock.instant();
+        
+        synchronized (counts) {
+            CachedCount cachedCount = counts.get(key);
+            if (cachedCount != null && now.isBefore(cachedCount.getExpiresAt())) {
+                return cachedCount.getCount();
+            }
+        }
+        
+        // counted outside of the lock, so concurrent misses may count twice but do not block each other
+        long count = delegate.count(domainClass, spec, countQuery);
+        synchronized (counts) {
+            counts.put(key, new CachedCount(count, now.plus(timeToLive)));
+        }
+        return count;
+    }
+    
+    /**
+     * Evicts all cached counts, e.g. after modifications of the data.
+     */
+    public void clear() {
+        synchronized (counts) {
+            counts.clear();
+        }
+    }
+    
+    /**
+     * Evicts all cached counts of the given entity class.
+     */
+    public void evict(Class<?> domainClass) {
+        synchronized (counts) {
+            counts.keySet().removeIf(key -> key.getDomainClass().equals(domainClass));
+        }
+    }
+    
+    public int size() {
+        synchronized (counts) {
+            return counts.size();
+        }
+    }
+    
+    
+    @Value
+    private static class CountKey {
+        Class<?> domainClass;
+        Object fingerprint;
+        Map<String, Object> parameters;
+    }
+    
+    @Value
+    private static class CachedCount {
+        long count;
+        Instant expiresAt;
+    }
+    
+}
@@ -0,0 +1,26 @@
+package de.mw.spring.data.jpa.repository.count;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.TypedQuery;
+
+import java.util.function.Supplier;
+
+/**
+ * Strategy for determining the total count of paged queries.
+ */
+@FunctionalInterface
+public interface CountStrategy {
+    
+    /**
+     * Determines the total count of results matching the given {@link Specification}.
+     * 
+     * @param domainClass the entity class of the query
+     * @param spec can be {@literal null}.
+     * @param countQuery creates the exact count query of the specification
+     * @return the total count
+     */
+    long count(Class<?> domainClass, @Nullable Specification<?> spec, Supplier<TypedQuery<Long>> countQuery);
+    
+}
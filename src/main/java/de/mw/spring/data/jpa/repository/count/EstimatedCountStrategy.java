@@ -0,0 +1,179 @@
+package de.mw.spring.data.jpa.repository.count;
+
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.query.spi.HQLQueryPlan;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.hql.spi.NamedParameterInformation;
+import org.hibernate.hql.spi.ParameterTranslations;
+import org.hibernate.hql.spi.QueryTranslator;
+import org.hibernate.type.Type;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Estimates counts by the row estimate of the query planner of the database instead of executing the count query,
+ * e.g. for UIs that only need an approximate total of large results.
+ * The estimate depends on the statistics of the database and can be far off for complex predicates.
+ * 
+ * Currently supports PostgreSQL by {@code EXPLAIN} of the count query. On other databases, for grouped count queries,
+ * for count queries with multi-column parameters and for estimates below the exact threshold, the fallback strategy is used.
+ */
+public class EstimatedCountStrategy implements CountStrategy {
+
+    private static final Pattern PLAN_NODE = Pattern.compile("^\\s*(?:->\\s*)?([^(]+?)\\s+\\(cost=\\S+ rows=(\\d+)");
+    private static final Pattern WORKERS_PLANNED = Pattern.compile("^\\s*Workers Planned: (\\d+)");
+    
+    private final EntityManager entityManager;
+    private final CountStrategy fallback;
+    private final long exactThreshold;
+    private Boolean supported;
+    
+    
+    /**
+     * @param entityManager the shared entity manager of the repository
+     * @param fallback strategy used if the count can not be estimated or the estimate is below the exact threshold
+     * @param exactThreshold estimates below are replaced by the count of the fallback, as small results are cheap to count
+     */
+    public EstimatedCountStrategy(EntityManager entityManager, CountStrategy fallback, long exactThreshold) {
+        Assert.notNull(entityManager, "EntityManager must not be null");
+        Assert.notNull(fallback, "Fallback must not be null");
+        this.entityManager = entityManager;
+        this.fallback = fallback;
+        this.exactThreshold = exactThreshold;
+    }
+    
+    @Override
+    public long count(Class<?> domainClass, @Nullable Specification<?> spec, Supplier<TypedQuery<Long>> countQuery) {
+        if (!isSupported()) {
+            return fallback.count(domainClass, spec, countQuery);
+        }
+        
+        TypedQuery<Long> query = countQuery.get();
+        OptionalLong estimate = estimate(query);
+        if (estimate.isEmpty() || estimate.getAsLong() < exactThreshold) {
+            return fallback.count(domainClass, spec, () -> query);
+        }
+        return estimate.getAsLong();
+    }
+    
+    
+    protected boolean isSupported() {
+        if (supported == null) {
+            supported = getSessionFactory().getJdbcServices().getDialect() instanceof PostgreSQL81Dialect;
+        }
+        return supported;
+    }
+    
+    /**
+     * Explains the SQL of the given count query with its bound parameters and reads the row estimate 
+     * of the input of the count aggregate.
+     */
+    protected OptionalLong estimate(TypedQuery<Long> query) {
+        org.hibernate.query.Query<?> hibernateQuery = query.unwrap(org.hibernate.query.Query.class);
+        HQLQueryPlan plan = getSessionFactory().getQueryPlanCache().getHQLQueryPlan(hibernateQuery.getQueryString(), false, Collections.emptyMap());
+        if (plan.getTranslators().length != 1) {
+            return OptionalLong.empty();
+        }
+        
+        QueryTranslator translator = plan.getTranslators()[0];
+        ParameterTranslations parameterTranslations = translator.getParameterTranslations();
+        if (!parameterTranslations.getPositionalParameterInformationMap().isEmpty()) {
+            return OptionalLong.empty();
+        }
+        
+        // JDBC position -> (type, value)
+        Map<Integer, Object[]> bindings = new TreeMap<>();
+        for (Map.Entry<String, NamedParameterInformation> parameter : parameterTranslations.getNamedParameterInformationMap().entrySet()) {
+            Object value = hibernateQuery.getParameterValue(parameter.getKey());
+            Type type = parameter.getValue().getExpectedType();
+            if (value instanceof Collection || type == null || type.getColumnSpan(getSessionFactory()) != 1) {
+                return OptionalLong.empty();
+            }
+            for (int location : parameter.getValue().getSourceLocations()) {
+                bindings.put(location + 1, new Object[] {type, value});
+            }
+        }
+        
+        Session session = entityManager.unwrap(Session.class);
+        List<String> planLines = session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + translator.getSQLString())) {
+                for (Map.Entry<Integer, Object[]> binding : bindings.entrySet()) {
+                    ((Type) binding.getValue()[0]).nullSafeSet(statement, binding.getValue()[1], binding.getKey(), (SharedSessionContractImplementor) session);
+                }
+                
+                List<String> lines = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        lines.add(resultSet.getString(1));
+                    }
+                }
+                return lines;
+            }
+        });
+        
+        return parsePlanRows(planLines);
+    }
+    
+    /**
+     * Reads the row estimate of the first plan node below the count aggregate, 
+     * the row estimates of parallel nodes are per worker and multiplied by the number of planned workers plus leader.
+     * 
+     * @param planLines text plan of {@code EXPLAIN}
+     * @return the estimate or empty, if the plan is not a plain count aggregate
+     */
+    protected OptionalLong parsePlanRows(List<String> planLines) {
+        long workers = 0;
+        boolean first = true;
+        
+        for (String line : planLines) {
+            Matcher workersPlanned = WORKERS_PLANNED.matcher(line);
+            if (workersPlanned.find()) {
+                workers = Long.parseLong(workersPlanned.group(1));
+                continue;
+            }
+            
+            Matcher node = PLAN_NODE.matcher(line);
+            if (!node.find()) {
+                continue;
+            }
+            
+            String nodeType = node.group(1);
+            if (first) {
+                // grouped counts are not estimated
+                if (!nodeType.equals("Aggregate") && !nodeType.equals("Finalize Aggregate")) {
+                    return OptionalLong.empty();
+                }
+                first = false;
+            } else if (!nodeType.contains("Aggregate") && !nodeType.startsWith("Gather")) {
+                long rows = Long.parseLong(node.group(2));
+                return OptionalLong.of(nodeType.startsWith("Parallel") ? rows * (workers + 1) : rows);
+            }
+        }
+        
+        return OptionalLong.empty();
+    }
+    
+    protected SessionFactoryImplementor getSessionFactory() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+    }
+    
+}
@@ -0,0 +1,33 @@
+package de.mw.spring.data.jpa.repository.count;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.TypedQuery;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Counts by executing the exact count query, the default behavior of paged queries.
+ */
+public class ExactCountStrategy implements CountStrategy {
+
+    @Override
+    public long count(Class<?> domainClass, @Nullable Specification<?> spec, Supplier<TypedQuery<Long>> countQuery) {
+        return executeCountQuery(countQuery.get());
+    }
+    
+    // Note: Copy from {@link SimpleJpaRepository}
+    protected long executeCountQuery(TypedQuery<Long> query) {
+        List<Long> totals = query.getResultList();
+        long total = 0L;
+        
+        for (Long element : totals) {
+            total += element == null ? 0 : element;
+        }
+        
+        return total;
+    }
+
+}
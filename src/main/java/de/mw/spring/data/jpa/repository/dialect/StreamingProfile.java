@@ -0,0 +1,141 @@
+package de.mw.spring.data.jpa.repository.dialect;
+
+import org.springframework.util.Assert;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Database specific configuration of streaming queries, so that the JDBC driver really streams the rows
+ * of a result set instead of reading the whole result into memory.
+ *
+ * <ul>
+ * <li>Default hints are applied if the caller did not set the hint, e.g. a fetch size.</li>
+ * <li>Required hints are always applied and override the hints of the caller, e.g. the MySQL streaming fetch size.</li>
+ * <li>If a transaction is required, the driver only streams if the connection is not in auto-commit mode.</li>
+ * </ul>
+ *
+ * Hibernate already opens the result streams as forward-only, read-only result sets.
+ */
+public class StreamingProfile {
+
+    /**
+     * Fetch size of streaming queries without fetch size hint of the caller
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private final String name;
+    private final Map<String, Object> defaultHints;
+    private final Map<String, Object> requiredHints;
+    private final boolean transactionRequired;
+    private final boolean streamingGuaranteed;
+
+
+    /**
+     * @param name name of the profile for logging
+     * @param defaultHints hints applied if not set by the caller, must not be {@literal null}.
+     * @param requiredHints hints overriding the hints of the caller, must not be {@literal null}.
+     * @param transactionRequired whether the driver only streams with auto-commit disabled
+     * @param streamingGuaranteed whether the driver streams with this profile,
+     *                            {@literal false} if the streaming behavior of the database is unknown
+     */
+    public StreamingProfile(String name, Map<String, Object> defaultHints, Map<String, Object> requiredHints,
+                            boolean transactionRequired, boolean streamingGuaranteed) {
+        Assert.hasText(name, "Name must not be empty");
+        Assert.notNull(defaultHints, "Default hints must not be null");
+        Assert.notNull(requiredHints, "Required hints must not be null");
+        this.name = name;
+        this.defaultHints = Map.copyOf(defaultHints);
+        this.requiredHints = Map.copyOf(requiredHints);
+        this.transactionRequired = transactionRequired;
+        this.streamingGuaranteed = streamingGuaranteed;
+    }
+
+    /**
+     * MySQL and MariaDB Connector/J stream only with a fetch size of {@link Integer#MIN_VALUE},
+     * any other fetch size reads the whole result unless cursor fetch is enabled in the connection URL.
+     * While a result is streamed no other query can be executed on the same connection, e.g. for lazy loading.
+     */
+    public static StreamingProfile mysql() {
+        return new StreamingProfile("MySQL",
+                                    Map.of(org.hibernate.jpa.QueryHints.HINT_READONLY, "true"),
+                                    Map.of(org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, String.valueOf(Integer.MIN_VALUE)),
+                                    false, true);
+    }
+
+    /**
+     * The PostgreSQL driver uses a cursor only with a positive fetch size and auto-commit disabled,
+     * otherwise it reads the whole result.
+     */
+    public static StreamingProfile postgresql() {
+        return new StreamingProfile("PostgreSQL", fetchSizeHints(DEFAULT_FETCH_SIZE), Map.of(), true, true);
+    }
+
+    /**
+     * The Oracle driver streams by prefetching rows, the fetch size is the number of prefetched rows,
+     * which defaults to only 10 rows per round trip.
+     */
+    public static StreamingProfile oracle() {
+        return new StreamingProfile("Oracle", fetchSizeHints(DEFAULT_FETCH_SIZE), Map.of(), false, true);
+    }
+
+    /**
+     * The SQL Server driver streams with its default adaptive response buffering.
+     */
+    public static StreamingProfile sqlServer() {
+        return new StreamingProfile("SQL Server", fetchSizeHints(DEFAULT_FETCH_SIZE), Map.of(), false, true);
+    }
+
+    /**
+     * The DB2 driver streams by blocks of the fetch size.
+     */
+    public static StreamingProfile db2() {
+        return new StreamingProfile("DB2", fetchSizeHints(DEFAULT_FETCH_SIZE), Map.of(), false, true);
+    }
+
+    /**
+     * Profile of databases with unknown streaming behavior, only the fetch size is applied.
+     */
+    public static StreamingProfile generic() {
+        return new StreamingProfile("generic", fetchSizeHints(DEFAULT_FETCH_SIZE), Map.of(), false, false);
+    }
+
+    /**
+     * Applies the hints of this profile to the given hints of the caller.
+     *
+     * @param queryHints hints of the caller, must not be {@literal null}.
+     * @return new hints, never {@literal null}.
+     */
+    public Map<String, Object> apply(Map<String, Object> queryHints) {
+        Map<String, Object> hints = new HashMap<>(defaultHints);
+        hints.putAll(queryHints);
+        hints.putAll(requiredHints);
+        return hints;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> getDefaultHints() {
+        return defaultHints;
+    }
+
+    public Map<String, Object> getRequiredHints() {
+        return requiredHints;
+    }
+
+    public boolean isTransactionRequired() {
+        return transactionRequired;
+    }
+
+    public boolean isStreamingGuaranteed() {
+        return streamingGuaranteed;
+    }
+
+    private static Map<String, Object> fetchSizeHints(int fetchSize) {
+        return Map.of(org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, String.valueOf(fetchSize),
+                      org.hibernate.jpa.QueryHints.HINT_READONLY, "true");
+    }
+
+}
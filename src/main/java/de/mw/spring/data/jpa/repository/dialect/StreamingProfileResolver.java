@@ -0,0 +1,98 @@
+package de.mw.spring.data.jpa.repository.dialect;
+
+import org.hibernate.dialect.DB2Dialect;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.Oracle8iDialect;
+import org.hibernate.dialect.Oracle9Dialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.dialect.SQLServerDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.util.Assert;
+
+import javax.persistence.EntityManagerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resolves the {@link StreamingProfile} of the Hibernate {@link Dialect} of an entity manager factory.
+ *
+ * Profiles are registered by dialect class and match all subclasses of the dialect, the profile
+ * of the most recently registered matching dialect wins. Dialects without a registered profile
+ * get the {@link StreamingProfile#generic()} profile and a warning is logged,
+ * because real streaming can not be guaranteed.
+ */
+@Slf4j
+public class StreamingProfileResolver {
+
+    private final Map<Class<? extends Dialect>, StreamingProfile> profiles = new LinkedHashMap<>();
+
+
+    /**
+     * Creates a resolver with the profiles of MySQL/MariaDB, PostgreSQL, Oracle, SQL Server and DB2.
+     */
+    public StreamingProfileResolver() {
+        register(MySQLDialect.class, StreamingProfile.mysql());
+        register(PostgreSQL81Dialect.class, StreamingProfile.postgresql());
+        register(Oracle8iDialect.class, StreamingProfile.oracle());
+        register(Oracle9Dialect.class, StreamingProfile.oracle());
+        register(SQLServerDialect.class, StreamingProfile.sqlServer());
+        register(DB2Dialect.class, StreamingProfile.db2());
+    }
+
+
+    /**
+     * Registers the profile of the given dialect and its subclasses.
+     *
+     * @param dialectClass the dialect, must not be {@literal null}.
+     * @param profile the profile, must not be {@literal null}.
+     * @return this resolver
+     */
+    public synchronized StreamingProfileResolver register(Class<? extends Dialect> dialectClass, StreamingProfile profile) {
+        Assert.notNull(dialectClass, "Dialect class must not be null");
+        Assert.notNull(profile, "Profile must not be null");
+        profiles.remove(dialectClass);
+        profiles.put(dialectClass, profile);
+        return this;
+    }
+
+    /**
+     * Resolves the profile of the dialect of the given Hibernate entity manager factory.
+     *
+     * @param entityManagerFactory must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    public StreamingProfile resolve(EntityManagerFactory entityManagerFactory) {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        return resolve(dialect);
+    }
+
+    /**
+     * Resolves the profile of the given dialect.
+     *
+     * @param dialect must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    public synchronized StreamingProfile resolve(Dialect dialect) {
+        Assert.notNull(dialect, "Dialect must not be null");
+        StreamingProfile resolved = null;
+        for (Map.Entry<Class<? extends Dialect>, StreamingProfile> entry : profiles.entrySet()) {
+            if (entry.getKey().isInstance(dialect)) {
+                resolved = entry.getValue();
+            }
+        }
+
+        if (resolved == null) {
+            resolved = StreamingProfile.generic();
+        }
+        if (!resolved.isStreamingGuaranteed()) {
+            log.warn("Streaming of results can not be guaranteed for dialect {}, results may be read completely into memory",
+                     dialect.getClass().getName());
+        }
+        return resolved;
+    }
+
+}
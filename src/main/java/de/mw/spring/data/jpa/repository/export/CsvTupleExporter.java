@@ -0,0 +1,96 @@
+package de.mw.spring.data.jpa.repository.export;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+
+import java.util.List;
+
+/**
+ * Exports tuples as CSV lines (RFC 4180 quoting, {@code \n} line separator) with an optional header of the tuple aliases.
+ * 
+ * {@literal null} values are written as empty fields, text is quoted if it contains the delimiter, a quote or a line break.
+ * No header is written for an empty result, because the columns are only known by the first tuple.
+ */
+public class CsvTupleExporter extends TupleExporter {
+
+    protected final char delimiter;
+    protected final boolean header;
+    
+    
+    /**
+     * @param delimiter ASCII field delimiter
+     * @param header whether to write a header line of the tuple aliases
+     * @param flushSize number of buffered bytes before flushing to the target
+     */
+    public CsvTupleExporter(char delimiter, boolean header, int flushSize) {
+        super(flushSize);
+        this.delimiter = delimiter;
+        this.header = header;
+    }
+    
+    @Override
+    protected RowEncoder createEncoder(List<TupleElement<?>> elements) {
+        int columns = elements.size();
+        
+        return new RowEncoder() {
+            @Override
+            public void writeHeader(ExportBuffer buffer) {
+                if (header) {
+                    for (int i = 0; i < columns; i++) {
+                        if (i > 0) {
+                            buffer.putAscii(delimiter);
+                        }
+                        writeText(buffer, getColumnName(elements, i));
+                    }
+                    buffer.putAscii('\n');
+                }
+            }
+            
+            @Override
+            public void writeRow(ExportBuffer buffer, Tuple tuple) {
+                for (int i = 0; i < columns; i++) {
+                    if (i > 0) {
+                        buffer.putAscii(delimiter);
+                    }
+                    writeValue(buffer, tuple.get(i));
+                }
+                buffer.putAscii('\n');
+            }
+        };
+    }
+    
+    protected void writeValue(ExportBuffer buffer, Object value) {
+        if (value != null && !writePrimitive(buffer, value)) {
+            writeText(buffer, toText(value));
+        }
+    }
+    
+    protected void writeText(ExportBuffer buffer, CharSequence text) {
+        if (!needsQuoting(text)) {
+            buffer.putUtf8(text);
+            return;
+        }
+        
+        buffer.putAscii('"');
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = Character.codePointAt(text, i);
+            i += Character.charCount(codePoint);
+            if (codePoint == '"') {
+                buffer.putAscii('"');
+            }
+            buffer.putCodePoint(codePoint);
+        }
+        buffer.putAscii('"');
+    }
+    
+    protected boolean needsQuoting(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+}
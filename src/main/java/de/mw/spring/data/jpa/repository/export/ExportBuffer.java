@@ -0,0 +1,258 @@
+package de.mw.spring.data.jpa.repository.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer encoding values directly to UTF-8 bytes, reused for all rows of an export.
+ * 
+ * Integral numbers and {@code java.time} values are encoded digit by digit without intermediate strings.
+ * Temporal values are encoded as ISO-8601 with seconds and a fraction of 3, 6 or 9 digits if not zero.
+ */
+public class ExportBuffer {
+
+    private byte[] bytes;
+    private ByteBuffer view;
+    private int position;
+    
+    
+    public ExportBuffer(int initialCapacity) {
+        this.bytes = new byte[Math.max(16, initialCapacity)];
+        this.view = ByteBuffer.wrap(bytes);
+    }
+    
+    /**
+     * @return number of bytes in the buffer
+     */
+    public int position() {
+        return position;
+    }
+    
+    /**
+     * Writes all bytes of the buffer to the channel and clears the buffer.
+     * 
+     * @param channel the target channel
+     * @throws IOException on failed write
+     */
+    public void flushTo(WritableByteChannel channel) throws IOException {
+        view.clear().limit(position);
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+        position = 0;
+    }
+    
+    /**
+     * @return copy of the bytes in the buffer
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, position);
+    }
+    
+    public ExportBuffer put(byte value) {
+        ensureCapacity(1);
+        bytes[position++] = value;
+        return this;
+    }
+    
+    public ExportBuffer put(byte[] values) {
+        ensureCapacity(values.length);
+        System.arraycopy(values, 0, bytes, position, values.length);
+        position += values.length;
+        return this;
+    }
+    
+    /**
+     * Puts a character of the ASCII range.
+     */
+    public ExportBuffer putAscii(char value) {
+        return put((byte) value);
+    }
+    
+    /**
+     * Puts a string of the ASCII range, e.g. a number or identifier.
+     */
+    public ExportBuffer putAscii(String value) {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            bytes[position++] = (byte) value.charAt(i);
+        }
+        return this;
+    }
+    
+    public ExportBuffer putUtf8(CharSequence value) {
+        for (int i = 0; i < value.length(); ) {
+            int codePoint = Character.codePointAt(value, i);
+            i += Character.charCount(codePoint);
+            putCodePoint(codePoint);
+        }
+        return this;
+    }
+    
+    /**
+     * Puts a code point as UTF-8, unpaired surrogates are replaced by {@code ?}.
+     */
+    public ExportBuffer putCodePoint(int codePoint) {
+        ensureCapacity(4);
+        if (codePoint < 0x80) {
+            bytes[position++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            bytes[position++] = (byte) (0xC0 | (codePoint >> 6));
+            bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (Character.isSurrogate((char) codePoint) && codePoint < 0x10000) {
+            bytes[position++] = '?';
+        } else if (codePoint < 0x10000) {
+            bytes[position++] = (byte) (0xE0 | (codePoint >> 12));
+            bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+            bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        return this;
+    }
+    
+    public ExportBuffer putLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            return putAscii(Long.toString(value));
+        }
+        
+        ensureCapacity(20);
+        if (value < 0) {
+            bytes[position++] = '-';
+            value = -value;
+        }
+        
+        int digits = 1;
+        for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+        return this;
+    }
+    
+    public ExportBuffer putLocalDate(LocalDate value) {
+        return putDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+    }
+    
+    public ExportBuffer putLocalTime(LocalTime value) {
+        return putTime(value.getHour(), value.getMinute(), value.getSecond(), value.getNano());
+    }
+    
+    public ExportBuffer putLocalDateTime(LocalDateTime value) {
+        putDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        putAscii('T');
+        return putTime(value.getHour(), value.getMinute(), value.getSecond(), value.getNano());
+    }
+    
+    public ExportBuffer putOffsetDateTime(OffsetDateTime value) {
+        putDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        putAscii('T');
+        putTime(value.getHour(), value.getMinute(), value.getSecond(), value.getNano());
+        return putAscii(value.getOffset().getId());
+    }
+    
+    /**
+     * Puts the instant as UTC date time with {@code Z} suffix.
+     */
+    public ExportBuffer putInstant(Instant value) {
+        long epochDay = Math.floorDiv(value.getEpochSecond(), 86400);
+        int secondOfDay = (int) Math.floorMod(value.getEpochSecond(), 86400);
+        
+        // civil date of epoch day, see http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        
+        putDate(year, month, day);
+        putAscii('T');
+        putTime(secondOfDay / 3600, secondOfDay / 60 % 60, secondOfDay % 60, value.getNano());
+        return putAscii('Z');
+    }
+    
+    protected ExportBuffer putDate(long year, int month, int day) {
+        if (year > 9999) {
+            putAscii('+');
+            putLong(year);
+        } else if (year < 0) {
+            putAscii('-');
+            putPadded((int) -year, 4);
+        } else {
+            putPadded((int) year, 4);
+        }
+        putAscii('-');
+        putPadded(month, 2);
+        putAscii('-');
+        return putPadded(day, 2);
+    }
+    
+    protected ExportBuffer putTime(int hour, int minute, int second, int nano) {
+        putPadded(hour, 2);
+        putAscii(':');
+        putPadded(minute, 2);
+        putAscii(':');
+        putPadded(second, 2);
+        
+        if (nano != 0) {
+            putAscii('.');
+            if (nano % 1_000_000 == 0) {
+                putPadded(nano / 1_000_000, 3);
+            } else if (nano % 1000 == 0) {
+                putPadded(nano / 1000, 6);
+            } else {
+                putPadded(nano, 9);
+            }
+        }
+        return this;
+    }
+    
+    /**
+     * Puts a non negative number left padded with zeros.
+     */
+    protected ExportBuffer putPadded(int value, int width) {
+        ensureCapacity(Math.max(width, 10));
+        int digits = 1;
+        for (int remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        for (int i = digits; i < width; i++) {
+            bytes[position++] = '0';
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+        return this;
+    }
+    
+    protected void ensureCapacity(int additional) {
+        if (position + additional > bytes.length) {
+            byte[] grown = new byte[Math.max(bytes.length * 2, position + additional)];
+            System.arraycopy(bytes, 0, grown, 0, position);
+            bytes = grown;
+            view = ByteBuffer.wrap(bytes);
+        }
+    }
+    
+}
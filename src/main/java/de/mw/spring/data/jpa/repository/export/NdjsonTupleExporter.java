@@ -0,0 +1,105 @@
+package de.mw.spring.data.jpa.repository.export;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Exports tuples as newline delimited JSON, one object per tuple with the tuple aliases as keys.
+ * 
+ * Numbers and booleans are written as JSON literals (non finite floating point numbers as {@code null}),
+ * all other values as JSON strings. The keys are encoded once per export.
+ */
+public class NdjsonTupleExporter extends TupleExporter {
+
+    private static final String[] CONTROL_ESCAPES = new String[0x20];
+    
+    static {
+        for (int c = 0; c < CONTROL_ESCAPES.length; c++) {
+            CONTROL_ESCAPES[c] = String.format("\\u%04x", c);
+        }
+        CONTROL_ESCAPES['\b'] = "\\b";
+        CONTROL_ESCAPES['\t'] = "\\t";
+        CONTROL_ESCAPES['\n'] = "\\n";
+        CONTROL_ESCAPES['\f'] = "\\f";
+        CONTROL_ESCAPES['\r'] = "\\r";
+    }
+    
+    /**
+     * @param flushSize number of buffered bytes before flushing to the target
+     */
+    public NdjsonTupleExporter(int flushSize) {
+        super(flushSize);
+    }
+    
+    @Override
+    protected RowEncoder createEncoder(List<TupleElement<?>> elements) {
+        byte[][] keys = new byte[elements.size()][];
+        for (int i = 0; i < keys.length; i++) {
+            ExportBuffer key = new ExportBuffer(32);
+            key.putAscii(i == 0 ? '{' : ',');
+            writeString(key, getColumnName(elements, i));
+            key.putAscii(':');
+            keys[i] = key.toByteArray();
+        }
+        
+        return new RowEncoder() {
+            @Override
+            public void writeHeader(ExportBuffer buffer) {
+                // no header
+            }
+            
+            @Override
+            public void writeRow(ExportBuffer buffer, Tuple tuple) {
+                for (int i = 0; i < keys.length; i++) {
+                    buffer.put(keys[i]);
+                    writeValue(buffer, tuple.get(i));
+                }
+                buffer.putAscii(keys.length == 0 ? "{}\n" : "}\n");
+            }
+        };
+    }
+    
+    protected void writeValue(ExportBuffer buffer, Object value) {
+        if (value == null) {
+            buffer.putAscii("null");
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            buffer.putAscii(Double.isFinite(number) ? value.toString() : "null");
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            buffer.putAscii(value.toString());
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte || value instanceof Boolean) {
+            writePrimitive(buffer, value);
+        } else {
+            buffer.putAscii('"');
+            if (!writeTemporal(buffer, value)) {
+                writeEscaped(buffer, toText(value));
+            }
+            buffer.putAscii('"');
+        }
+    }
+    
+    protected void writeString(ExportBuffer buffer, CharSequence text) {
+        buffer.putAscii('"');
+        writeEscaped(buffer, text);
+        buffer.putAscii('"');
+    }
+    
+    protected void writeEscaped(ExportBuffer buffer, CharSequence text) {
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = Character.codePointAt(text, i);
+            i += Character.charCount(codePoint);
+            if (codePoint < 0x20) {
+                buffer.putAscii(CONTROL_ESCAPES[codePoint]);
+            } else if (codePoint == '"' || codePoint == '\\') {
+                buffer.putAscii('\\').putAscii((char) codePoint);
+            } else {
+                buffer.putCodePoint(codePoint);
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,186 @@
+package de.mw.spring.data.jpa.repository.export;
+
+import org.springframework.util.Assert;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exports tuples row by row to bytes, encoding the tuple elements directly into a reusable {@link ExportBuffer}
+ * which is flushed to the target whenever it exceeds the flush size.
+ * 
+ * Integral numbers, booleans, enums and {@code java.time} values are encoded without intermediate objects,
+ * other values by their string representation. The exporter is stateless, so it can be shared.
+ */
+public abstract class TupleExporter {
+
+    /**
+     * Default number of buffered bytes before flushing to the target
+     */
+    public static final int DEFAULT_FLUSH_SIZE = 64 * 1024;
+    
+    protected final int flushSize;
+    
+    
+    protected TupleExporter(int flushSize) {
+        Assert.isTrue(flushSize > 0, "Flush size must be greater than zero");
+        this.flushSize = flushSize;
+    }
+    
+    /**
+     * @return CSV exporter with header and comma delimiter
+     */
+    public static TupleExporter csv() {
+        return new CsvTupleExporter(',', true, DEFAULT_FLUSH_SIZE);
+    }
+    
+    /**
+     * @return newline delimited JSON exporter
+     */
+    public static TupleExporter ndjson() {
+        return new NdjsonTupleExporter(DEFAULT_FLUSH_SIZE);
+    }
+    
+    /**
+     * Exports all tuples of the stream, the stream and the output stream are not closed.
+     * 
+     * @param tuples the tuples to export
+     * @param out the target
+     * @return number of exported rows
+     * @throws IOException on failed write
+     */
+    public long export(Stream<Tuple> tuples, OutputStream out) throws IOException {
+        long rows = export(tuples, Channels.newChannel(out));
+        out.flush();
+        return rows;
+    }
+    
+    /**
+     * Exports all tuples of the stream, the stream and the channel are not closed.
+     * 
+     * @param tuples the tuples to export
+     * @param channel the target
+     * @return number of exported rows
+     * @throws IOException on failed write
+     */
+    public long export(Stream<Tuple> tuples, WritableByteChannel channel) throws IOException {
+        ExportBuffer buffer = new ExportBuffer(flushSize + flushSize / 4);
+        RowEncoder encoder = null;
+        long rows = 0;
+        
+        for (Iterator<Tuple> iterator = tuples.iterator(); iterator.hasNext(); rows++) {
+            Tuple tuple = iterator.next();
+            if (encoder == null) { // the elements of the first tuple are the same for all tuples
+                encoder = createEncoder(tuple.getElements());
+                encoder.writeHeader(buffer);
+            }
+            
+            encoder.writeRow(buffer, tuple);
+            if (buffer.position() >= flushSize) {
+                buffer.flushTo(channel);
+            }
+        }
+        
+        buffer.flushTo(channel);
+        return rows;
+    }
+    
+    /**
+     * Creates the encoder for the rows of an export.
+     * 
+     * @param elements the tuple elements of all rows
+     */
+    protected abstract RowEncoder createEncoder(List<TupleElement<?>> elements);
+    
+    /**
+     * @return alias of the element or {@code column<n>} (1-based) if there is none
+     */
+    protected String getColumnName(List<TupleElement<?>> elements, int index) {
+        String alias = elements.get(index).getAlias();
+        return alias != null ? alias : "column" + (index + 1);
+    }
+    
+    /**
+     * Writes integral numbers, booleans and {@code java.time} values without intermediate objects.
+     * 
+     * @return {@literal false} if the value is not of one of these types and was not written
+     */
+    protected boolean writePrimitive(ExportBuffer buffer, Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            buffer.putLong(((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            buffer.putAscii((Boolean) value ? "true" : "false");
+        } else {
+            return writeTemporal(buffer, value);
+        }
+        return true;
+    }
+    
+    /**
+     * Writes {@code java.time} values and legacy {@code java.sql} date values (which are converted first).
+     * 
+     * @return {@literal false} if the value is not of a temporal type and was not written
+     */
+    protected boolean writeTemporal(ExportBuffer buffer, Object value) {
+        if (value instanceof LocalDateTime) {
+            buffer.putLocalDateTime((LocalDateTime) value);
+        } else if (value instanceof LocalDate) {
+            buffer.putLocalDate((LocalDate) value);
+        } else if (value instanceof Instant) {
+            buffer.putInstant((Instant) value);
+        } else if (value instanceof OffsetDateTime) {
+            buffer.putOffsetDateTime((OffsetDateTime) value);
+        } else if (value instanceof LocalTime) {
+            buffer.putLocalTime((LocalTime) value);
+        } else if (value instanceof java.sql.Timestamp) {
+            buffer.putLocalDateTime(((java.sql.Timestamp) value).toLocalDateTime());
+        } else if (value instanceof java.sql.Date) {
+            buffer.putLocalDate(((java.sql.Date) value).toLocalDate());
+        } else if (value instanceof java.sql.Time) {
+            buffer.putLocalTime(((java.sql.Time) value).toLocalTime());
+        } else if (value instanceof java.util.Date) {
+            buffer.putInstant(((java.util.Date) value).toInstant());
+        } else {
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * @return text of non primitive values, the name for enums
+     */
+    protected CharSequence toText(Object value) {
+        if (value instanceof CharSequence) {
+            return (CharSequence) value;
+        } else if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        return value.toString();
+    }
+    
+    
+    /**
+     * Encoder of the rows of a single export
+     */
+    protected interface RowEncoder {
+        
+        void writeHeader(ExportBuffer buffer);
+        
+        void writeRow(ExportBuffer buffer, Tuple tuple);
+        
+    }
+    
+}
@@ -0,0 +1,237 @@
+package de.mw.spring.data.jpa.repository.fetch;
+
+import org.springframework.util.Assert;
+
+import javax.persistence.Tuple;
+
+import java.time.temporal.Temporal;
+import java.util.Date;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Chooses the fetch size of the chunks of a keyset stream by the measured row size, load time and consumer rate.
+ *
+ * The first chunks are loaded as probes, starting with the minimum fetch size which is doubled for each probe.
+ * After the probes the fetch size is fixed for the rest of the stream: it is the smallest size for which the
+ * estimated fixed round trip time of a chunk is at most {@link #MAX_ROUND_TRIP_PERCENT} percent of the time of loading and
+ * consuming the chunk, bounded by the minimum and maximum fetch size and by the memory budget of a single chunk.
+ *
+ * A controller measures a single stream and must not be shared between streams,
+ * its statistics can be read during and after streaming.
+ */
+public class AdaptiveFetchSizeController {
+
+    /**
+     * Maximum percentage of the fixed round trip time of a chunk in the total time of loading and consuming the chunk
+     */
+    protected static final int MAX_ROUND_TRIP_PERCENT = 10;
+
+    /**
+     * Default number of probe chunks
+     */
+    protected static final int DEFAULT_PROBE_CHUNKS = 3;
+
+    /**
+     * Estimated size of objects of unknown type, e.g. entities
+     */
+    protected static final long DEFAULT_OBJECT_SIZE = 64;
+
+    private final int minFetchSize;
+    private final int maxFetchSize;
+    private final long memoryBudget;
+    private int probeChunks = DEFAULT_PROBE_CHUNKS;
+    private ToLongFunction<Object> rowSizeEstimator = AdaptiveFetchSizeController::estimateSize;
+
+    private int fetchSize;
+    private boolean tuned;
+    private long chunks;
+    private long rows;
+    private boolean consuming;
+    private long lastLoadEnd;
+    private long probeRows;
+    private long probeBytes;
+    private long probeConsumeNanos;
+    private long[] probeSizes;
+    private long[] probeLoadNanos;
+    private long roundTripNanos;
+    private long loadNanosPerRow;
+
+
+    /**
+     * @param minFetchSize fetch size of the first chunk, must be greater than zero
+     * @param maxFetchSize maximum fetch size, must not be less than the minimum fetch size
+     * @param memoryBudget maximum estimated bytes of the rows of a single chunk, must be greater than zero
+     */
+    public AdaptiveFetchSizeController(int minFetchSize, int maxFetchSize, long memoryBudget) {
+        Assert.isTrue(minFetchSize > 0, "Minimum fetch size must be greater than zero");
+        Assert.isTrue(maxFetchSize >= minFetchSize, "Maximum fetch size must not be less than minimum fetch size");
+        Assert.isTrue(memoryBudget > 0, "Memory budget must be greater than zero");
+        this.minFetchSize = minFetchSize;
+        this.maxFetchSize = maxFetchSize;
+        this.memoryBudget = memoryBudget;
+        this.fetchSize = minFetchSize;
+    }
+
+
+    /**
+     * @param probeChunks number of chunks measured before the fetch size is fixed, must be greater than zero
+     */
+    public synchronized void setProbeChunks(int probeChunks) {
+        Assert.isTrue(probeChunks > 0, "Number of probe chunks must be greater than zero");
+        Assert.state(chunks == 0, "Probe chunks must be configured before streaming");
+        this.probeChunks = probeChunks;
+    }
+
+    /**
+     * @param rowSizeEstimator estimates the bytes of a row, by default {@link #estimateSize(Object)}
+     */
+    public synchronized void setRowSizeEstimator(ToLongFunction<Object> rowSizeEstimator) {
+        Assert.notNull(rowSizeEstimator, "Row size estimator must not be null");
+        this.rowSizeEstimator = rowSizeEstimator;
+    }
+
+    /**
+     * Returns the fetch size of the next chunk, called before loading each chunk.
+     * The time since the previous chunk was recorded is measured as consumption time of the previous chunk.
+     */
+    public synchronized int nextFetchSize() {
+        if (consuming) {
+            if (!tuned) {
+                probeConsumeNanos += Math.max(nanoTime() - lastLoadEnd, 0);
+                if (chunks >= probeChunks) {
+                    tune();
+                }
+            }
+            consuming = false;
+        }
+        return fetchSize;
+    }
+
+    /**
+     * Records a loaded chunk, called after loading each chunk.
+     *
+     * @param chunk the rows of the chunk
+     * @param loadNanos time of loading the chunk
+     */
+    public synchronized void recordChunk(List<?> chunk, long loadNanos) {
+        chunks++;
+        rows += chunk.size();
+
+        if (!tuned) {
+            int probe = (int) chunks - 1;
+            if (probeSizes == null) {
+                probeSizes = new long[probeChunks];
+                probeLoadNanos = new long[probeChunks];
+            }
+            probeSizes[probe] = chunk.size();
+            probeLoadNanos[probe] = loadNanos;
+            probeRows += chunk.size();
+            for (Object row : chunk) {
+                probeBytes += rowSizeEstimator.applyAsLong(row);
+            }
+            fetchSize = (int) Math.min((long) fetchSize * 2, upperBound());
+        }
+        consuming = true;
+        lastLoadEnd = nanoTime();
+    }
+
+    public synchronized FetchSizeStatistics getStatistics() {
+        return new FetchSizeStatistics(fetchSize, tuned, chunks, rows, averageRowSize(), roundTripNanos, loadNanosPerRow,
+                                       probeRows == 0 ? 0 : probeConsumeNanos / probeRows);
+    }
+
+
+    /**
+     * Fixes the fetch size by the measurements of the probe chunks.
+     */
+    protected void tune() {
+        tuned = true;
+        if (probeRows == 0) {
+            return;
+        }
+
+        estimateLoadTime();
+        double consumeNanosPerRow = (double) probeConsumeNanos / probeRows;
+        double nanosPerRow = Math.max(loadNanosPerRow + consumeNanosPerRow, 1);
+        double size = (double) roundTripNanos * (100 - MAX_ROUND_TRIP_PERCENT) / (MAX_ROUND_TRIP_PERCENT * nanosPerRow);
+        fetchSize = (int) Math.max(Math.min(Math.ceil(size), upperBound()), minFetchSize);
+    }
+
+    /**
+     * Estimates the round trip time and the load time per row by linear regression of the load times of the probe chunks.
+     */
+    protected void estimateLoadTime() {
+        int probes = probeSizes.length;
+        double meanSize = 0;
+        double meanNanos = 0;
+        for (int i = 0; i < probes; i++) {
+            meanSize += probeSizes[i];
+            meanNanos += probeLoadNanos[i];
+        }
+        meanSize /= probes;
+        meanNanos /= probes;
+
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < probes; i++) {
+            covariance += (probeSizes[i] - meanSize) * (probeLoadNanos[i] - meanNanos);
+            variance += (probeSizes[i] - meanSize) * (probeSizes[i] - meanSize);
+        }
+
+        double perRow = variance == 0 ? meanNanos / Math.max(meanSize, 1) : Math.max(covariance / variance, 0);
+        loadNanosPerRow = Math.round(perRow);
+        roundTripNanos = Math.max(Math.round(meanNanos - perRow * meanSize), 0);
+    }
+
+    /**
+     * @return the maximum fetch size bounded by the memory budget for the average row size measured so far
+     */
+    protected long upperBound() {
+        long rowSize = Math.max(averageRowSize(), 1);
+        return Math.max(Math.min(maxFetchSize, memoryBudget / rowSize), minFetchSize);
+    }
+
+    protected long averageRowSize() {
+        return probeRows == 0 ? 0 : probeBytes / probeRows;
+    }
+
+    protected long nanoTime() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Estimates the heap size of a row of a query result in bytes,
+     * objects of unknown type like entities are estimated by {@link #DEFAULT_OBJECT_SIZE}.
+     *
+     * @param row a row, e.g. a {@link Tuple}, an array or a scalar value
+     * @return estimated size in bytes
+     */
+    public static long estimateSize(Object row) {
+        if (row == null) {
+            return 0;
+        }
+        if (row instanceof Tuple) {
+            return estimateSize(((Tuple) row).toArray());
+        }
+        if (row instanceof Object[]) {
+            long size = 16;
+            for (Object element : (Object[]) row) {
+                size += 8 + estimateSize(element);
+            }
+            return size;
+        }
+        if (row instanceof CharSequence) {
+            return 40 + 2L * ((CharSequence) row).length();
+        }
+        if (row instanceof byte[]) {
+            return 16 + ((byte[]) row).length;
+        }
+        if (row instanceof Number || row instanceof Boolean || row instanceof Character
+                || row instanceof Temporal || row instanceof Date || row instanceof Enum) {
+            return 24;
+        }
+        return DEFAULT_OBJECT_SIZE;
+    }
+
+}
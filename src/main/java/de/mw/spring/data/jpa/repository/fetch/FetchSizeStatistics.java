@@ -0,0 +1,51 @@
+package de.mw.spring.data.jpa.repository.fetch;
+
+import lombok.Value;
+
+/**
+ * Snapshot of the measurements and the chosen fetch size of an {@link AdaptiveFetchSizeController}.
+ */
+@Value
+public class FetchSizeStatistics {
+
+    /**
+     * fetch size of the next chunk, after tuning the fetch size of the rest of the stream
+     */
+    int fetchSize;
+
+    /**
+     * whether the probe chunks are measured and the fetch size is fixed for the rest of the stream
+     */
+    boolean tuned;
+
+    /**
+     * number of loaded chunks
+     */
+    long chunks;
+
+    /**
+     * number of loaded rows
+     */
+    long rows;
+
+    /**
+     * estimated bytes per row of the probe chunks
+     */
+    long averageRowSize;
+
+    /**
+     * estimated fixed time of loading a chunk independent of its number of rows
+     */
+    long roundTripNanos;
+
+    /**
+     * estimated time of loading a single row in addition to the round trip
+     */
+    long loadNanosPerRow;
+
+    /**
+     * measured time of the consumer per row of the probe chunks
+     */
+    long consumeNanosPerRow;
+
+}
@@ -0,0 +1,89 @@
+package de.mw.spring.data.jpa.repository.metrics;
+
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterator passing the rows of a source through while recording the time to the first row, 
+ * the number of rows and the open duration of the stream.
+ *
+ * @param <T> type of rows
+ */
+public class MeteredSpliterator<T> implements Spliterator<T> {
+
+    private final Spliterator<T> source;
+    private final Class<?> domainClass;
+    private final Class<?> projectionClass;
+    private final RepositoryMetrics metrics;
+    private final long startNanos;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private long rows;
+    
+    
+    /**
+     * @param source the source of the rows
+     * @param domainClass entity class of the query
+     * @param projectionClass type of the rows
+     * @param metrics receiver of the metrics
+     * @param startNanos {@link System#nanoTime()} of the execution of the query
+     */
+    public MeteredSpliterator(Spliterator<T> source, Class<?> domainClass, Class<?> projectionClass, RepositoryMetrics metrics, long startNanos) {
+        this.source = source;
+        this.domainClass = domainClass;
+        this.projectionClass = projectionClass;
+        this.metrics = metrics;
+        this.startNanos = startNanos;
+    }
+    
+    /**
+     * Creates a sequential metered stream of the source, closing the stream closes the source and records the stream metrics.
+     * 
+     * @param source the source of the rows
+     * @param domainClass entity class of the query
+     * @param projectionClass type of the rows
+     * @param metrics receiver of the metrics
+     * @param startNanos {@link System#nanoTime()} of the execution of the query
+     * @return never {@literal null}.
+     */
+    public static <T> Stream<T> stream(Stream<T> source, Class<?> domainClass, Class<?> projectionClass, RepositoryMetrics metrics, long startNanos) {
+        MeteredSpliterator<T> spliterator = new MeteredSpliterator<>(source.spliterator(), domainClass, projectionClass, metrics, startNanos);
+        return StreamSupport.stream(spliterator, false)
+                            .onClose(source::close)
+                            .onClose(spliterator::recordClosed);
+    }
+    
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        return source.tryAdvance(row -> {
+            if (rows++ == 0) {
+                metrics.recordFirstRow(domainClass, projectionClass, System.nanoTime() - startNanos);
+            }
+            action.accept(row);
+        });
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & ~(SUBSIZED | SIZED);
+    }
+    
+    protected void recordClosed() {
+        if (closed.compareAndSet(false, true)) {
+            metrics.recordStreamClosed(domainClass, projectionClass, rows, System.nanoTime() - startNanos);
+        }
+    }
+    
+}
@@ -0,0 +1,102 @@
+package de.mw.spring.data.jpa.repository.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RepositoryMetrics} publishing to a Micrometer {@link MeterRegistry}.
+ * Requires the optional dependency {@code io.micrometer:micrometer-core}.
+ * 
+ * All meters are tagged by {@code domain} (simple name of the entity class) and, except the count timer, 
+ * {@code projection} (simple name of the projection class):
+ * <ul>
+ * <li>{@code <prefix>.query.construction} timer of query construction</li>
+ * <li>{@code <prefix>.query.execution} timer of non-streaming queries, additionally tagged by {@code operation}</li>
+ * <li>{@code <prefix>.count} timer of total counts of paged queries</li>
+ * <li>{@code <prefix>.stream.first.row} timer from query execution to the first row of streams</li>
+ * <li>{@code <prefix>.stream.open} timer from query execution to closing of streams</li>
+ * <li>{@code <prefix>.stream.rows} counter of rows emitted by streams</li>
+ * <li>{@code <prefix>.mapping} timer of mapping single projection results or batches of them</li>
+ * </ul>
+ */
+public class MicrometerRepositoryMetrics implements RepositoryMetrics {
+    
+    public static final String DEFAULT_PREFIX = "repository";
+    
+    private final MeterRegistry registry;
+    private final String prefix;
+    
+    
+    public MicrometerRepositoryMetrics(MeterRegistry registry) {
+        this(registry, DEFAULT_PREFIX);
+    }
+    
+    /**
+     * @param registry the registry to publish to
+     * @param prefix prefix of the meter names
+     */
+    public MicrometerRepositoryMetrics(MeterRegistry registry, String prefix) {
+        this.registry = registry;
+        this.prefix = prefix;
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+    
+    @Override
+    public void recordQueryConstruction(Class<?> domainClass, Class<?> projectionClass, long nanos) {
+        timer("query.construction", domainClass, projectionClass).record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public void recordQueryExecution(Class<?> domainClass, Class<?> projectionClass, String operation, long nanos) {
+        Timer.builder(prefix + ".query.execution")
+             .tag("domain", domainClass.getSimpleName())
+             .tag("projection", projectionClass.getSimpleName())
+             .tag("operation", operation)
+             .register(registry)
+             .record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public void recordCount(Class<?> domainClass, long nanos) {
+        Timer.builder(prefix + ".count")
+             .tag("domain", domainClass.getSimpleName())
+             .register(registry)
+             .record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public void recordFirstRow(Class<?> domainClass, Class<?> projectionClass, long nanos) {
+        timer("stream.first.row", domainClass, projectionClass).record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public void recordStreamClosed(Class<?> domainClass, Class<?> projectionClass, long rows, long openNanos) {
+        timer("stream.open", domainClass, projectionClass).record(openNanos, TimeUnit.NANOSECONDS);
+        Counter.builder(prefix + ".stream.rows")
+               .tag("domain", domainClass.getSimpleName())
+               .tag("projection", projectionClass.getSimpleName())
+               .register(registry)
+               .increment(rows);
+    }
+    
+    @Override
+    public void recordMapping(Class<?> domainClass, Class<?> projectionClass, long nanos) {
+        timer("mapping", domainClass, projectionClass).record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    
+    protected Timer timer(String name, Class<?> domainClass, Class<?> projectionClass) {
+        return Timer.builder(prefix + "." + name)
+                    .tag("domain", domainClass.getSimpleName())
+                    .tag("projection", projectionClass.getSimpleName())
+                    .register(registry);
+    }
+    
+}
@@ -0,0 +1,58 @@
+package de.mw.spring.data.jpa.repository.metrics;
+
+/**
+ * Receiver of the metrics of repository queries.
+ * All durations are in nanoseconds. The projection class is the entity class for entity queries.
+ * 
+ * The repositories measure only if {@link #isEnabled()}, so the {@link #NOOP} metrics cause no overhead.
+ */
+public interface RepositoryMetrics {
+    
+    /**
+     * Metrics ignoring all measurements, the default of the repositories
+     */
+    RepositoryMetrics NOOP = new RepositoryMetrics() {};
+    
+    /**
+     * @return {@literal false} if the repositories should not measure at all
+     */
+    default boolean isEnabled() {
+        return false;
+    }
+    
+    /**
+     * Records the construction of a query from the specification and projection.
+     */
+    default void recordQueryConstruction(Class<?> domainClass, Class<?> projectionClass, long nanos) {}
+    
+    /**
+     * Records the execution of a non-streaming query, e.g. {@code findAll} or {@code findOne}.
+     * 
+     * @param operation the kind of query
+     */
+    default void recordQueryExecution(Class<?> domainClass, Class<?> projectionClass, String operation, long nanos) {}
+    
+    /**
+     * Records the determination of the total count of a paged query.
+     */
+    default void recordCount(Class<?> domainClass, long nanos) {}
+    
+    /**
+     * Records the time from the execution of a streaming query to its first row.
+     */
+    default void recordFirstRow(Class<?> domainClass, Class<?> projectionClass, long nanos) {}
+    
+    /**
+     * Records a closed stream.
+     * 
+     * @param rows number of rows emitted by the stream
+     * @param openNanos duration from the execution of the streaming query to closing the stream
+     */
+    default void recordStreamClosed(Class<?> domainClass, Class<?> projectionClass, long rows, long openNanos) {}
+    
+    /**
+     * Records the mapping of a single projection result, or of a whole batch by a batch mapper.
+     */
+    default void recordMapping(Class<?> domainClass, Class<?> projectionClass, long nanos) {}
+    
+}
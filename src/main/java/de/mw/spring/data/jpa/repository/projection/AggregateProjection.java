@@ -0,0 +1,231 @@
+package de.mw.spring.data.jpa.repository.projection;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import javax.persistence.Tuple;
+import javax.persistence.criteria.AbstractQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import de.mw.spring.data.jpa.repository.Projection;
+import de.mw.spring.data.jpa.repository.query.PropertyPaths;
+
+/**
+ * Projection strategy grouping by (nested) entity attributes and selecting aggregates of the groups,
+ * so the aggregation is done by the database instead of the application.
+ * 
+ * The grouping attributes are selected first with their path as alias, followed by the aggregates with their given alias.
+ * The projection applies {@code GROUP BY} and {@code HAVING} to the query, so results can only be sorted by the grouping attributes.
+ * Paged queries count the groups instead of the entities.
+ *
+ * @param <T> type of entity
+ */
+public class AggregateProjection<T> implements Projection<T,Tuple> {
+
+    protected final List<String> groupBy;
+    protected final List<Aggregate> aggregates = new ArrayList<>();
+    protected HavingCondition<T> having;
+    
+    
+    /**
+     * @param groupBy dot separated attribute paths to group by, none for aggregating all entities
+     */
+    public AggregateProjection(String... groupBy) {
+        this.groupBy = List.of(groupBy);
+    }
+    
+    /**
+     * Creates a projection grouping by the given attributes.
+     * 
+     * @param groupBy dot separated attribute paths to group by, none for aggregating all entities
+     * @return never {@literal null}.
+     */
+    public static <T> AggregateProjection<T> groupBy(String... groupBy) {
+        return new AggregateProjection<>(groupBy);
+    }
+    
+    /**
+     * Adds the number of entities of a group.
+     */
+    public AggregateProjection<T> count(String alias) {
+        return aggregate(AggregateFunction.COUNT, null, alias);
+    }
+    
+    /**
+     * Adds the number of non {@literal null} values of the attribute in a group.
+     */
+    public AggregateProjection<T> count(String attribute, String alias) {
+        return aggregate(AggregateFunction.COUNT, attribute, alias);
+    }
+    
+    /**
+     * Adds the number of distinct non {@literal null} values of the attribute in a group.
+     */
+    public AggregateProjection<T> countDistinct(String attribute, String alias) {
+        return aggregate(AggregateFunction.COUNT_DISTINCT, attribute, alias);
+    }
+    
+    /**
+     * Adds the sum of the numeric attribute in a group.
+     */
+    public AggregateProjection<T> sum(String attribute, String alias) {
+        return aggregate(AggregateFunction.SUM, attribute, alias);
+    }
+    
+    /**
+     * Adds the average of the numeric attribute in a group as {@link Double}.
+     */
+    public AggregateProjection<T> avg(String attribute, String alias) {
+        return aggregate(AggregateFunction.AVG, attribute, alias);
+    }
+    
+    /**
+     * Adds the minimum of the comparable attribute in a group.
+     */
+    public AggregateProjection<T> min(String attribute, String alias) {
+        return aggregate(AggregateFunction.MIN, attribute, alias);
+    }
+    
+    /**
+     * Adds the maximum of the comparable attribute in a group.
+     */
+    public AggregateProjection<T> max(String attribute, String alias) {
+        return aggregate(AggregateFunction.MAX, attribute, alias);
+    }
+    
+    /**
+     * Restricts the groups by a {@code HAVING} condition.
+     * 
+     * @param having the condition, {@literal null} for none
+     */
+    public AggregateProjection<T> having(@Nullable HavingCondition<T> having) {
+        this.having = having;
+        return this;
+    }
+    
+    protected AggregateProjection<T> aggregate(AggregateFunction function, @Nullable String attribute, String alias) {
+        Assert.hasText(alias, "Alias must not be empty");
+        Assert.isTrue(!groupBy.contains(alias) && aggregates.stream().noneMatch(aggregate -> aggregate.alias.equals(alias)), "Duplicate alias " + alias);
+        aggregates.add(new Aggregate(function, attribute, alias));
+        return this;
+    }
+    
+    public List<String> getGroupBy() {
+        return groupBy;
+    }
+    
+    @Override
+    public List<Selection<?>> toSelections(Root<T> root, CriteriaQuery<Tuple> query, CriteriaBuilder criteriaBuilder) {
+        Assert.isTrue(!groupBy.isEmpty() || !aggregates.isEmpty(), "At least one grouping attribute or aggregate is required");
+        Map<String, Expression<?>> aggregateExpressions = applyGrouping(root, query, criteriaBuilder);
+        
+        List<Selection<?>> selections = new ArrayList<>();
+        groupBy.forEach(attribute -> selections.add(PropertyPaths.get(root, attribute).alias(attribute)));
+        aggregateExpressions.forEach((alias, expression) -> selections.add(expression.alias(alias)));
+        return selections;
+    }
+    
+    /**
+     * Applies the {@code GROUP BY} and {@code HAVING} clauses to the query, 
+     * used by the projection query and the query counting the groups.
+     * 
+     * @param root root of the entity
+     * @param query the query to group
+     * @param criteriaBuilder the criteria builder
+     * @return the aggregate expressions by alias
+     */
+    public Map<String, Expression<?>> applyGrouping(Root<T> root, AbstractQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        Map<String, Expression<?>> aggregateExpressions = new LinkedHashMap<>();
+        aggregates.forEach(aggregate -> aggregateExpressions.put(aggregate.alias, aggregate.toExpression(root, criteriaBuilder)));
+        
+        if (!groupBy.isEmpty()) {
+            query.groupBy(groupBy.stream()
+                                 .map(attribute -> PropertyPaths.get(root, attribute))
+                                 .collect(Collectors.toList()));
+        }
+        
+        if (having != null) {
+            Predicate predicate = having.toPredicate(root, aggregateExpressions, criteriaBuilder);
+            if (predicate != null) {
+                query.having(predicate);
+            }
+        }
+        
+        return aggregateExpressions;
+    }
+    
+    
+    /**
+     * Supported aggregate functions
+     */
+    public enum AggregateFunction {
+        COUNT, COUNT_DISTINCT, SUM, AVG, MIN, MAX
+    }
+    
+    /**
+     * Condition on the aggregates of a group
+     *
+     * @param <T> type of entity
+     */
+    @FunctionalInterface
+    public interface HavingCondition<T> {
+        
+        /**
+         * @param root root of the entity
+         * @param aggregates the aggregate expressions by alias
+         * @param criteriaBuilder the criteria builder
+         * @return the predicate, {@literal null} for none
+         */
+        @Nullable
+        Predicate toPredicate(Root<T> root, Map<String, Expression<?>> aggregates, CriteriaBuilder criteriaBuilder);
+        
+    }
+    
+    protected static class Aggregate {
+        
+        private final AggregateFunction function;
+        private final String attribute;
+        private final String alias;
+        
+        Aggregate(AggregateFunction function, @Nullable String attribute, String alias) {
+            Assert.isTrue(attribute != null || function == AggregateFunction.COUNT, "Attribute is required for " + function);
+            this.function = function;
+            this.attribute = attribute;
+            this.alias = alias;
+        }
+        
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Expression<?> toExpression(Root<?> root, CriteriaBuilder cb) {
+            Expression path = attribute == null ? root : PropertyPaths.get(root, attribute);
+            switch (function) {
+                case COUNT:
+                    return cb.count(path);
+                case COUNT_DISTINCT:
+                    return cb.countDistinct(path);
+                case SUM:
+                    return cb.sum(path);
+                case AVG:
+                    return cb.avg(path);
+                case MIN:
+                    return cb.least(path);
+                case MAX:
+                    return cb.greatest(path);
+                default:
+                    throw new IllegalStateException("Unsupported aggregate function " + function);
+            }
+        }
+        
+    }
+    
+}
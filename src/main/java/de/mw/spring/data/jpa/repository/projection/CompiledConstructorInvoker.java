@@ -0,0 +1,178 @@
+package de.mw.spring.data.jpa.repository.projection;
+
+import org.springframework.util.StringUtils;
+
+import javax.persistence.Tuple;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.SneakyThrows;
+
+/**
+ * Constructor invoker by a method handle, which is compiled once per constructor.
+ * 
+ * The tuple values are read by {@link Tuple#get(int)} and converted (e.g. unboxed) to the constructor parameter types
+ * directly by the method handle, so there is no reflective call and no intermediate array per invocation.
+ * 
+ * The arguments are converted like by {@link Constructor#newInstance(Object...)}: primitive parameters accept 
+ * the wrapper values of the same or a narrower type (widening conversion, e.g. an {@link Integer} for a {@code long}),
+ * {@literal null} for a primitive parameter or a value of another type fails with an {@link IllegalArgumentException}.
+ *
+ * @param <R> type of constructed object
+ */
+public class CompiledConstructorInvoker<R> implements ConstructorInvoker<R> {
+
+    private static final MethodHandle TUPLE_GET;
+    private static final MethodHandle CHECK_TYPE;
+    private static final Map<Class<?>, MethodHandle> PRIMITIVE_CONVERSIONS = new HashMap<>();
+    
+    static {
+        try {
+            TUPLE_GET = MethodHandles.publicLookup().findVirtual(Tuple.class, "get", MethodType.methodType(Object.class, int.class));
+            
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            CHECK_TYPE = lookup.findStatic(CompiledConstructorInvoker.class, "checkType", MethodType.methodType(Object.class, Class.class, Object.class));
+            for (Class<?> primitiveType : List.of(boolean.class, char.class, byte.class, short.class, int.class, long.class, float.class, double.class)) {
+                String name = "to" + StringUtils.capitalize(primitiveType.getName());
+                PRIMITIVE_CONVERSIONS.put(primitiveType, lookup.findStatic(CompiledConstructorInvoker.class, name, MethodType.methodType(primitiveType, Object.class)));
+            }
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    private final MethodHandle invoker;
+    
+    
+    public CompiledConstructorInvoker(Constructor<R> constructor) {
+        this.invoker = compile(constructor);
+    }
+    
+    protected MethodHandle compile(Constructor<R> constructor) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.lookup().unreflectConstructor(constructor);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Constructor " + constructor + " is not accessible", e);
+        }
+        
+        // (Tuple, Tuple, ...) -> R, each argument reads its value by index from the tuple
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        MethodHandle[] getters = new MethodHandle[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            getters[i] = MethodHandles.filterReturnValue(MethodHandles.insertArguments(TUPLE_GET, 1, i), conversion(parameterTypes[i]));
+        }
+        handle = MethodHandles.filterArguments(handle, 0, getters);
+        
+        // (Tuple) -> Object, spreading the single tuple argument to all getters
+        return MethodHandles.permuteArguments(handle, MethodType.methodType(constructor.getDeclaringClass(), Tuple.class), new int[parameterTypes.length])
+                            .asType(MethodType.methodType(Object.class, Tuple.class));
+    }
+    
+    /**
+     * Returns the conversion of a tuple value to the given parameter type, (Object) -> type.
+     */
+    protected MethodHandle conversion(Class<?> parameterType) {
+        if (parameterType.isPrimitive()) {
+            return PRIMITIVE_CONVERSIONS.get(parameterType);
+        }
+        return MethodHandles.insertArguments(CHECK_TYPE, 0, parameterType)
+                            .asType(MethodType.methodType(parameterType, Object.class));
+    }
+    
+    @Override
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    public R newInstance(Tuple tuple) {
+        return (R) (Object) invoker.invokeExact(tuple);
+    }
+    
+    
+    private static Object checkType(Class<?> type, Object value) {
+        if (value != null && !type.isInstance(value)) {
+            throw mismatch(value, type);
+        }
+        return value;
+    }
+    
+    private static boolean toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        throw mismatch(value, boolean.class);
+    }
+    
+    private static char toChar(Object value) {
+        if (value instanceof Character) {
+            return (Character) value;
+        }
+        throw mismatch(value, char.class);
+    }
+    
+    private static byte toByte(Object value) {
+        if (value instanceof Byte) {
+            return (Byte) value;
+        }
+        throw mismatch(value, byte.class);
+    }
+    
+    private static short toShort(Object value) {
+        if (value instanceof Short || value instanceof Byte) {
+            return ((Number) value).shortValue();
+        }
+        throw mismatch(value, short.class);
+    }
+    
+    private static int toInt(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof Character) {
+            return (Character) value;
+        }
+        throw mismatch(value, int.class);
+    }
+    
+    private static long toLong(Object value) {
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        return toInt(value, long.class);
+    }
+    
+    private static float toFloat(Object value) {
+        if (value instanceof Float) {
+            return (Float) value;
+        }
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        return toInt(value, float.class);
+    }
+    
+    private static double toDouble(Object value) {
+        if (value instanceof Double || value instanceof Float || value instanceof Long) {
+            return ((Number) value).doubleValue();
+        }
+        return toInt(value, double.class);
+    }
+    
+    private static int toInt(Object value, Class<?> type) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte || value instanceof Character) {
+            return toInt(value);
+        }
+        throw mismatch(value, type);
+    }
+    
+    private static IllegalArgumentException mismatch(Object value, Class<?> type) {
+        return new IllegalArgumentException("argument type mismatch: " + (value == null ? "null" : value.getClass().getName()) 
+                                            + " can not be converted to " + type.getName());
+    }
+    
+}
@@ -0,0 +1,63 @@
+package de.mw.spring.data.jpa.repository.projection;
+
+import org.springframework.lang.Nullable;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.stream.Stream;
+
+import de.mw.spring.data.jpa.repository.Projection;
+import de.mw.spring.data.jpa.repository.projection.ConstructorProjection.ProjectionConstructor;
+
+/**
+ * Projection strategy by a constructor expression {@link CriteriaBuilder#construct(Class, Selection...)}, so the 
+ * persistence provider instantiates the target class directly from the result set without an intermediate tuple. 
+ * Has to be used with the target class as projection class.
+ * 
+ * The constructor is chosen like by {@link ConstructorProjection}, so if there are multiple parameterized constructors 
+ * the preferred constructor should be annotated by {@link ProjectionConstructor} and possibly qualified.
+ * The parameter names of the constructor are used as attribute names.
+ *
+ * @param <T> type of entity
+ * @param <R> type of result
+ */
+public class ConstructorExpressionProjection<T,R> implements Projection<T,R> {
+
+    protected Class<R> clazz;
+    protected String[] attributes;
+    
+    /**
+     * @param clazz class to project to
+     */
+    public ConstructorExpressionProjection(Class<R> clazz) {
+        this(clazz, null);
+    }
+    
+    /**
+     * @param clazz class to project to
+     * @param projectionConstructor qualifier for value of {@link ProjectionConstructor}
+     */
+    public ConstructorExpressionProjection(Class<R> clazz, @Nullable String projectionConstructor) {
+        this.clazz = clazz;
+        this.attributes = findAttributes(ConstructorProjection.findProjectionConstructor(clazz, projectionConstructor));
+    }
+    
+    protected String[] findAttributes(Constructor<R> constructor) {
+        return ProjectionByConstructor.getParameterNames(constructor);
+    }
+    
+    @Override
+    public List<Selection<?>> toSelections(Root<T> root, CriteriaQuery<R> query, CriteriaBuilder criteriaBuilder) {
+        Selection<?>[] selections = Stream.of(attributes)
+                                          .map(attribute -> root.get(attribute))
+                                          .toArray(Selection[]::new);
+        
+        return List.of(criteriaBuilder.construct(clazz, selections));
+    }
+    
+}
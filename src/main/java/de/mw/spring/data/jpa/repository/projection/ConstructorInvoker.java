@@ -0,0 +1,51 @@
+package de.mw.spring.data.jpa.repository.projection;
+
+import javax.persistence.Tuple;
+
+import java.lang.reflect.Constructor;
+
+import lombok.SneakyThrows;
+
+/**
+ * Strategy for invoking a constructor with the values of a {@link Tuple}.
+ *
+ * @param <R> type of constructed object
+ */
+@FunctionalInterface
+public interface ConstructorInvoker<R> {
+
+    /**
+     * Invokes the constructor with the tuple values as arguments
+     * 
+     * @param tuple the tuple
+     * @return new instance
+     */
+    R newInstance(Tuple tuple);
+    
+    /**
+     * Creates an invoker by reflective call of {@link Constructor#newInstance(Object...)} with {@link Tuple#toArray()}.
+     * 
+     * @param constructor the constructor to invoke
+     */
+    static <R> ConstructorInvoker<R> reflective(Constructor<R> constructor) {
+        return new ConstructorInvoker<>() {
+            @Override
+            @SneakyThrows
+            public R newInstance(Tuple tuple) {
+                return constructor.newInstance(tuple.toArray());
+            }
+        };
+    }
+    
+    /**
+     * Creates an invoker by a method handle compiled once for the constructor, 
+     * that reads the tuple values by index without intermediate array.
+     * 
+     * @param constructor the constructor to invoke
+     * @see CompiledConstructorInvoker
+     */
+    static <R> ConstructorInvoker<R> compiled(Constructor<R> constructor) {
+        return new CompiledConstructorInvoker<>(constructor);
+    }
+    
+}
@@ -19,7 +19,7 @@ import lombok.experimental.Delegate;
 
 /**
  * Utility projectionConstructor class combining a {@link ProjectionConstructor} by using the parameter names of a preferred constructor of the 
- * target mapping class with the matching {@link ProjectionMapper} using preferred constructor.
+ * target mapping class with the matching {@link ProjectionMapper} using a compiled invocation of the preferred constructor.
  * 
  * If there are multiple parameterized constructors the preferred constructor should be annotated by {@link ProjectionConstructor} and possibly qualified.
  *
@@ -47,11 +47,23 @@ public class ConstructorProjection<T, R> implements Projection<T,Tuple>, Project
     public ConstructorProjection(Class<R> clazz, @Nullable String projectionConstructor) {
         Constructor<R> preferredConstructor = findConstructor(clazz, projectionConstructor);
         this.projection = new ProjectionByConstructor<>(preferredConstructor);
-        this.projectionMapper = new ProjectionMapperByConstructor<>(preferredConstructor);
+        this.projectionMapper = new ProjectionMapperByConstructor<>(preferredConstructor, true);
     }
             
-    @SuppressWarnings("unchecked")
     protected Constructor<R> findConstructor(Class<R> clazz, @Nullable String projection) {
+        return findProjectionConstructor(clazz, projection);
+    }
+    
+    /**
+     * Finds the preferred parameterized constructor of the class, qualified by {@link ProjectionConstructor} if there are multiple ones.
+     * 
+     * @param clazz class to project to
+     * @param projection qualifier for value of {@link ProjectionConstructor}
+     * @return the preferred constructor
+     * @throws IllegalArgumentException if no or no unique constructor could be found
+     */
+    @SuppressWarnings("unchecked")
+    public static <R> Constructor<R> findProjectionConstructor(Class<R> clazz, @Nullable String projection) {
         Constructor<R>[] constructors = Stream.of(clazz.getConstructors())
                                               .filter(con -> con.getParameterCount() > 0) // no-args is useless
                                               .filter(con -> {
@@ -10,7 +10,7 @@ import lombok.experimental.Delegate;
 
 /**
  * Utility projection class combining a {@link ProjectionConstructor} by metamodel attribues
- * with the matching {@link ProjectionMapper} using constructor mapping by the metamodel attribues.
+ * with the matching {@link ProjectionMapper} using compiled constructor mapping by the metamodel attribues.
  *
  * @param <T> type of entity
  * @param <R> type of tuple result mapping
@@ -25,7 +25,7 @@ public class MetamodelProjection<T,R> implements Projection<T,Tuple>, Projection
     @SafeVarargs
     public MetamodelProjection(Class<R> clazz, Attribute<T,?>... attributes) {
         this.projection = new ProjectionByMetamodelAttributes<>(attributes);
-        this.projectionMapper = new ProjectionMapperByMetamodelConstructor<>(clazz, attributes);
+        this.projectionMapper = new ProjectionMapperByMetamodelConstructor<>(clazz, true, attributes);
     }
 
 }
@@ -17,6 +17,15 @@ public class ProjectionByConstructor<T,R> extends ProjectionByAttributeNames<T>
     }
     
     protected String[] findAttributes(Constructor<R> constructor) {
+        return getParameterNames(constructor);
+    }
+    
+    /**
+     * Returns the parameter names of the given constructor as attribute names.
+     * 
+     * @throws IllegalArgumentException if the constructor has no parameters
+     */
+    static String[] getParameterNames(Constructor<?> constructor) {
         if (constructor.getParameterCount() == 0) {
             throw new IllegalArgumentException("Constructor of type " + constructor.getDeclaringClass() + " has no parameters to project");
         }
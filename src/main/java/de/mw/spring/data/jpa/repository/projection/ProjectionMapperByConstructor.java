@@ -5,25 +5,45 @@ import javax.persistence.Tuple;
 import java.lang.reflect.Constructor;
 
 import de.mw.spring.data.jpa.repository.ProjectionMapper;
-import lombok.SneakyThrows;
 
 /**
  * Simple projection mapper strategy by constructor invocation with tuple values.
  * 
  * If the constructor does not match the tuple structure it will fail at runtime.
+ * 
+ * By default the constructor is invoked reflectively, a compiled {@link ConstructorInvoker} avoids
+ * the reflective call and intermediate array per tuple.
  */
 public class ProjectionMapperByConstructor<R> implements ProjectionMapper<Tuple,R> {
 
     protected Constructor<R> constructor;
+    protected boolean compiled;
+    private ConstructorInvoker<R> invoker;
     
     
     public ProjectionMapperByConstructor(Constructor<R> constructor) {
+        this(constructor, false);
+    }
+    
+    /**
+     * @param constructor the constructor to invoke
+     * @param compiled whether to use a compiled {@link ConstructorInvoker} instead of reflective invocation
+     */
+    public ProjectionMapperByConstructor(Constructor<R> constructor, boolean compiled) {
         this.constructor = constructor;
+        this.compiled = compiled;
     }
     
-    @SneakyThrows
     protected R newInstance(Tuple tuple) {
-        return constructor.newInstance(tuple.toArray());
+        if (invoker == null) {
+            invoker = createInvoker(constructor);
+        }
+        
+        return invoker.newInstance(tuple);
+    }
+    
+    protected ConstructorInvoker<R> createInvoker(Constructor<R> constructor) {
+        return compiled ? ConstructorInvoker.compiled(constructor) : ConstructorInvoker.reflective(constructor);
     }
     
     @Override
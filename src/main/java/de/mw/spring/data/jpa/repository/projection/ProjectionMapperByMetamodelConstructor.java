@@ -17,7 +17,17 @@ public class ProjectionMapperByMetamodelConstructor<T,R> extends ProjectionMappe
     
     @SafeVarargs
     public ProjectionMapperByMetamodelConstructor(Class<R> clazz, Attribute<T,?>... attributes) {
-        super(null);
+        this(clazz, false, attributes);
+    }
+    
+    /**
+     * @param clazz class to map to
+     * @param compiled whether to use a compiled {@link ConstructorInvoker} instead of reflective invocation
+     * @param attributes the projected attributes
+     */
+    @SafeVarargs
+    public ProjectionMapperByMetamodelConstructor(Class<R> clazz, boolean compiled, Attribute<T,?>... attributes) {
+        super(null, compiled);
         this.constructor = findConstructor(clazz, attributes);
     }
     
@@ -14,13 +14,23 @@ import java.util.Arrays;
  * The constructor is searched once at runtime with the tuple element types of the first processd tuple.
  * It is assumed that all tuples will have the same structure. Otherwise mapping will fail at runtime.
  * If the is no constructor matching the tuple structure it will fail at runtime.
+ * 
+ * The constructor is invoked by a compiled {@link ConstructorInvoker} by default.
  */
 public class ProjectionMapperByTupleElementsConstructor<R> extends ProjectionMapperByConstructor<R> {
 
     protected Class<R> clazz;
     
     public ProjectionMapperByTupleElementsConstructor(Class<R> clazz) {
-        super(null);
+        this(clazz, true);
+    }
+    
+    /**
+     * @param clazz class to map to
+     * @param compiled whether to use a compiled {@link ConstructorInvoker} instead of reflective invocation
+     */
+    public ProjectionMapperByTupleElementsConstructor(Class<R> clazz, boolean compiled) {
+        super(null, compiled);
         this.clazz = clazz;
     }
     
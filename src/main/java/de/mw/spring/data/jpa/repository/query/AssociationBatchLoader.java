@@ -0,0 +1,241 @@
+package de.mw.spring.data.jpa.repository.query;
+
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.PluralAttribute;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Initializes lazy associations of a batch of managed entities with one IN-query per association,
+ * instead of one query per entity when the associations are touched.
+ *
+ * <ul>
+ * <li>Uninitialized proxies of single valued associations are initialized by loading the referenced entities
+ *     by their ids into the persistence context.</li>
+ * <li>Uninitialized collections are initialized by a fetch join query of their owners by the ids of the owners.</li>
+ * </ul>
+ *
+ * IN-queries are split into queries of at most {@link #MAX_IN_PARAMETERS} ids.
+ */
+public class AssociationBatchLoader {
+
+    /**
+     * Maximum number of ids of a single IN-query
+     */
+    protected static final int MAX_IN_PARAMETERS = 1000;
+
+    private final EntityManager entityManager;
+
+
+    public AssociationBatchLoader(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Initializes each association of the given dot separated association paths of the given entities.
+     *
+     * @param entities managed entities of the given class
+     * @param entityClass the class of the entities
+     * @param associationPaths dot separated association paths, e.g. {@code customer.address}
+     */
+    public void initialize(List<?> entities, Class<?> entityClass, Collection<String> associationPaths) {
+        for (String associationPath : associationPaths) {
+            List<Object> owners = new ArrayList<>(entities);
+            Class<?> ownerClass = entityClass;
+
+            String[] segments = associationPath.split("\\.");
+            for (int i = 0; i < segments.length && !owners.isEmpty(); i++) {
+                Attribute<?,?> attribute = getAssociation(ownerClass, segments[i]);
+                if (attribute.isCollection()) {
+                    initializeCollections(owners, ownerClass, attribute);
+                } else {
+                    initializeReferences(owners, attribute);
+                }
+                if (i < segments.length - 1) {
+                    owners = getAssociated(owners, attribute, true);
+                    ownerClass = getTargetClass(attribute);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the already initialized entities of the given dot separated association paths of the given entities
+     * without loading any association, e.g. for detaching them together with the entities.
+     *
+     * @param entities managed entities of the given class
+     * @param entityClass the class of the entities
+     * @param associationPaths dot separated association paths, e.g. {@code customer.address}
+     * @return distinct associated entities, never {@literal null}.
+     */
+    public Set<Object> getInitialized(List<?> entities, Class<?> entityClass, Collection<String> associationPaths) {
+        Set<Object> associated = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String associationPath : associationPaths) {
+            List<Object> owners = new ArrayList<>(entities);
+            Class<?> ownerClass = entityClass;
+
+            for (String segment : associationPath.split("\\.")) {
+                if (owners.isEmpty()) {
+                    break;
+                }
+                Attribute<?,?> attribute = getAssociation(ownerClass, segment);
+                owners = getAssociated(owners, attribute, false);
+                associated.addAll(owners);
+                ownerClass = getTargetClass(attribute);
+            }
+        }
+        return associated;
+    }
+
+
+    protected void initializeReferences(List<Object> owners, Attribute<?,?> attribute) {
+        Map<Class<?>, Set<Object>> idsByClass = new LinkedHashMap<>();
+        for (Object owner : owners) {
+            Object value = getValue(owner, attribute);
+            if (value instanceof HibernateProxy) {
+                LazyInitializer lazyInitializer = ((HibernateProxy) value).getHibernateLazyInitializer();
+                if (lazyInitializer.isUninitialized()) {
+                    idsByClass.computeIfAbsent(lazyInitializer.getPersistentClass(), persistentClass -> new LinkedHashSet<>())
+                              .add(lazyInitializer.getIdentifier());
+                }
+            }
+        }
+
+        idsByClass.forEach((entityClass, ids) -> loadByIds(entityClass, ids, null));
+    }
+
+    protected void initializeCollections(List<Object> owners, Class<?> ownerClass, Attribute<?,?> attribute) {
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        Set<Object> ownerIds = new LinkedHashSet<>();
+        for (Object owner : owners) {
+            if (!Hibernate.isInitialized(getValue(owner, attribute))) {
+                ownerIds.add(persistenceUnitUtil.getIdentifier(owner));
+            }
+        }
+
+        loadByIds(ownerClass, ownerIds, attribute.getName());
+    }
+
+    /**
+     * Loads the entities of the given ids by IN-queries, optionally with a fetch join of the given association.
+     */
+    protected <E> void loadByIds(Class<E> entityClass, Collection<Object> ids, @Nullable String fetchAttribute) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        String idAttribute = getIdAttribute(entityClass);
+        List<Object> remaining = new ArrayList<>(ids);
+        for (int start = 0; start < remaining.size(); start += MAX_IN_PARAMETERS) {
+            List<Object> partition = remaining.subList(start, Math.min(start + MAX_IN_PARAMETERS, remaining.size()));
+
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<E> cq = cb.createQuery(entityClass);
+            Root<E> root = cq.from(entityClass);
+            if (fetchAttribute != null) {
+                root.fetch(fetchAttribute, JoinType.LEFT);
+                cq.distinct(true);
+            }
+            cq.select(root).where(root.get(idAttribute).in(partition));
+            entityManager.createQuery(cq).getResultList();
+        }
+    }
+
+    /**
+     * Returns the (unproxied) entities of the association of the given owners.
+     *
+     * @param load whether to initialize proxies, otherwise uninitialized proxies and collections are skipped
+     */
+    protected List<Object> getAssociated(List<Object> owners, Attribute<?,?> attribute, boolean load) {
+        Set<Object> associated = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object owner : owners) {
+            Object value = getValue(owner, attribute);
+            if (!load && !Hibernate.isInitialized(value)) {
+                continue;
+            }
+            if (value instanceof Map) {
+                ((Map<?,?>) value).values().forEach(element -> addUnproxied(associated, element, load));
+            } else if (value instanceof Collection) {
+                ((Collection<?>) value).forEach(element -> addUnproxied(associated, element, load));
+            } else {
+                addUnproxied(associated, value, load);
+            }
+        }
+        return new ArrayList<>(associated);
+    }
+
+    protected Attribute<?,?> getAssociation(Class<?> ownerClass, String name) {
+        Attribute<?,?> attribute = entityManager.getMetamodel().managedType(ownerClass).getAttribute(name);
+        if (!attribute.isAssociation() && !attribute.isCollection()) {
+            throw new IllegalArgumentException("Attribute " + name + " of " + ownerClass.getName() + " is not an association");
+        }
+        return attribute;
+    }
+
+    protected Class<?> getTargetClass(Attribute<?,?> attribute) {
+        if (attribute instanceof PluralAttribute) {
+            return ((PluralAttribute<?,?,?>) attribute).getElementType().getJavaType();
+        }
+        return attribute.getJavaType();
+    }
+
+    protected String getIdAttribute(Class<?> entityClass) {
+        EntityType<?> entityType = entityManager.getMetamodel().entity(entityClass);
+        Assert.isTrue(entityType.hasSingleIdAttribute(), () -> "Batch initialization of " + entityClass.getName() + " with composite id is not supported");
+        return entityType.getId(entityType.getIdType().getJavaType()).getName();
+    }
+
+    protected Object getValue(Object owner, Attribute<?,?> attribute) {
+        Member member = attribute.getJavaMember();
+        if (member instanceof Field) {
+            Field field = (Field) member;
+            ReflectionUtils.makeAccessible(field);
+            return ReflectionUtils.getField(field, owner);
+        }
+        if (member instanceof Method) {
+            Method method = (Method) member;
+            ReflectionUtils.makeAccessible(method);
+            return ReflectionUtils.invokeMethod(method, owner);
+        }
+        throw new IllegalArgumentException("Attribute " + attribute.getName() + " has no readable java member");
+    }
+
+    private static void addUnproxied(Set<Object> associated, Object value, boolean load) {
+        if (value instanceof HibernateProxy) {
+            LazyInitializer lazyInitializer = ((HibernateProxy) value).getHibernateLazyInitializer();
+            if (!load && lazyInitializer.isUninitialized()) {
+                return;
+            }
+            value = lazyInitializer.getImplementation();
+        }
+        if (value != null) {
+            associated.add(value);
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+package de.mw.spring.data.jpa.repository.query;
+
+import org.hibernate.query.QueryParameter;
+import org.hibernate.transform.BasicTransformerAdapter;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.mw.spring.data.jpa.repository.stream.ArrayTuple;
+
+/**
+ * A query compiled from a criteria query to its JPQL string together with the bound values of 
+ * all implicit parameters (e.g. literals), which allows to recreate the query without building 
+ * and rendering the criteria query again.
+ * <p>
+ * The aliases of the selections of a criteria {@link Tuple} query are not part of the JPQL string, 
+ * so they are kept as tuple elements of the compiled query and applied to the results of the recreated query.
+ */
+public class CompiledQuery {
+
+    private final String queryString;
+    private final Map<String, Object> parameters;
+    private final List<TupleElement<?>> tupleElements;
+    
+    
+    protected CompiledQuery(String queryString, Map<String, Object> parameters, @Nullable List<TupleElement<?>> tupleElements) {
+        this.queryString = queryString;
+        this.parameters = parameters;
+        this.tupleElements = tupleElements;
+    }
+    
+    /**
+     * Compiles the given query (created from a criteria query).
+     * 
+     * @param query the query to compile
+     * @param explicitParameters names of parameters that are re-bound on each use and therefore not part of the compiled query
+     * @return never {@literal null}.
+     */
+    public static CompiledQuery of(TypedQuery<?> query, Set<String> explicitParameters) {
+        return of(null, query, explicitParameters);
+    }
+    
+    /**
+     * Compiles the given query created from the given criteria query, 
+     * keeping the aliases and types of the selections of a {@link Tuple} query.
+     * 
+     * @param criteriaQuery the criteria query the query was created from, can be {@literal null}
+     * @param query the query to compile
+     * @param explicitParameters names of parameters that are re-bound on each use and therefore not part of the compiled query
+     * @return never {@literal null}.
+     */
+    public static CompiledQuery of(@Nullable CriteriaQuery<?> criteriaQuery, TypedQuery<?> query, Set<String> explicitParameters) {
+        // the parameters of the JPA query are only the explicit parameter expressions of the criteria query,
+        // the implicit parameters of literals are only declared by the parameter metadata of the hibernate query
+        org.hibernate.query.Query<?> hibernateQuery = query.unwrap(org.hibernate.query.Query.class);
+        String queryString = hibernateQuery.getQueryString();
+        
+        Map<String, Object> parameters = new HashMap<>();
+        for (QueryParameter<?> parameter : hibernateQuery.getParameterMetadata().collectAllParameters()) {
+            if (parameter.getName() != null && !explicitParameters.contains(parameter.getName()) && hibernateQuery.isBound(parameter)) {
+                parameters.put(parameter.getName(), hibernateQuery.getParameterValue(parameter));
+            }
+        }
+        
+        return new CompiledQuery(queryString, parameters, getTupleElements(criteriaQuery));
+    }
+    
+    private static List<TupleElement<?>> getTupleElements(@Nullable CriteriaQuery<?> criteriaQuery) {
+        if (criteriaQuery == null || !Tuple.class.equals(criteriaQuery.getResultType())) {
+            return null;
+        }
+        
+        Selection<?> selection = criteriaQuery.getSelection();
+        List<Selection<?>> selections = selection.isCompoundSelection() ? selection.getCompoundSelectionItems() : List.of(selection);
+        List<TupleElement<?>> elements = new ArrayList<>(selections.size());
+        for (Selection<?> item : selections) {
+            elements.add(new ArrayTuple.Element<>(item.getAlias(), item.getJavaType()));
+        }
+        return List.copyOf(elements);
+    }
+    
+    /**
+     * Creates a new query from the compiled JPQL string with all implicit parameters bound.
+     * 
+     * @param entityManager the entity manager
+     * @param resultClass the type of the query result
+     * @return never {@literal null}.
+     */
+    public <P> TypedQuery<P> createQuery(EntityManager entityManager, Class<P> resultClass) {
+        TypedQuery<P> query = entityManager.createQuery(queryString, resultClass);
+        if (tupleElements != null && Tuple.class.equals(resultClass)) {
+            // hibernate builds the tuples of a JPQL query without aliases
+            query.unwrap(org.hibernate.query.Query.class).setResultTransformer(new TupleTransformer(tupleElements));
+        }
+        bindParameters(query);
+        return query;
+    }
+    
+    /**
+     * Binds all implicit parameters to a query created from the compiled JPQL string, e.g. by another session.
+     * 
+     * @param query the query
+     */
+    public void bindParameters(Query query) {
+        parameters.forEach((name, value) -> query.setParameter(name, value));
+    }
+    
+    public String getQueryString() {
+        return queryString;
+    }
+    
+    
+    private static class TupleTransformer extends BasicTransformerAdapter {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final List<TupleElement<?>> elements;
+        
+        TupleTransformer(List<TupleElement<?>> elements) {
+            this.elements = elements;
+        }
+        
+        @Override
+        public Object transformTuple(Object[] tuple, String[] aliases) {
+            return new ArrayTuple(elements, tuple);
+        }
+        
+    }
+    
+}
@@ -0,0 +1,162 @@
+package de.mw.spring.data.jpa.repository.query;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.util.DirectFieldAccessFallbackBeanWrapper;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset (seek) definition derived from a {@link Sort} with the id attribute(s) of the entity as tie-breaker.
+ * 
+ * The keyset allows to restrict a query to the rows following a last seen row by 
+ * {@code WHERE (sortKeys) > (lastSeenKeys)} instead of using an offset.
+ * All sort properties should be non-nullable, because rows with {@literal null} sort keys can not be seeked reliably.
+ *
+ * @param <T> type of entity
+ */
+public class Keyset<T> {
+
+    private final List<Order> orders;
+    
+    
+    protected Keyset(List<Order> orders) {
+        this.orders = orders;
+    }
+    
+    /**
+     * Creates a keyset for the given sort appended by the given id attributes in ascending order (if not already part of the sort).
+     * 
+     * @param sort the sort of the query, must not be {@literal null}.
+     * @param idAttributeNames the names of the id attributes used as tie-breaker
+     * @return never {@literal null}.
+     */
+    public static <T> Keyset<T> of(Sort sort, Iterable<String> idAttributeNames) {
+        List<Order> orders = new ArrayList<>();
+        for (Order order : sort) {
+            if (order.isIgnoreCase()) {
+                throw new IllegalArgumentException("Keyset sort does not support ignore case order for property " + order.getProperty());
+            }
+            orders.add(order);
+        }
+        
+        for (String idAttributeName : idAttributeNames) {
+            if (sort.getOrderFor(idAttributeName) == null) {
+                orders.add(Order.asc(idAttributeName));
+            }
+        }
+        
+        return new Keyset<>(orders);
+    }
+    
+    /**
+     * @return the sort including the tie-breaker
+     */
+    public Sort getSort() {
+        return Sort.by(orders);
+    }
+    
+    /**
+     * @return number of keys
+     */
+    public int size() {
+        return orders.size();
+    }
+    
+    /**
+     * Produces a specification restricting the query to the rows after the given keys in keyset order.
+     * 
+     * @param lastKeys keys of the last seen row, {@literal null} for the first chunk
+     * @return never {@literal null}.
+     */
+    public Specification<T> after(@Nullable Object[] lastKeys) {
+        return (root, query, cb) -> lastKeys == null ? null : toPredicate(root, cb, lastKeys);
+    }
+    
+    /**
+     * Produces the selection items of the keys, e.g. to read the keys of projection results.
+     * 
+     * @param root root of the entity
+     * @return list of key selections in keyset order
+     */
+    public List<Selection<?>> toSelections(Root<T> root) {
+        return orders.stream()
+                     .map(order -> toPath(root, order.getProperty()))
+                     .collect(Collectors.toList());
+    }
+    
+    /**
+     * Reads the keys of an entity.
+     * 
+     * @param entity the entity
+     * @return keys in keyset order
+     */
+    public Object[] extract(Object entity) {
+        DirectFieldAccessFallbackBeanWrapper wrapper = new DirectFieldAccessFallbackBeanWrapper(entity);
+        return orders.stream()
+                     .map(order -> wrapper.getPropertyValue(order.getProperty()))
+                     .toArray();
+    }
+    
+    protected Predicate toPredicate(Root<T> root, CriteriaBuilder cb, Object[] lastKeys) {
+        // (k0 > v0) OR (k0 = v0 AND k1 > v1) OR ...
+        List<Predicate> disjunction = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            List<Predicate> conjunction = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                Path<?> path = toPath(root, orders.get(j).getProperty());
+                conjunction.add(lastKeys[j] == null ? cb.isNull(path) : cb.equal(path, lastKeys[j]));
+            }
+            if (lastKeys[i] != null) {
+                conjunction.add(toComparison(cb, toPath(root, orders.get(i).getProperty()), orders.get(i), lastKeys[i]));
+                disjunction.add(conjunction.size() == 1 ? conjunction.get(0) : cb.and(conjunction.toArray(new Predicate[0])));
+            }
+        }
+        
+        return disjunction.size() == 1 ? disjunction.get(0) : cb.or(disjunction.toArray(new Predicate[0]));
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    protected Predicate toComparison(CriteriaBuilder cb, Expression path, Order order, Object lastKey) {
+        Comparable key = (Comparable) lastKey;
+        return order.isAscending() ? cb.greaterThan(path, key) : cb.lessThan(path, key);
+    }
+    
+    /**
+     * Compares keys of two rows in keyset order.
+     * The natural order of the key values must match the order of the database.
+     * 
+     * @return comparator of keys
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Comparator<Object[]> comparator() {
+        return (left, right) -> {
+            for (int i = 0; i < orders.size(); i++) {
+                Comparable l = (Comparable) left[i];
+                Comparable r = (Comparable) right[i];
+                int result = l == null ? (r == null ? 0 : 1) : (r == null ? -1 : l.compareTo(r));
+                if (result != 0) {
+                    return orders.get(i).isAscending() ? result : -result;
+                }
+            }
+            return 0;
+        };
+    }
+    
+    protected Path<?> toPath(Root<T> root, String property) {
+        return PropertyPaths.get(root, property);
+    }
+
+}
@@ -0,0 +1,68 @@
+package de.mw.spring.data.jpa.repository.query;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size bounded {@link QueryCache} evicting the least recently used query.
+ */
+public class LruQueryCache implements QueryCache {
+
+    private final Map<QueryCacheKey, CompiledQuery> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    
+    
+    /**
+     * @param maxSize maximum number of cached queries
+     */
+    public LruQueryCache(int maxSize) {
+        Assert.isTrue(maxSize > 0, "Max size must be greater than zero");
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<QueryCacheKey, CompiledQuery> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+    
+    @Override
+    @Nullable
+    public synchronized CompiledQuery get(QueryCacheKey key) {
+        CompiledQuery query = cache.get(key);
+        (query != null ? hits : misses).incrementAndGet();
+        return query;
+    }
+    
+    @Override
+    public synchronized void put(QueryCacheKey key, CompiledQuery query) {
+        cache.put(key, query);
+    }
+    
+    @Override
+    public synchronized void clear() {
+        cache.clear();
+    }
+    
+    @Override
+    public synchronized int size() {
+        return cache.size();
+    }
+    
+    @Override
+    public long getHitCount() {
+        return hits.get();
+    }
+    
+    @Override
+    public long getMissCount() {
+        return misses.get();
+    }
+    
+}
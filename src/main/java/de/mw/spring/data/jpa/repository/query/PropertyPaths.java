@@ -0,0 +1,29 @@
+package de.mw.spring.data.jpa.repository.query;
+
+import javax.persistence.criteria.Path;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Helper class for resolving (nested) property paths in criteria queries
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class PropertyPaths {
+
+    /**
+     * Resolves a dot separated property path, e.g. {@code address.city}
+     * 
+     * @param path the path to start from, e.g. the root of the query
+     * @param property the dot separated property path
+     * @return the resolved path
+     */
+    public static Path<?> get(Path<?> path, String property) {
+        Path<?> result = path;
+        for (String segment : property.split("\\.")) {
+            result = result.get(segment);
+        }
+        return result;
+    }
+    
+}
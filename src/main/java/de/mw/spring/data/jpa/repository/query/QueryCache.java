@@ -0,0 +1,43 @@
+package de.mw.spring.data.jpa.repository.query;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Cache for {@link CompiledQuery}s.
+ */
+public interface QueryCache {
+
+    /**
+     * @param key the cache key
+     * @return the cached query or {@literal null} if not cached
+     */
+    @Nullable
+    CompiledQuery get(QueryCacheKey key);
+    
+    /**
+     * @param key the cache key
+     * @param query the query to cache
+     */
+    void put(QueryCacheKey key, CompiledQuery query);
+    
+    /**
+     * Removes all cached queries.
+     */
+    void clear();
+    
+    /**
+     * @return number of cached queries
+     */
+    int size();
+    
+    /**
+     * @return number of successful lookups
+     */
+    long getHitCount();
+    
+    /**
+     * @return number of failed lookups
+     */
+    long getMissCount();
+    
+}
@@ -0,0 +1,50 @@
+package de.mw.spring.data.jpa.repository.query;
+
+import org.springframework.data.domain.Sort;
+
+import de.mw.spring.data.jpa.repository.CacheableSpecification;
+import de.mw.spring.data.jpa.repository.Projection;
+import lombok.Value;
+
+/**
+ * Key of a {@link CompiledQuery} in the {@link QueryCache}.
+ * 
+ * The projection is compared by its own equals, which is identity for lambdas, 
+ * so projections should be reused in order to hit the cache.
+ */
+@Value
+public class QueryCacheKey {
+
+    public enum QueryType { PROJECTION, COUNT }
+    
+    /**
+     * type of the query
+     */
+    QueryType queryType;
+    
+    /**
+     * class of the queried entity
+     */
+    Class<?> domainClass;
+    
+    /**
+     * {@link CacheableSpecification#getFingerprint()}
+     */
+    Object fingerprint;
+    
+    /**
+     * sort of the query, {@link Sort#unsorted()} for count queries
+     */
+    Sort sort;
+    
+    /**
+     * result class of the query
+     */
+    Class<?> resultClass;
+    
+    /**
+     * projection of the query, {@literal null} for count queries
+     */
+    Projection<?,?> projection;
+    
+}
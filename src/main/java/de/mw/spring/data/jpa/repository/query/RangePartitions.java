@@ -0,0 +1,111 @@
+package de.mw.spring.data.jpa.repository.query;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.Assert;
+
+import javax.persistence.criteria.Expression;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Helper class for splitting the value range of a numeric or date attribute into contiguous partitions.
+ * 
+ * Supported attribute types are {@link Long}, {@link Integer}, {@link Short}, {@link Byte}, {@link Date} (incl. SQL types),
+ * {@link Instant}, {@link LocalDate} and {@link LocalDateTime}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class RangePartitions {
+
+    /**
+     * Splits the range [min, max] of the given attribute into up to the given number of partitions of equal width.
+     * Each value of the range is contained in exactly one partition.
+     * 
+     * @param attribute the (dot separated) attribute path
+     * @param min the minimum value of the attribute, must not be {@literal null}.
+     * @param max the maximum value of the attribute, must not be {@literal null}.
+     * @param partitions the number of partitions, must be greater than zero.
+     * @return specifications restricting the attribute to each partition
+     */
+    public static <T> List<Specification<T>> of(String attribute, Object min, Object max, int partitions) {
+        Assert.isTrue(partitions > 0, "Number of partitions must be greater than zero");
+        
+        BigInteger lower = BigInteger.valueOf(toLong(min));
+        BigInteger width = BigInteger.valueOf(toLong(max)).subtract(lower).add(BigInteger.ONE);
+        BigInteger count = width.min(BigInteger.valueOf(partitions)).max(BigInteger.ONE);
+        
+        // boundaries: min, interior boundaries converted back to the attribute type, max
+        List<Object> boundaries = new ArrayList<>();
+        boundaries.add(min);
+        for (int i = 1; i < count.intValue(); i++) {
+            long boundary = lower.add(width.multiply(BigInteger.valueOf(i)).divide(count)).longValueExact();
+            boundaries.add(fromLong(boundary, min.getClass()));
+        }
+        boundaries.add(max);
+        
+        List<Specification<T>> specifications = new ArrayList<>();
+        for (int i = 0; i < boundaries.size() - 1; i++) {
+            specifications.add(range(attribute, boundaries.get(i), boundaries.get(i + 1), i == boundaries.size() - 2));
+        }
+        return specifications;
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    protected static <T> Specification<T> range(String attribute, Object lower, Object upper, boolean upperInclusive) {
+        return (root, query, cb) -> {
+            Expression path = PropertyPaths.get(root, attribute);
+            return cb.and(cb.greaterThanOrEqualTo(path, (Comparable) lower),
+                          upperInclusive ? cb.lessThanOrEqualTo(path, (Comparable) upper) : cb.lessThan(path, (Comparable) upper));
+        };
+    }
+    
+    protected static long toLong(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        } else if (value instanceof Date) {
+            return ((Date) value).getTime();
+        } else if (value instanceof Instant) {
+            return ((Instant) value).toEpochMilli();
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).toEpochDay();
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toEpochSecond(ZoneOffset.UTC);
+        }
+        throw new IllegalArgumentException("Unsupported partition attribute type " + value.getClass());
+    }
+    
+    protected static Object fromLong(long value, Class<?> type) {
+        if (type == Long.class) {
+            return value;
+        } else if (type == Integer.class) {
+            return (int) value;
+        } else if (type == Short.class) {
+            return (short) value;
+        } else if (type == Byte.class) {
+            return (byte) value;
+        } else if (type == java.sql.Timestamp.class) {
+            return new java.sql.Timestamp(value);
+        } else if (type == java.sql.Date.class) {
+            return new java.sql.Date(value);
+        } else if (Date.class.isAssignableFrom(type)) {
+            return new Date(value);
+        } else if (type == Instant.class) {
+            return Instant.ofEpochMilli(value);
+        } else if (type == LocalDate.class) {
+            return LocalDate.ofEpochDay(value);
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.ofEpochSecond(value, 0, ZoneOffset.UTC);
+        }
+        throw new IllegalArgumentException("Unsupported partition attribute type " + type);
+    }
+    
+}
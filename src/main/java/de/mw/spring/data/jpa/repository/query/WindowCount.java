@@ -0,0 +1,118 @@
+package de.mw.spring.data.jpa.repository.query;
+
+import org.hibernate.dialect.DB2Dialect;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MariaDB102Dialect;
+import org.hibernate.dialect.MySQL8Dialect;
+import org.hibernate.dialect.Oracle8iDialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.dialect.SQLServer2005Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.criteria.internal.CriteriaBuilderImpl;
+import org.hibernate.query.criteria.internal.expression.function.BasicFunctionExpression;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import de.mw.spring.data.jpa.repository.Projection;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Helper for selecting the total count of a query by the window function {@code count(*) over()} with the content rows,
+ * so a page and its total count are read by a single query.
+ * 
+ * Requires the function registered by {@link WindowCountFunctionContributor} and a dialect supporting window functions.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class WindowCount {
+    
+    /**
+     * Name of the function rendering {@code count(*) over()}
+     */
+    public static final String FUNCTION_NAME = "count_over";
+    
+    /**
+     * Alias of the trailing window count selection
+     */
+    public static final String TOTAL_COUNT_ALIAS = "windowCountTotal";
+    
+    private static final Set<Class<? extends Dialect>> SUPPORTING_DIALECTS = Set.of(PostgreSQL81Dialect.class, MySQL8Dialect.class, MariaDB102Dialect.class, 
+                                                                                    Oracle8iDialect.class, SQLServer2005Dialect.class, DB2Dialect.class, 
+                                                                                    H2Dialect.class);
+    
+    
+    /**
+     * Checks if the window count function is registered and the dialect of the entity manager supports window functions.
+     * 
+     * @param entityManager must not be {@literal null}.
+     */
+    public static boolean isSupported(EntityManager entityManager) {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        if (sessionFactory.getSqlFunctionRegistry().findSQLFunction(FUNCTION_NAME) == null) {
+            return false;
+        }
+        
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        return SUPPORTING_DIALECTS.stream().anyMatch(dialectClass -> dialectClass.isInstance(dialect));
+    }
+    
+    /**
+     * Appends the window count as trailing selection to the selections of the given projection.
+     * Distinct queries are not counted by the window function, as it is computed before the distinct, 
+     * so no window count is appended to them, see {@link #hasTotalCount(Tuple)}.
+     * The returned projection is equal to every other window count projection of an equal projection,
+     * so it can be used as part of a query cache key.
+     * 
+     * @param projection the projection, must not be {@literal null}.
+     */
+    public static <T> Projection<T,Tuple> withTotalCount(Projection<T,Tuple> projection) {
+        return new WindowCountProjection<>(projection);
+    }
+    
+    /**
+     * Checks if the given tuple of a query of a {@link #withTotalCount(Projection)} projection 
+     * contains the window count as trailing element.
+     * 
+     * @param tuple the tuple, must not be {@literal null}.
+     */
+    public static boolean hasTotalCount(Tuple tuple) {
+        List<TupleElement<?>> elements = tuple.getElements();
+        return !elements.isEmpty() && TOTAL_COUNT_ALIAS.equals(elements.get(elements.size() - 1).getAlias());
+    }
+    
+    
+    @EqualsAndHashCode
+    private static class WindowCountProjection<T> implements Projection<T,Tuple> {
+        
+        private final Projection<T,Tuple> projection;
+        
+        WindowCountProjection(Projection<T,Tuple> projection) {
+            this.projection = projection;
+        }
+        
+        @Override
+        public List<Selection<?>> toSelections(Root<T> root, CriteriaQuery<Tuple> query, CriteriaBuilder cb) {
+            List<Selection<?>> selections = new ArrayList<>(projection.toSelections(root, query, cb));
+            if (query.isDistinct()) {
+                return selections;
+            }
+            // CriteriaBuilder#function renders an invalid JPQL function call without arguments, so the plain function expression is used
+            selections.add(new BasicFunctionExpression<>((CriteriaBuilderImpl) cb, Long.class, FUNCTION_NAME).alias(TOTAL_COUNT_ALIAS));
+            return selections;
+        }
+        
+    }
+    
+}
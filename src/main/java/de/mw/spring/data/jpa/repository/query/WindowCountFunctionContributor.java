@@ -0,0 +1,24 @@
+package de.mw.spring.data.jpa.repository.query;
+
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the {@link WindowCount#FUNCTION_NAME} function rendering {@code count(*) over()},
+ * which is not expressible by JPQL or the criteria API.
+ * 
+ * Register it by the Hibernate property {@code hibernate.metadata_builder_contributor}, e.g. in Spring Boot:
+ * <pre>
+ * spring.jpa.properties.hibernate.metadata_builder_contributor=de.mw.spring.data.jpa.repository.query.WindowCountFunctionContributor
+ * </pre>
+ */
+public class WindowCountFunctionContributor implements MetadataBuilderContributor {
+
+    @Override
+    public void contribute(MetadataBuilder metadataBuilder) {
+        metadataBuilder.applySqlFunction(WindowCount.FUNCTION_NAME, new SQLFunctionTemplate(StandardBasicTypes.LONG, "count(*) over()"));
+    }
+
+}
@@ -0,0 +1,294 @@
+package de.mw.spring.data.jpa.repository.spill;
+
+import org.springframework.util.ClassUtils;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import de.mw.spring.data.jpa.repository.stream.ArrayTuple;
+
+/**
+ * Read only, memory mapped view of tuples spilled to a local file by {@link #write(Stream, Path)}.
+ * 
+ * The file is mapped in segments of at most {@link #MAX_SEGMENT_SIZE} bytes split at row boundaries, 
+ * so files larger than 2 GB are supported. The rows are decoded lazily on each access, 
+ * so the view can be iterated any number of times, also concurrently, without holding the tuples on the heap.
+ * 
+ * Closing the view releases the mappings for garbage collection, the file is not deleted.
+ */
+public class SpillFile implements AutoCloseable {
+
+    /**
+     * Maximum size of a mapped segment of rows
+     */
+    protected static final long MAX_SEGMENT_SIZE = 1L << 30;
+    
+    private static final int INDEX_SEGMENT_ROWS = 1 << 27; // 1 GB of offsets
+    
+    private final Path path;
+    private final List<TupleElement<?>> elements;
+    private final Class<?>[] types;
+    private final long rowCount;
+    private volatile boolean closed;
+    
+    private MappedByteBuffer[] indexSegments;
+    private MappedByteBuffer[] dataSegments;
+    private long[] dataSegmentOffsets;
+    private long[] dataSegmentFirstRows;
+    
+    
+    protected SpillFile(Path path, List<TupleElement<?>> elements, long rowCount) {
+        this.path = path;
+        this.elements = Collections.unmodifiableList(elements);
+        this.types = elements.stream().map(TupleElement::getJavaType).toArray(Class<?>[]::new);
+        this.rowCount = rowCount;
+    }
+    
+    /**
+     * Writes all tuples of the stream to the file and opens it, the stream is not closed.
+     * 
+     * @param tuples the tuples to spill, all tuples must have the same elements
+     * @param path the target file, an existing file is replaced
+     * @return the opened view, never {@literal null}.
+     * @throws IOException on failed write
+     * @throws IllegalArgumentException if a value is not supported, i.e. neither a basic type nor {@link java.io.Serializable}
+     */
+    public static SpillFile write(Stream<Tuple> tuples, Path path) throws IOException {
+        try (SpillWriter writer = new SpillWriter(path)) {
+            for (Tuple tuple : (Iterable<Tuple>) tuples::iterator) {
+                writer.writeRow(tuple);
+            }
+            writer.finish();
+        }
+        return open(path);
+    }
+    
+    /**
+     * Opens a complete spill file.
+     * 
+     * @param path the spill file
+     * @return the opened view, never {@literal null}.
+     * @throws IOException on failed read or if the file is not a complete spill file
+     */
+    public static SpillFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < SpillFormat.TRAILER_SIZE + 12) {
+                throw new IOException("Incomplete spill file " + path);
+            }
+            
+            ByteBuffer trailer = ByteBuffer.allocate(SpillFormat.TRAILER_SIZE);
+            while (trailer.hasRemaining() && channel.read(trailer, size - SpillFormat.TRAILER_SIZE + trailer.position()) >= 0) {
+                // read complete trailer
+            }
+            trailer.flip();
+            long indexOffset = trailer.getLong();
+            long rowCount = trailer.getLong();
+            if (trailer.getInt() != SpillFormat.MAGIC || indexOffset + rowCount * Long.BYTES != size - SpillFormat.TRAILER_SIZE) {
+                throw new IOException("Incomplete spill file " + path);
+            }
+            
+            channel.position(0);
+            List<TupleElement<?>> elements = new ArrayList<>();
+            long dataOffset = readHeader(Channels.newInputStream(channel), elements, path);
+            
+            SpillFile spillFile = new SpillFile(path, elements, rowCount);
+            spillFile.map(channel, dataOffset, indexOffset);
+            return spillFile;
+        }
+    }
+    
+    private static long readHeader(InputStream stream, List<TupleElement<?>> elements, Path path) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != SpillFormat.MAGIC || in.readInt() != SpillFormat.VERSION) {
+            throw new IOException("Unsupported spill file " + path);
+        }
+        
+        long headerSize = 12;
+        int columnCount = in.readInt();
+        for (int i = 0; i < columnCount; i++) {
+            int aliasLength = in.readInt();
+            String alias = null;
+            if (aliasLength >= 0) {
+                alias = readString(in, aliasLength);
+                headerSize += aliasLength;
+            }
+            int typeLength = in.readInt();
+            String typeName = readString(in, typeLength);
+            headerSize += 8 + typeLength;
+            
+            elements.add(new ArrayTuple.Element<>(alias, resolveType(typeName)));
+        }
+        return headerSize;
+    }
+    
+    private static String readString(DataInputStream in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private static Class<?> resolveType(String typeName) {
+        try {
+            return ClassUtils.resolvePrimitiveIfNecessary(ClassUtils.forName(typeName, ClassUtils.getDefaultClassLoader()));
+        } catch (ClassNotFoundException | LinkageError e) {
+            return Object.class;
+        }
+    }
+    
+    /**
+     * Maps the index in segments of fixed size and the rows in segments split at row boundaries.
+     */
+    protected void map(FileChannel channel, long dataOffset, long indexOffset) throws IOException {
+        int indexSegmentCount = (int) ((rowCount + INDEX_SEGMENT_ROWS - 1) / INDEX_SEGMENT_ROWS);
+        indexSegments = new MappedByteBuffer[indexSegmentCount];
+        for (int i = 0; i < indexSegmentCount; i++) {
+            long rows = Math.min(INDEX_SEGMENT_ROWS, rowCount - (long) i * INDEX_SEGMENT_ROWS);
+            indexSegments[i] = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset + (long) i * INDEX_SEGMENT_ROWS * Long.BYTES, rows * Long.BYTES);
+        }
+        
+        List<Long> segmentOffsets = new ArrayList<>(List.of(dataOffset));
+        List<Long> segmentFirstRows = new ArrayList<>(List.of(0L));
+        if (indexOffset - dataOffset > MAX_SEGMENT_SIZE) {
+            for (long row = 0; row < rowCount; row++) {
+                long rowEnd = row + 1 < rowCount ? offsetOf(row + 1) : indexOffset;
+                long segmentOffset = segmentOffsets.get(segmentOffsets.size() - 1);
+                if (rowEnd - segmentOffset > MAX_SEGMENT_SIZE) {
+                    long rowOffset = offsetOf(row);
+                    if (rowEnd - rowOffset > MAX_SEGMENT_SIZE) {
+                        throw new IOException("Row " + row + " exceeds the maximum segment size in " + path);
+                    }
+                    segmentOffsets.add(rowOffset);
+                    segmentFirstRows.add(row);
+                }
+            }
+        }
+        segmentOffsets.add(indexOffset);
+        
+        dataSegments = new MappedByteBuffer[segmentFirstRows.size()];
+        dataSegmentOffsets = segmentOffsets.stream().mapToLong(Long::longValue).toArray();
+        dataSegmentFirstRows = segmentFirstRows.stream().mapToLong(Long::longValue).toArray();
+        for (int i = 0; i < dataSegments.length; i++) {
+            dataSegments[i] = channel.map(FileChannel.MapMode.READ_ONLY, dataSegmentOffsets[i], dataSegmentOffsets[i + 1] - dataSegmentOffsets[i]);
+        }
+    }
+    
+    public Path getPath() {
+        return path;
+    }
+    
+    public List<TupleElement<?>> getElements() {
+        return elements;
+    }
+    
+    /**
+     * @return number of rows
+     */
+    public long size() {
+        return rowCount;
+    }
+    
+    /**
+     * Decodes a row.
+     * 
+     * @param row index of the row
+     * @return never {@literal null}.
+     * @throws IllegalStateException if the view is closed
+     */
+    public Tuple get(long row) {
+        checkOpen();
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for spill file of size " + rowCount);
+        }
+        
+        int segment = Arrays.binarySearch(dataSegmentFirstRows, row);
+        if (segment < 0) {
+            segment = -segment - 2;
+        }
+        
+        ByteBuffer in = dataSegments[segment].duplicate();
+        in.position((int) (offsetOf(row) - dataSegmentOffsets[segment]));
+        
+        Object[] values = new Object[types.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = SpillFormat.read(in, types[i]);
+        }
+        return new ArrayTuple(elements, values);
+    }
+    
+    /**
+     * Creates a new lazy stream of all rows, each call starts from the first row.
+     * 
+     * @return never {@literal null}.
+     */
+    public Stream<Tuple> stream() {
+        checkOpen();
+        return LongStream.range(0, rowCount).mapToObj(this::get);
+    }
+    
+    /**
+     * Lazy list view of all rows, decoding a row on each access.
+     * 
+     * @return never {@literal null}.
+     * @throws IllegalStateException if the number of rows exceeds the size of a list
+     */
+    public List<Tuple> asList() {
+        checkOpen();
+        if (rowCount > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Spill file with " + rowCount + " rows exceeds the size of a list");
+        }
+        return new SpillList();
+    }
+    
+    @Override
+    public void close() {
+        closed = true;
+        indexSegments = null;
+        dataSegments = null;
+    }
+    
+    protected long offsetOf(long row) {
+        return indexSegments[(int) (row / INDEX_SEGMENT_ROWS)].getLong((int) (row % INDEX_SEGMENT_ROWS) * Long.BYTES);
+    }
+    
+    protected void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Spill file " + path + " is closed");
+        }
+    }
+    
+    
+    private class SpillList extends AbstractList<Tuple> implements RandomAccess {
+        
+        @Override
+        public Tuple get(int index) {
+            return SpillFile.this.get(index);
+        }
+        
+        @Override
+        public int size() {
+            return (int) rowCount;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,250 @@
+package de.mw.spring.data.jpa.repository.spill;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Binary format of a {@link SpillFile}.
+ * 
+ * <pre>
+ * header:  magic, version, column count, per column: alias (-1 length for none), java type name
+ * rows:    per value: type tag, payload
+ * index:   absolute offset (long) per row
+ * trailer: index offset (long), row count (long), magic
+ * </pre>
+ * 
+ * Strings are stored as length (int) and UTF-8 bytes, all numbers in big endian.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class SpillFormat {
+
+    static final int MAGIC = 0x5350494C; // SPIL
+    static final int VERSION = 1;
+    static final int TRAILER_SIZE = 8 + 8 + 4;
+    
+    static final byte NULL = 0;
+    static final byte LONG = 1;
+    static final byte INT = 2;
+    static final byte SHORT = 3;
+    static final byte BYTE = 4;
+    static final byte DOUBLE = 5;
+    static final byte FLOAT = 6;
+    static final byte FALSE = 7;
+    static final byte TRUE = 8;
+    static final byte STRING = 9;
+    static final byte BIG_DECIMAL = 10;
+    static final byte BIG_INTEGER = 11;
+    static final byte LOCAL_DATE = 12;
+    static final byte LOCAL_TIME = 13;
+    static final byte LOCAL_DATE_TIME = 14;
+    static final byte INSTANT = 15;
+    static final byte OFFSET_DATE_TIME = 16;
+    static final byte SQL_DATE = 17;
+    static final byte SQL_TIME = 18;
+    static final byte SQL_TIMESTAMP = 19;
+    static final byte DATE = 20;
+    static final byte UUID_VALUE = 21;
+    static final byte ENUM = 22;
+    static final byte CHARACTER = 23;
+    static final byte BYTES = 24;
+    static final byte SERIALIZED = 25;
+    
+    /**
+     * Encodes a value as type tag and payload.
+     * 
+     * @param value the value, can be {@literal null}
+     * @param out the target, large enough for fixed size values, variable size values are written by {@code bytes}
+     * @param bytes writes variable size payloads
+     * @throws IllegalArgumentException if the value is not supported
+     */
+    static void write(Object value, ByteBuffer out, ByteSink bytes) {
+        if (value == null) {
+            out.put(NULL);
+        } else if (value instanceof Long) {
+            out.put(LONG).putLong((Long) value);
+        } else if (value instanceof Integer) {
+            out.put(INT).putInt((Integer) value);
+        } else if (value instanceof Short) {
+            out.put(SHORT).putShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.put(BYTE).put((Byte) value);
+        } else if (value instanceof Double) {
+            out.put(DOUBLE).putDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.put(FLOAT).putFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.put((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof String) {
+            out.put(STRING);
+            bytes.write(((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof BigDecimal) {
+            out.put(BIG_DECIMAL);
+            bytes.write(value.toString().getBytes(StandardCharsets.US_ASCII));
+        } else if (value instanceof BigInteger) {
+            out.put(BIG_INTEGER);
+            bytes.write(((BigInteger) value).toByteArray());
+        } else if (value instanceof LocalDate) {
+            out.put(LOCAL_DATE).putLong(((LocalDate) value).toEpochDay());
+        } else if (value instanceof LocalTime) {
+            out.put(LOCAL_TIME).putLong(((LocalTime) value).toNanoOfDay());
+        } else if (value instanceof LocalDateTime) {
+            LocalDateTime dateTime = (LocalDateTime) value;
+            out.put(LOCAL_DATE_TIME).putLong(dateTime.toEpochSecond(ZoneOffset.UTC)).putInt(dateTime.getNano());
+        } else if (value instanceof Instant) {
+            out.put(INSTANT).putLong(((Instant) value).getEpochSecond()).putInt(((Instant) value).getNano());
+        } else if (value instanceof OffsetDateTime) {
+            OffsetDateTime dateTime = (OffsetDateTime) value;
+            out.put(OFFSET_DATE_TIME).putLong(dateTime.toEpochSecond()).putInt(dateTime.getNano()).putInt(dateTime.getOffset().getTotalSeconds());
+        } else if (value instanceof java.sql.Date) {
+            out.put(SQL_DATE).putLong(((java.sql.Date) value).toLocalDate().toEpochDay());
+        } else if (value instanceof java.sql.Time) {
+            out.put(SQL_TIME).putLong(((java.sql.Time) value).getTime());
+        } else if (value instanceof java.sql.Timestamp) {
+            out.put(SQL_TIMESTAMP).putLong(((java.sql.Timestamp) value).getTime()).putInt(((java.sql.Timestamp) value).getNanos());
+        } else if (value instanceof java.util.Date) {
+            out.put(DATE).putLong(((java.util.Date) value).getTime());
+        } else if (value instanceof UUID) {
+            out.put(UUID_VALUE).putLong(((UUID) value).getMostSignificantBits()).putLong(((UUID) value).getLeastSignificantBits());
+        } else if (value instanceof Enum) {
+            out.put(ENUM);
+            bytes.write(((Enum<?>) value).name().getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Character) {
+            out.put(CHARACTER).putChar((Character) value);
+        } else if (value instanceof byte[]) {
+            out.put(BYTES);
+            bytes.write((byte[]) value);
+        } else if (value instanceof Serializable) {
+            out.put(SERIALIZED);
+            bytes.write(serialize((Serializable) value));
+        } else {
+            throw new IllegalArgumentException("Unsupported value of type " + value.getClass().getName());
+        }
+    }
+    
+    /**
+     * Decodes a value at the position of the buffer.
+     * 
+     * @param in the source
+     * @param type java type of the column, used to restore enums
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Object read(ByteBuffer in, Class<?> type) {
+        byte tag = in.get();
+        switch (tag) {
+            case NULL:
+                return null;
+            case LONG:
+                return in.getLong();
+            case INT:
+                return in.getInt();
+            case SHORT:
+                return in.getShort();
+            case BYTE:
+                return in.get();
+            case DOUBLE:
+                return in.getDouble();
+            case FLOAT:
+                return in.getFloat();
+            case FALSE:
+                return Boolean.FALSE;
+            case TRUE:
+                return Boolean.TRUE;
+            case STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case BIG_DECIMAL:
+                return new BigDecimal(new String(readBytes(in), StandardCharsets.US_ASCII));
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(in));
+            case LOCAL_DATE:
+                return LocalDate.ofEpochDay(in.getLong());
+            case LOCAL_TIME:
+                return LocalTime.ofNanoOfDay(in.getLong());
+            case LOCAL_DATE_TIME:
+                return LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+            case INSTANT:
+                return Instant.ofEpochSecond(in.getLong(), in.getInt());
+            case OFFSET_DATE_TIME:
+                Instant instant = Instant.ofEpochSecond(in.getLong(), in.getInt());
+                return OffsetDateTime.ofInstant(instant, ZoneOffset.ofTotalSeconds(in.getInt()));
+            case SQL_DATE:
+                return java.sql.Date.valueOf(LocalDate.ofEpochDay(in.getLong()));
+            case SQL_TIME:
+                return new java.sql.Time(in.getLong());
+            case SQL_TIMESTAMP:
+                java.sql.Timestamp timestamp = new java.sql.Timestamp(in.getLong());
+                timestamp.setNanos(in.getInt());
+                return timestamp;
+            case DATE:
+                return new java.util.Date(in.getLong());
+            case UUID_VALUE:
+                return new UUID(in.getLong(), in.getLong());
+            case ENUM:
+                String name = new String(readBytes(in), StandardCharsets.UTF_8);
+                return type.isEnum() ? Enum.valueOf((Class<Enum>) type, name) : name;
+            case CHARACTER:
+                return in.getChar();
+            case BYTES:
+                return readBytes(in);
+            case SERIALIZED:
+                return deserialize(readBytes(in));
+            default:
+                throw new IllegalStateException("Unknown value type " + tag + " at position " + (in.position() - 1));
+        }
+    }
+    
+    static byte[] readBytes(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return bytes;
+    }
+    
+    private static byte[] serialize(Serializable value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static Object deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Could not deserialize spilled value", e);
+        }
+    }
+    
+    /**
+     * Writes a length prefixed byte array
+     */
+    @FunctionalInterface
+    interface ByteSink {
+        
+        void write(byte[] bytes);
+        
+    }
+    
+}
@@ -0,0 +1,152 @@
+package de.mw.spring.data.jpa.repository.spill;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes tuples in the {@link SpillFormat} to a file. 
+ * The row offsets are collected in a temporary index file next to the target and appended on {@link #finish()}.
+ */
+class SpillWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final FileChannel dataChannel;
+    private final FileChannel indexChannel;
+    private final Path indexPath;
+    private final ByteBuffer data = ByteBuffer.allocate(BUFFER_SIZE);
+    private final ByteBuffer index = ByteBuffer.allocate(BUFFER_SIZE);
+    private final SpillFormat.ByteSink byteSink = bytes -> {
+        try {
+            writeBytes(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    };
+    private long flushed;
+    private long rowCount;
+    private int columnCount = -1;
+    
+    
+    SpillWriter(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        this.indexPath = Files.createTempFile(directory, path.getFileName().toString(), ".idx");
+        this.dataChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.indexChannel = FileChannel.open(indexPath, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+    }
+    
+    void writeHeader(List<TupleElement<?>> elements) throws IOException {
+        columnCount = elements.size();
+        ensureCapacity(12);
+        data.putInt(SpillFormat.MAGIC).putInt(SpillFormat.VERSION).putInt(columnCount);
+        
+        for (TupleElement<?> element : elements) {
+            if (element.getAlias() == null) {
+                ensureCapacity(4);
+                data.putInt(-1);
+            } else {
+                writeBytes(element.getAlias().getBytes(StandardCharsets.UTF_8));
+            }
+            Class<?> type = element.getJavaType();
+            writeBytes((type != null ? type.getName() : Object.class.getName()).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+    
+    void writeRow(Tuple tuple) throws IOException {
+        if (columnCount < 0) {
+            writeHeader(tuple.getElements());
+        }
+        
+        if (index.remaining() < Long.BYTES) {
+            flush(index, indexChannel);
+        }
+        index.putLong(position());
+        
+        for (int i = 0; i < columnCount; i++) {
+            ensureCapacity(32); // fixed size values
+            SpillFormat.write(tuple.get(i), data, byteSink);
+        }
+        rowCount++;
+    }
+    
+    /**
+     * Appends the index and the trailer, the file is complete afterwards.
+     */
+    void finish() throws IOException {
+        if (columnCount < 0) {
+            writeHeader(List.of());
+        }
+        
+        flush(index, indexChannel);
+        flush(data, dataChannel);
+        
+        long indexOffset = flushed;
+        long indexSize = indexChannel.size();
+        for (long transferred = 0; transferred < indexSize; ) {
+            transferred += indexChannel.transferTo(transferred, indexSize - transferred, dataChannel);
+        }
+        flushed += indexSize;
+        
+        data.putLong(indexOffset).putLong(rowCount).putInt(SpillFormat.MAGIC);
+        flush(data, dataChannel);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try (indexChannel; dataChannel) {
+            // closes both channels, the index file is deleted on close
+        }
+    }
+    
+    private long position() {
+        return flushed + data.position();
+    }
+    
+    private void writeBytes(byte[] bytes) throws IOException {
+        ensureCapacity(4);
+        data.putInt(bytes.length);
+        
+        if (bytes.length <= data.remaining()) {
+            data.put(bytes);
+        } else {
+            flush(data, dataChannel);
+            if (bytes.length <= data.remaining()) {
+                data.put(bytes);
+            } else {
+                ByteBuffer large = ByteBuffer.wrap(bytes);
+                while (large.hasRemaining()) {
+                    flushed += dataChannel.write(large);
+                }
+            }
+        }
+    }
+    
+    private void ensureCapacity(int size) throws IOException {
+        if (data.remaining() < size) {
+            flush(data, dataChannel);
+        }
+    }
+    
+    private void flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            int written = channel.write(buffer);
+            if (channel == dataChannel) {
+                flushed += written;
+            }
+        }
+        buffer.clear();
+    }
+    
+}
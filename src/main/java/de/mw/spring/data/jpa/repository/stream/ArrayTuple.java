@@ -0,0 +1,106 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link Tuple} of a row of values with the given elements, e.g. decoded from a spill file or 
+ * read by a query recreated from its compiled JPQL string.
+ */
+public class ArrayTuple implements Tuple {
+
+    private final List<TupleElement<?>> elements;
+    private final Object[] values;
+    
+    
+    /**
+     * @param elements the elements, aliases may be {@literal null}
+     * @param values the values of the elements
+     */
+    public ArrayTuple(List<TupleElement<?>> elements, Object[] values) {
+        this.elements = elements;
+        this.values = values;
+    }
+    
+    @Override
+    public <X> X get(TupleElement<X> tupleElement) {
+        int index = elements.indexOf(tupleElement);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown tuple element " + tupleElement);
+        }
+        return tupleElement.getJavaType().cast(values[index]);
+    }
+    
+    @Override
+    public <X> X get(String alias, Class<X> type) {
+        return type.cast(get(alias));
+    }
+    
+    @Override
+    public Object get(String alias) {
+        for (int i = 0; i < elements.size(); i++) {
+            if (alias.equals(elements.get(i).getAlias())) {
+                return values[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown alias " + alias);
+    }
+    
+    @Override
+    public <X> X get(int i, Class<X> type) {
+        return type.cast(get(i));
+    }
+    
+    @Override
+    public Object get(int i) {
+        if (i < 0 || i >= values.length) {
+            throw new IllegalArgumentException("Index " + i + " out of bounds for tuple of size " + values.length);
+        }
+        return values[i];
+    }
+    
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(values, values.length);
+    }
+    
+    @Override
+    public List<TupleElement<?>> getElements() {
+        return elements;
+    }
+    
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+    
+    
+    /**
+     * {@link TupleElement} of an {@link ArrayTuple}
+     */
+    public static class Element<X> implements TupleElement<X> {
+        
+        private final String alias;
+        private final Class<X> javaType;
+        
+        public Element(String alias, Class<X> javaType) {
+            this.alias = alias;
+            this.javaType = javaType;
+        }
+        
+        @Override
+        public Class<? extends X> getJavaType() {
+            return javaType;
+        }
+        
+        @Override
+        public String getAlias() {
+            return alias;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,109 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterator grouping the rows of a source into chunks of a maximum size.
+ * A chunk is read from the source not until it is requested.
+ *
+ * @param <T> type of rows
+ */
+public class ChunkingSpliterator<T> implements Spliterator<List<T>> {
+
+    private final Spliterator<T> source;
+    private final int chunkSize;
+    
+    
+    public ChunkingSpliterator(Spliterator<T> source, int chunkSize) {
+        Assert.isTrue(chunkSize > 0, "Chunk size must be greater than zero");
+        this.source = source;
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * Creates a lazy sequential stream of chunks of the source, closing the stream closes the source.
+     * 
+     * @param source the source of the rows
+     * @param chunkSize maximum number of rows per chunk
+     * @return never {@literal null}.
+     */
+    public static <T> Stream<List<T>> chunks(Stream<T> source, int chunkSize) {
+        return StreamSupport.stream(new ChunkingSpliterator<>(source.spliterator(), chunkSize), false)
+                            .onClose(source::close);
+    }
+    
+    /**
+     * Creates a lazy sequential stream processing each chunk of the source by the given function 
+     * and emitting the rows of the processed chunks, closing the stream closes the source.
+     * 
+     * @param source the source of the rows
+     * @param chunkSize maximum number of rows per chunk
+     * @param chunkFunction processes a chunk
+     * @return never {@literal null}.
+     */
+    public static <T,R> Stream<R> mapChunks(Stream<T> source, int chunkSize, Function<List<T>, List<R>> chunkFunction) {
+        Iterator<List<T>> chunks = Spliterators.iterator(new ChunkingSpliterator<>(source.spliterator(), chunkSize));
+        Iterator<R> rows = new Iterator<R>() {
+            private Iterator<R> chunk = Collections.emptyIterator();
+            
+            @Override
+            public boolean hasNext() {
+                while (!chunk.hasNext() && chunks.hasNext()) {
+                    chunk = chunkFunction.apply(chunks.next()).iterator();
+                }
+                return chunk.hasNext();
+            }
+            
+            @Override
+            public R next() {
+                hasNext();
+                return chunk.next();
+            }
+        };
+        
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+                            .onClose(source::close);
+    }
+    
+    @Override
+    public boolean tryAdvance(Consumer<? super List<T>> action) {
+        List<T> chunk = new ArrayList<>(chunkSize);
+        while (chunk.size() < chunkSize && source.tryAdvance(chunk::add)) {
+            // read until chunk is full or source is exhausted
+        }
+        
+        if (chunk.isEmpty()) {
+            return false;
+        }
+        action.accept(chunk);
+        return true;
+    }
+
+    @Override
+    public Spliterator<List<T>> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = source.estimateSize();
+        return size == Long.MAX_VALUE ? size : (size + chunkSize - 1) / chunkSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return (source.characteristics() & ORDERED) | NONNULL;
+    }
+
+}
@@ -0,0 +1,79 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterator passing the rows of a source through and handing them to an evictor every given number of rows.
+ * 
+ * The rows are evicted before the next row is requested from the source, so the most recent 
+ * rows are still not evicted while they are processed by the consumer.
+ *
+ * @param <T> type of rows
+ */
+public class EvictingSpliterator<T> implements Spliterator<T> {
+
+    private final Spliterator<T> source;
+    private final int interval;
+    private final Consumer<List<T>> evictor;
+    private final List<T> pending;
+    
+    
+    /**
+     * @param source the source of the rows
+     * @param interval number of rows between evictions
+     * @param evictor evicts the given rows
+     */
+    public EvictingSpliterator(Spliterator<T> source, int interval, Consumer<List<T>> evictor) {
+        this.source = source;
+        this.interval = interval;
+        this.evictor = evictor;
+        this.pending = new ArrayList<>(interval);
+    }
+    
+    /**
+     * Creates a sequential stream of the source, closing the stream closes the source.
+     * 
+     * @param source the source of the rows
+     * @param interval number of rows between evictions
+     * @param evictor evicts the given rows
+     * @return never {@literal null}.
+     */
+    public static <T> Stream<T> stream(Stream<T> source, int interval, Consumer<List<T>> evictor) {
+        return StreamSupport.stream(new EvictingSpliterator<>(source.spliterator(), interval, evictor), false)
+                            .onClose(source::close);
+    }
+    
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (pending.size() >= interval) {
+            evictor.accept(pending);
+            pending.clear();
+        }
+        
+        return source.tryAdvance(row -> {
+            pending.add(row);
+            action.accept(row);
+        });
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & (ORDERED | NONNULL);
+    }
+
+}
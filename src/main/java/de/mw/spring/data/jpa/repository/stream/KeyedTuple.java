@@ -0,0 +1,79 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link Tuple} view hiding trailing key elements, which were selected in addition to the projection 
+ * e.g. for keyset queries or merging of sorted streams.
+ */
+public class KeyedTuple implements Tuple {
+
+    private final Tuple tuple;
+    private final int size;
+    
+    
+    /**
+     * @param tuple the tuple with trailing key elements
+     * @param keyCount number of trailing key elements
+     */
+    public KeyedTuple(Tuple tuple, int keyCount) {
+        this.tuple = tuple;
+        this.size = tuple.getElements().size() - keyCount;
+    }
+    
+    /**
+     * @return values of the hidden trailing key elements
+     */
+    public Object[] getKeys() {
+        Object[] values = tuple.toArray();
+        return Arrays.copyOfRange(values, size, values.length);
+    }
+    
+    @Override
+    public <X> X get(TupleElement<X> tupleElement) {
+        return tuple.get(tupleElement);
+    }
+
+    @Override
+    public <X> X get(String alias, Class<X> type) {
+        return tuple.get(alias, type);
+    }
+
+    @Override
+    public Object get(String alias) {
+        return tuple.get(alias);
+    }
+
+    @Override
+    public <X> X get(int i, Class<X> type) {
+        checkIndex(i);
+        return tuple.get(i, type);
+    }
+
+    @Override
+    public Object get(int i) {
+        checkIndex(i);
+        return tuple.get(i);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(tuple.toArray(), size);
+    }
+
+    @Override
+    public List<TupleElement<?>> getElements() {
+        return tuple.getElements().subList(0, size);
+    }
+    
+    protected void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IllegalArgumentException("Tuple index " + i + " out of bounds for size " + size);
+        }
+    }
+
+}
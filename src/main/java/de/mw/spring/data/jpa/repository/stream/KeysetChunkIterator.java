@@ -0,0 +1,95 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterator over the results of repeated keyset (seek) queries.
+ * 
+ * The next chunk is loaded lazily with the keys of the last row of the previous chunk,
+ * until a chunk with less rows than the chunk size is returned.
+ * The chunk size may vary from chunk to chunk, e.g. by an adaptive fetch size.
+ *
+ * @param <R> type of rows
+ */
+public class KeysetChunkIterator<R> implements Iterator<R> {
+
+    private final IntSupplier chunkSizes;
+    private final BiFunction<Object[], Integer, List<R>> chunkLoader;
+    private final Function<R, Object[]> keyExtractor;
+    
+    private Iterator<R> chunk = Collections.emptyIterator();
+    private Object[] lastKeys;
+    private boolean exhausted;
+    
+    
+    /**
+     * @param chunkSize maximum number of rows loaded per chunk
+     * @param chunkLoader loads the chunk of rows following the given keys ({@literal null} for the first chunk)
+     * @param keyExtractor reads the keys of a row
+     */
+    public KeysetChunkIterator(int chunkSize, Function<Object[], List<R>> chunkLoader, Function<R, Object[]> keyExtractor) {
+        this(() -> chunkSize, (lastKeys, size) -> chunkLoader.apply(lastKeys), keyExtractor);
+        Assert.isTrue(chunkSize > 0, "Chunk size must be greater than zero");
+    }
+    
+    /**
+     * @param chunkSizes supplies the maximum number of rows of the next chunk, called once before each load
+     * @param chunkLoader loads the chunk of rows of the given maximum size following the given keys ({@literal null} for the first chunk)
+     * @param keyExtractor reads the keys of a row
+     */
+    public KeysetChunkIterator(IntSupplier chunkSizes, BiFunction<Object[], Integer, List<R>> chunkLoader, Function<R, Object[]> keyExtractor) {
+        this.chunkSizes = chunkSizes;
+        this.chunkLoader = chunkLoader;
+        this.keyExtractor = keyExtractor;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        while (!chunk.hasNext() && !exhausted) {
+            int chunkSize = chunkSizes.getAsInt();
+            Assert.state(chunkSize > 0, "Chunk size must be greater than zero");
+            List<R> rows = loadChunk(lastKeys, chunkSize);
+            if (rows.size() < chunkSize) {
+                exhausted = true;
+            }
+            if (!rows.isEmpty()) {
+                lastKeys = keyExtractor.apply(rows.get(rows.size() - 1));
+            }
+            chunk = rows.iterator();
+        }
+        return chunk.hasNext();
+    }
+    
+    @Override
+    public R next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return chunk.next();
+    }
+    
+    protected List<R> loadChunk(@Nullable Object[] lastKeys, int chunkSize) {
+        return chunkLoader.apply(lastKeys, chunkSize);
+    }
+    
+    /**
+     * @return a lazy sequential stream of all rows of all chunks
+     */
+    public Stream<R> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+    
+}
@@ -0,0 +1,167 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import org.springframework.util.Assert;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterator mapping chunks of the rows of a source in parallel by tasks of an executor.
+ *
+ * The source is read on the consuming thread. At most the window size of chunks are mapped or
+ * wait for being emitted at the same time. In ordered mode the mapped chunks are emitted in the order
+ * of the source, otherwise in the order of their completion. An exception of a mapping task is rethrown
+ * to the consumer. Closing the stream created by {@link #stream(Stream, int, int, boolean, Executor, Function)}
+ * closes the source and cancels the not yet started mapping tasks.
+ *
+ * @param <P> type of source rows
+ * @param <R> type of mapped rows
+ */
+public class ParallelMappingSpliterator<P,R> implements Spliterator<R> {
+
+    private final Spliterator<List<P>> chunks;
+    private final int windowSize;
+    private final boolean ordered;
+    private final Executor executor;
+    private final Function<List<P>, List<R>> chunkFunction;
+    private final Deque<CompletableFuture<List<R>>> inFlight = new ArrayDeque<>();
+    private final BlockingQueue<CompletableFuture<List<R>>> completed = new LinkedBlockingQueue<>();
+
+    private Iterator<R> current = Collections.emptyIterator();
+    private boolean exhausted;
+
+
+    protected ParallelMappingSpliterator(Spliterator<P> source, int chunkSize, int windowSize, boolean ordered,
+                                         Executor executor, Function<List<P>, List<R>> chunkFunction) {
+        Assert.isTrue(windowSize > 0, "Window size must be greater than zero");
+        this.chunks = new ChunkingSpliterator<>(source, chunkSize);
+        this.windowSize = windowSize;
+        this.ordered = ordered;
+        this.executor = executor;
+        this.chunkFunction = chunkFunction;
+    }
+
+    /**
+     * Creates a lazy sequential stream mapping the chunks of the source in parallel.
+     *
+     * @param source the source of the rows, read by the consuming thread
+     * @param chunkSize maximum number of rows per chunk, must be greater than zero
+     * @param windowSize maximum number of chunks in flight, must be greater than zero
+     * @param ordered whether to emit the mapped chunks in the order of the source
+     * @param executor runs the mapping tasks
+     * @param chunkFunction maps a chunk, must be thread-safe
+     * @return never {@literal null}.
+     */
+    public static <P,R> Stream<R> stream(Stream<P> source, int chunkSize, int windowSize, boolean ordered,
+                                         Executor executor, Function<List<P>, List<R>> chunkFunction) {
+        ParallelMappingSpliterator<P,R> spliterator = new ParallelMappingSpliterator<>(source.spliterator(), chunkSize, windowSize, ordered, executor, chunkFunction);
+        return StreamSupport.stream(spliterator, false)
+                            .onClose(() -> {
+                                try {
+                                    source.close();
+                                } finally {
+                                    spliterator.cancel();
+                                }
+                            });
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        while (!current.hasNext()) {
+            submitChunks();
+            if (inFlight.isEmpty()) {
+                return false;
+            }
+            current = nextMappedChunk().iterator();
+        }
+
+        action.accept(current.next());
+        return true;
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ordered ? ORDERED : 0;
+    }
+
+    /**
+     * Cancels all mapping tasks in flight, running tasks are not interrupted.
+     */
+    public void cancel() {
+        inFlight.forEach(future -> future.cancel(false));
+        inFlight.clear();
+        completed.clear();
+    }
+
+
+    /**
+     * Reads and submits chunks of the source until the window is full or the source is exhausted.
+     */
+    protected void submitChunks() {
+        while (!exhausted && inFlight.size() < windowSize) {
+            exhausted = !chunks.tryAdvance(this::submit);
+        }
+    }
+
+    protected void submit(List<P> chunk) {
+        CompletableFuture<List<R>> future = CompletableFuture.supplyAsync(() -> chunkFunction.apply(chunk), executor);
+        inFlight.add(future);
+        if (!ordered) {
+            future.whenComplete((models, e) -> completed.add(future));
+        }
+    }
+
+    /**
+     * Waits for the next mapped chunk, which is the oldest chunk in ordered mode or the first completed chunk otherwise.
+     */
+    protected List<R> nextMappedChunk() {
+        CompletableFuture<List<R>> future;
+        if (ordered) {
+            future = inFlight.poll();
+        } else {
+            try {
+                future = completed.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for mapped chunk", e);
+            }
+            inFlight.remove(future);
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+}
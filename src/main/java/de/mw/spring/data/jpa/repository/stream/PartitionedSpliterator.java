@@ -0,0 +1,118 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterator over the results of multiple partitions, where each partition is opened lazily as separate stream.
+ * 
+ * {@link #trySplit()} hands out the not yet started partitions, so each partition is consumed by a single thread
+ * of a parallel stream. A partition stream is closed as soon as it is exhausted, all still open partition
+ * streams are closed by closing the stream created by {@link #stream(List)}.
+ *
+ * @param <R> type of rows
+ */
+public class PartitionedSpliterator<R> implements Spliterator<R> {
+
+    private final List<Supplier<Stream<R>>> partitions;
+    private final Set<Stream<R>> openStreams;
+    private int index;
+    private int fence;
+    
+    private Stream<R> currentStream;
+    private Iterator<R> current;
+    
+    
+    protected PartitionedSpliterator(List<Supplier<Stream<R>>> partitions, Set<Stream<R>> openStreams, int index, int fence) {
+        this.partitions = partitions;
+        this.openStreams = openStreams;
+        this.index = index;
+        this.fence = fence;
+    }
+    
+    /**
+     * Creates a parallel stream over all partitions.
+     * 
+     * @param partitions suppliers opening the stream of each partition
+     * @return parallel stream, never {@literal null}.
+     */
+    public static <R> Stream<R> stream(List<Supplier<Stream<R>>> partitions) {
+        Set<Stream<R>> openStreams = ConcurrentHashMap.newKeySet();
+        return StreamSupport.stream(new PartitionedSpliterator<>(partitions, openStreams, 0, partitions.size()), true)
+                            .onClose(() -> closeAll(openStreams));
+    }
+    
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        while (true) {
+            if (current == null) {
+                if (index >= fence) {
+                    return false;
+                }
+                currentStream = partitions.get(index++).get();
+                openStreams.add(currentStream);
+                current = currentStream.iterator();
+            }
+            
+            if (current.hasNext()) {
+                action.accept(current.next());
+                return true;
+            }
+            
+            openStreams.remove(currentStream);
+            currentStream.close();
+            currentStream = null;
+            current = null;
+        }
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        if (current != null || fence - index < 2) {
+            return null;
+        }
+        
+        int mid = (index + fence) >>> 1;
+        Spliterator<R> prefix = new PartitionedSpliterator<>(partitions, openStreams, index, mid);
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return current == null && index >= fence ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return NONNULL;
+    }
+    
+    protected static <R> void closeAll(Set<Stream<R>> streams) {
+        RuntimeException exception = null;
+        for (Stream<R> stream : streams) {
+            try {
+                stream.close();
+            } catch (RuntimeException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        streams.clear();
+        
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+}
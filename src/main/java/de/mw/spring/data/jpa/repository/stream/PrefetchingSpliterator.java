@@ -0,0 +1,259 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import org.springframework.util.Assert;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterator reading the rows of a source stream ahead on a separate reader thread.
+ *
+ * The source stream is opened, read and closed on the reader thread, so a transaction or entity manager
+ * bound by the source stays bound to the reader thread. The reader drains the source into a bounded
+ * {@link SpscRingBuffer} while the consumer processes the already buffered rows,
+ * the reader waits while the buffer is full and the consumer waits while it is empty.
+ *
+ * The reader is started on the first read. An exception of the source is rethrown to the consumer
+ * after all rows buffered before the exception have been consumed. Closing the stream created by
+ * {@link #stream(Supplier, int, Executor)} stops the reader and waits until the source is closed,
+ * an exception of closing the source is rethrown by the close.
+ *
+ * @param <R> type of rows
+ */
+public class PrefetchingSpliterator<R> implements Spliterator<R>, Runnable {
+
+    private static final Object NULL = new Object();
+
+    private final Supplier<Stream<R>> source;
+    private final Executor executor;
+    private final SpscRingBuffer<Object> buffer;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private volatile boolean done;
+    private volatile boolean cancelled;
+    private volatile Throwable error;
+    private volatile Thread reader;
+    private volatile Thread consumer;
+    private volatile boolean readerWaiting;
+    private volatile boolean consumerWaiting;
+
+
+    protected PrefetchingSpliterator(Supplier<Stream<R>> source, int bufferSize, Executor executor) {
+        Assert.isTrue(bufferSize > 0, "Buffer size must be greater than zero");
+        this.source = source;
+        this.executor = executor;
+        this.buffer = new SpscRingBuffer<>(bufferSize);
+    }
+
+    /**
+     * Creates a sequential stream over the rows of the source stream, which are read ahead by a reader thread.
+     *
+     * @param source opens the source stream, called on the reader thread
+     * @param bufferSize maximum number of rows read ahead, must be greater than zero
+     * @param executor runs the reader
+     * @return sequential stream, never {@literal null}.
+     */
+    public static <R> Stream<R> stream(Supplier<Stream<R>> source, int bufferSize, Executor executor) {
+        PrefetchingSpliterator<R> spliterator = new PrefetchingSpliterator<>(source, bufferSize, executor);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        Object row = take();
+        if (row == null) {
+            return false;
+        }
+        action.accept(unmask(row));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super R> action) {
+        Object row;
+        while ((row = take()) != null) {
+            action.accept(unmask(row));
+        }
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+
+    /**
+     * Reads the source stream into the buffer until it is exhausted, fails or the spliterator is closed.
+     */
+    @Override
+    public void run() {
+        reader = Thread.currentThread();
+        try (Stream<R> stream = source.get()) {
+            Iterator<R> rows = stream.iterator();
+            while (!cancelled && rows.hasNext()) {
+                R row = rows.next();
+                if (!put(row == null ? NULL : row)) {
+                    break;
+                }
+            }
+        } catch (Throwable e) {
+            error = e;
+        } finally {
+            done = true;
+            signalConsumer(true);
+            finished.countDown();
+        }
+    }
+
+    /**
+     * Stops the reader and waits until the source stream is closed.
+     *
+     * @throws RuntimeException if reading or closing the source stream failed and the consumer was not signaled yet
+     */
+    public void close() {
+        cancelled = true;
+        if (!started.compareAndSet(false, true)) {
+            LockSupport.unpark(reader);
+            awaitFinished();
+        }
+
+        Throwable failure = error;
+        if (failure != null) {
+            error = null;
+            rethrow(failure);
+        }
+    }
+
+
+    protected void start() {
+        if (started.compareAndSet(false, true)) {
+            try {
+                executor.execute(this);
+            } catch (RuntimeException e) {
+                done = true;
+                finished.countDown();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Takes the next row from the buffer, waiting while the buffer is empty and the reader is not done.
+     *
+     * @return the next (masked) row or {@literal null} if the source is exhausted
+     */
+    protected Object take() {
+        Assert.state(!cancelled, "Stream is closed");
+        start();
+
+        while (true) {
+            Object row = buffer.poll();
+            if (row != null) {
+                signalReader();
+                return row;
+            }
+
+            if (done) {
+                row = buffer.poll();
+                if (row != null) {
+                    return row;
+                }
+                Throwable failure = error;
+                if (failure != null) {
+                    error = null;
+                    rethrow(failure);
+                }
+                return null;
+            }
+
+            consumer = Thread.currentThread();
+            consumerWaiting = true;
+            if (buffer.isEmpty() && !done) {
+                LockSupport.park(this);
+            }
+            consumerWaiting = false;
+        }
+    }
+
+    /**
+     * Puts the row into the buffer, waiting while the buffer is full.
+     *
+     * @return {@literal false} if the spliterator was closed while waiting
+     */
+    protected boolean put(Object row) {
+        while (!buffer.offer(row)) {
+            readerWaiting = true;
+            if (buffer.isFull() && !cancelled) {
+                LockSupport.park(this);
+            }
+            readerWaiting = false;
+            if (cancelled) {
+                return false;
+            }
+        }
+        signalConsumer(false);
+        return true;
+    }
+
+    protected void signalReader() {
+        if (readerWaiting) {
+            LockSupport.unpark(reader);
+        }
+    }
+
+    protected void signalConsumer(boolean always) {
+        Thread waiting = consumer;
+        if (waiting != null && (always || consumerWaiting)) {
+            LockSupport.unpark(waiting);
+        }
+    }
+
+    protected void awaitFinished() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                finished.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private R unmask(Object row) {
+        return row == NULL ? null : (R) row;
+    }
+
+    private static void rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        throw new IllegalStateException("Reading the source stream failed", failure);
+    }
+
+}
@@ -0,0 +1,128 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * K-way merge of sorted iterators into one sorted iterator.
+ *
+ * @param <R> type of rows
+ */
+public class SortedMergeIterator<R> implements Iterator<R> {
+
+    private final PriorityQueue<Head<R>> heads;
+    
+    
+    /**
+     * @param iterators iterators, each sorted by the comparator
+     * @param comparator the order of the rows
+     */
+    public SortedMergeIterator(List<Iterator<R>> iterators, Comparator<? super R> comparator) {
+        this.heads = new PriorityQueue<>(Math.max(1, iterators.size()), (left, right) -> comparator.compare(left.row, right.row));
+        iterators.forEach(this::advance);
+    }
+    
+    /**
+     * Merges the sorted streams into one sorted sequential stream.
+     * Closing the merged stream closes all given streams.
+     * 
+     * @param streams streams, each sorted by the comparator
+     * @param comparator the order of the rows
+     * @return merged stream, never {@literal null}.
+     */
+    public static <R> Stream<R> merge(List<Stream<R>> streams, Comparator<? super R> comparator) {
+        SortedMergeIterator<R> iterator;
+        try {
+            List<Iterator<R>> iterators = new ArrayList<>();
+            streams.forEach(stream -> iterators.add(stream.iterator()));
+            iterator = new SortedMergeIterator<>(iterators, comparator);
+        } catch (RuntimeException e) {
+            closeAll(streams, e);
+            throw e;
+        }
+        
+        Stream<R> merged = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+        for (Stream<R> stream : streams) {
+            merged = merged.onClose(stream::close);
+        }
+        return merged;
+    }
+    
+    /**
+     * Opens the streams of all partitions one after another and merges them into one sorted sequential stream.
+     * If opening a stream or reading the first rows fails, the already opened streams are closed.
+     * Closing the merged stream closes all partition streams.
+     * 
+     * @param partitions suppliers opening the stream of each partition, each sorted by the comparator
+     * @param comparator the order of the rows
+     * @return merged stream, never {@literal null}.
+     */
+    public static <R> Stream<R> stream(List<Supplier<Stream<R>>> partitions, Comparator<? super R> comparator) {
+        List<Stream<R>> streams = new ArrayList<>(partitions.size());
+        try {
+            for (Supplier<Stream<R>> partition : partitions) {
+                streams.add(partition.get());
+            }
+        } catch (RuntimeException e) {
+            closeAll(streams, e);
+            throw e;
+        }
+        return merge(streams, comparator);
+    }
+    
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+    
+    @Override
+    public R next() {
+        Head<R> head = heads.poll();
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        advance(head.iterator);
+        return head.row;
+    }
+    
+    protected void advance(Iterator<R> iterator) {
+        if (iterator.hasNext()) {
+            heads.add(new Head<>(iterator.next(), iterator));
+        }
+    }
+    
+    /**
+     * Closes the given streams after a failure, exceptions on close are added as suppressed to the failure.
+     */
+    protected static <R> void closeAll(List<Stream<R>> streams, RuntimeException failure) {
+        for (Stream<R> stream : streams) {
+            try {
+                stream.close();
+            } catch (RuntimeException e) {
+                failure.addSuppressed(e);
+            }
+        }
+    }
+    
+    private static class Head<R> {
+        
+        private final R row;
+        private final Iterator<R> iterator;
+        
+        private Head(R row, Iterator<R> iterator) {
+            this.row = row;
+            this.iterator = iterator;
+        }
+        
+    }
+
+}
@@ -0,0 +1,90 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for exactly one producer thread and one consumer thread.
+ *
+ * The capacity is rounded up to the next power of two. The producer only writes the tail index
+ * and the consumer only writes the head index, so neither {@link #offer(Object)} nor {@link #poll()}
+ * needs any lock or compare-and-set. Blocking on a full or empty buffer is up to the caller.
+ *
+ * @param <E> type of elements, {@literal null} is not permitted
+ */
+public class SpscRingBuffer<E> {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<E> elements;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+
+    /**
+     * @param capacity minimum capacity, must be greater than zero
+     */
+    public SpscRingBuffer(int capacity) {
+        Assert.isTrue(capacity > 0 && capacity <= MAX_CAPACITY, "Capacity must be greater than zero and at most " + MAX_CAPACITY);
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+
+    /**
+     * Adds the element at the tail, may only be called by the producer thread.
+     *
+     * @param element must not be {@literal null}.
+     * @return {@literal false} if the buffer is full
+     */
+    public boolean offer(E element) {
+        Assert.notNull(element, "Element must not be null");
+        long currentTail = tail.get();
+        if (currentTail - head.get() >= elements.length()) {
+            return false;
+        }
+        elements.lazySet((int) currentTail & mask, element);
+        tail.set(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Removes the element at the head, may only be called by the consumer thread.
+     *
+     * @return the head element or {@literal null} if the buffer is empty
+     */
+    @Nullable
+    public E poll() {
+        long currentHead = head.get();
+        if (currentHead >= tail.get()) {
+            return null;
+        }
+        int index = (int) currentHead & mask;
+        E element = elements.get(index);
+        elements.lazySet(index, null);
+        head.set(currentHead + 1);
+        return element;
+    }
+
+    public boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+
+    public boolean isFull() {
+        return tail.get() - head.get() >= elements.length();
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return elements.length();
+    }
+
+}
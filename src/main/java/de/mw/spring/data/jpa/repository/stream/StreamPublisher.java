@@ -0,0 +1,205 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import org.springframework.util.Assert;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * {@link Flow.Publisher} emitting the rows of a lazily opened stream on demand of the subscriber.
+ * 
+ * Each subscription opens its own stream on the first request of the subscriber on a thread of the executor,
+ * the fetch size of the stream is the number of rows of the first request limited by the maximum fetch size.
+ * Rows are read from the stream only if requested, the stream is closed on completion, on error and on cancellation
+ * before the subscriber is signaled.
+ * The thread of the executor is occupied for the lifetime of the subscription, 
+ * so an executor with virtual threads or a sufficiently sized pool should be used.
+ *
+ * @param <R> type of rows
+ */
+public class StreamPublisher<R> implements Flow.Publisher<R> {
+
+    private final IntFunction<Stream<R>> streamFactory;
+    private final Executor executor;
+    private final Consumer<Runnable> runner;
+    private final int maxFetchSize;
+    
+    
+    /**
+     * @param streamFactory opens the stream with the given fetch size
+     * @param executor runs the subscriptions
+     * @param runner runs a subscription from opening the stream until closing it on the thread of the executor, 
+     *               e.g. within a transaction
+     * @param maxFetchSize maximum fetch size, must be greater than zero
+     */
+    public StreamPublisher(IntFunction<Stream<R>> streamFactory, Executor executor, Consumer<Runnable> runner, int maxFetchSize) {
+        Assert.isTrue(maxFetchSize > 0, "Maximum fetch size must be greater than zero");
+        this.streamFactory = streamFactory;
+        this.executor = executor;
+        this.runner = runner;
+        this.maxFetchSize = maxFetchSize;
+    }
+    
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber must not be null");
+        subscriber.onSubscribe(new StreamSubscription(subscriber));
+    }
+    
+    
+    protected class StreamSubscription implements Flow.Subscription, Runnable {
+        
+        private final Flow.Subscriber<? super R> subscriber;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition demandChanged = lock.newCondition();
+        private final AtomicBoolean started = new AtomicBoolean();
+        
+        private long demand;
+        private boolean cancelled;
+        private IllegalArgumentException invalidRequest;
+        private int fetchSize;
+        
+        
+        protected StreamSubscription(Flow.Subscriber<? super R> subscriber) {
+            this.subscriber = subscriber;
+        }
+        
+        @Override
+        public void request(long n) {
+            lock.lock();
+            try {
+                if (cancelled) {
+                    return;
+                }
+                if (n <= 0) {
+                    invalidRequest = new IllegalArgumentException("Requested number of elements must be greater than zero (rule 3.9), was " + n);
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+                demandChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            
+            if (started.compareAndSet(false, true)) {
+                fetchSize = (int) Math.min(Math.max(n, 1), maxFetchSize);
+                start();
+            }
+        }
+        
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                demandChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        @Override
+        public void run() {
+            Throwable error = null;
+            try {
+                runner.accept(this::drain);
+            } catch (Throwable e) {
+                error = e;
+            }
+            
+            lock.lock();
+            try {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                if (error == null && invalidRequest != null) {
+                    error = invalidRequest;
+                }
+            } finally {
+                lock.unlock();
+            }
+            
+            if (error != null) {
+                subscriber.onError(error);
+            } else {
+                subscriber.onComplete();
+            }
+        }
+        
+        protected void start() {
+            try {
+                executor.execute(this);
+            } catch (RuntimeException e) {
+                cancel();
+                subscriber.onError(e);
+            }
+        }
+        
+        /**
+         * Emits the rows of the stream as requested, until the stream is exhausted, 
+         * the subscription is cancelled or an invalid request was made.
+         */
+        protected void drain() {
+            if (isCancelled()) {
+                return;
+            }
+            try (Stream<R> stream = streamFactory.apply(fetchSize)) {
+                Iterator<R> rows = stream.iterator();
+                while (awaitDemand() && rows.hasNext()) {
+                    R row = rows.next();
+                    subscriber.onNext(row);
+                }
+            }
+        }
+        
+        /**
+         * Waits until there is demand and takes one element of it.
+         * 
+         * @return {@literal false} if the subscription is cancelled or an invalid request was made
+         */
+        protected boolean awaitDemand() {
+            lock.lock();
+            try {
+                while (demand == 0 && !cancelled && invalidRequest == null) {
+                    demandChanged.await();
+                }
+                if (cancelled || invalidRequest != null) {
+                    return false;
+                }
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        /**
+         * @return {@literal true} if the subscription is cancelled or an invalid request was made
+         */
+        protected boolean isCancelled() {
+            lock.lock();
+            try {
+                return cancelled || invalidRequest != null;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+    }
+    
+}
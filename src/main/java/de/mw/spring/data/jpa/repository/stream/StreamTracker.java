@@ -0,0 +1,309 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.lang.ref.Cleaner;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tracks the lifecycle of result streams, which hold a JDBC cursor and connection until they are closed.
+ * 
+ * <ul>
+ * <li>Counts the currently open streams.</li>
+ * <li>Streams which become unreachable without being closed are reported as leaks by a {@link Cleaner}.</li>
+ * <li>If debug logging is enabled, the stack trace of the creation of each stream is recorded and reported with leaks.</li>
+ * <li>Optionally streams which are open longer than a maximum age are reported and marked as expired,
+ *     an expired stream is force-closed by its owner on the next read, which then fails.</li>
+ * </ul>
+ * 
+ * The tracker never closes a stream from its own threads by default, because the session and result set of a stream
+ * are not thread-safe and may be in use by the owner at the same time. The cursor of a leaked stream is released
+ * when its session is closed, e.g. at the end of the transaction.
+ */
+@Slf4j
+public class StreamTracker implements AutoCloseable {
+    
+    private static final Cleaner CLEANER = Cleaner.create();
+    
+    private final Set<TrackedStream> openStreams = ConcurrentHashMap.newKeySet();
+    private final AtomicLong leakedStreams = new AtomicLong();
+    private final AtomicLong expiredStreams = new AtomicLong();
+    private final AtomicLong forceClosedStreams = new AtomicLong();
+    private final Duration maxAge;
+    private final ScheduledExecutorService maxAgeChecker;
+    private volatile boolean closeLeakedStreams;
+    
+    
+    /**
+     * Creates a tracker without a maximum age of streams.
+     */
+    public StreamTracker() {
+        this(null);
+    }
+    
+    /**
+     * @param maxAge maximum age of open streams, older streams are force-closed on their next read; {@literal null} for no maximum age
+     */
+    public StreamTracker(@Nullable Duration maxAge) {
+        Assert.isTrue(maxAge == null || (!maxAge.isNegative() && !maxAge.isZero()), "Maximum age must be positive");
+        this.maxAge = maxAge;
+        this.maxAgeChecker = maxAge == null ? null : createMaxAgeChecker(maxAge);
+    }
+    
+    
+    /**
+     * Configures whether leaked streams are closed by the cleaner thread, disabled by default.
+     * 
+     * Enabling this releases the cursors of leaked streams before their sessions are closed, but closes the result set 
+     * on the cleaner thread, which races with the owning thread if it still uses the (not thread-safe) session,
+     * e.g. for other queries of the same transaction. It should only be enabled if leaked streams are not expected 
+     * to share their session with other work, e.g. for streams on their own connection.
+     * 
+     * @param closeLeakedStreams whether to close leaked streams
+     */
+    public void setCloseLeakedStreams(boolean closeLeakedStreams) {
+        this.closeLeakedStreams = closeLeakedStreams;
+    }
+    
+    /**
+     * Tracks the given stream, closing the returned stream closes the given stream.
+     * 
+     * @param stream the stream to track
+     * @param domainClass entity class of the stream query, for reporting
+     * @return the tracked stream, never {@literal null}.
+     */
+    public <T> Stream<T> track(Stream<T> stream, Class<?> domainClass) {
+        TrackedStream trackedStream = new TrackedStream(stream, domainClass, log.isDebugEnabled() ? new StreamCreation() : null);
+        
+        // the tracked stream must not be referenced by the cleaning action, so it is a new stream on the spliterator of the source
+        Spliterator<T> spliterator = maxAge == null ? stream.spliterator() : new ExpiringSpliterator<>(stream.spliterator(), trackedStream);
+        Stream<T> tracked = StreamSupport.stream(spliterator, stream.isParallel())
+                                         .onClose(trackedStream::close);
+        
+        openStreams.add(trackedStream);
+        trackedStream.cleanable = CLEANER.register(tracked, trackedStream::leaked);
+        return tracked;
+    }
+    
+    /**
+     * @return number of currently open tracked streams
+     */
+    public int getOpenStreamCount() {
+        return openStreams.size();
+    }
+    
+    /**
+     * @return number of streams which became unreachable without being closed by the owner
+     */
+    public long getLeakedStreamCount() {
+        return leakedStreams.get();
+    }
+    
+    /**
+     * @return number of streams marked as expired because they exceeded the maximum age
+     */
+    public long getExpiredStreamCount() {
+        return expiredStreams.get();
+    }
+    
+    /**
+     * @return number of expired streams force-closed on the next read of their owner
+     */
+    public long getForceClosedStreamCount() {
+        return forceClosedStreams.get();
+    }
+    
+    /**
+     * Marks all open streams older than the maximum age as expired, called periodically if a maximum age is configured.
+     * The streams are not closed by this call, but by their owner on the next read.
+     */
+    public void checkExpiredStreams() {
+        if (maxAge == null) {
+            return;
+        }
+        
+        long now = System.nanoTime();
+        for (TrackedStream trackedStream : openStreams) {
+            if (now - trackedStream.createdNanos > maxAge.toNanos() && trackedStream.expire()) {
+                expiredStreams.incrementAndGet();
+                log.warn("Stream of {} open longer than {} expired, it is closed on the next read", trackedStream.domainClass.getName(), maxAge, trackedStream.creation);
+            }
+        }
+    }
+    
+    /**
+     * Stops the periodic maximum age check, open streams are not closed.
+     */
+    @Override
+    public void close() {
+        if (maxAgeChecker != null) {
+            maxAgeChecker.shutdownNow();
+        }
+    }
+    
+    
+    protected ScheduledExecutorService createMaxAgeChecker(Duration maxAge) {
+        ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stream-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(maxAge.toMillis() / 2, 100);
+        checker.scheduleAtFixedRate(this::checkExpiredStreams, period, period, TimeUnit.MILLISECONDS);
+        return checker;
+    }
+    
+    
+    /**
+     * Tracking state of a stream, must not reference the tracked stream
+     */
+    private class TrackedStream {
+        
+        private final Stream<?> source;
+        private final Class<?> domainClass;
+        private final StreamCreation creation;
+        private final long createdNanos = System.nanoTime();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean expired = new AtomicBoolean();
+        private volatile Cleaner.Cleanable cleanable;
+        
+        TrackedStream(Stream<?> source, Class<?> domainClass, @Nullable StreamCreation creation) {
+            this.source = source;
+            this.domainClass = domainClass;
+            this.creation = creation;
+        }
+        
+        void close() {
+            closeSource();
+            // deregisters from the cleaner, leaked() is a no-op now
+            if (cleanable != null) {
+                cleanable.clean();
+            }
+        }
+        
+        void leaked() {
+            if (closed.get()) {
+                return;
+            }
+            
+            leakedStreams.incrementAndGet();
+            log.warn("Leaked stream of {}, streams must be closed e.g. by try-with-resources{}", domainClass.getName(), 
+                     creation == null ? " (enable debug logging for the creation stack trace)" : "", creation);
+            if (closeLeakedStreams) {
+                closeSource();
+            } else {
+                openStreams.remove(this);
+            }
+        }
+        
+        /**
+         * @return {@literal true} if the stream was marked as expired by this call
+         */
+        boolean expire() {
+            return !closed.get() && expired.compareAndSet(false, true);
+        }
+        
+        /**
+         * Force-closes the stream on the owning thread if it is expired.
+         */
+        void checkExpired() {
+            if (!expired.get()) {
+                return;
+            }
+            
+            if (closeSource()) {
+                forceClosedStreams.incrementAndGet();
+            }
+            throw new IllegalStateException("Stream of " + domainClass.getName() + " was force-closed, because it was open longer than " + maxAge);
+        }
+        
+        /**
+         * @return {@literal true} if the stream was closed by this call
+         */
+        boolean closeSource() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            
+            try {
+                source.close();
+            } finally {
+                openStreams.remove(this);
+            }
+            return true;
+        }
+        
+    }
+    
+    /**
+     * Spliterator of a tracked stream with maximum age, checking the expiration before each read
+     */
+    private static class ExpiringSpliterator<T> implements Spliterator<T> {
+        
+        private final Spliterator<T> delegate;
+        private final TrackedStream trackedStream;
+        
+        ExpiringSpliterator(Spliterator<T> delegate, TrackedStream trackedStream) {
+            this.delegate = delegate;
+            this.trackedStream = trackedStream;
+        }
+        
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            trackedStream.checkExpired();
+            return delegate.tryAdvance(action);
+        }
+        
+        @Override
+        public Spliterator<T> trySplit() {
+            trackedStream.checkExpired();
+            Spliterator<T> prefix = delegate.trySplit();
+            return prefix == null ? null : new ExpiringSpliterator<>(prefix, trackedStream);
+        }
+        
+        @Override
+        public long estimateSize() {
+            return delegate.estimateSize();
+        }
+        
+        @Override
+        public int characteristics() {
+            return delegate.characteristics();
+        }
+        
+        @Override
+        public Comparator<? super T> getComparator() {
+            return delegate.getComparator();
+        }
+        
+    }
+    
+    /**
+     * Stack trace of the creation of a stream
+     */
+    private static class StreamCreation extends Throwable {
+        
+        private static final long serialVersionUID = 1L;
+        
+        StreamCreation() {
+            super("Stream created here");
+        }
+        
+    }
+    
+}
@@ -0,0 +1,56 @@
+package de.mw.spring.data.jpa.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+
+class AsyncQueryExecutorTest {
+
+    @Test
+    void submit_runsQueryOnExecutor() throws Exception {
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var testee = new AsyncQueryExecutor(executor, null);
+            
+            var result = testee.submit(() -> Thread.currentThread()).get();
+            
+            assertThat(result).isNotSameAs(Thread.currentThread());
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    void submit_runsQueryInNewReadOnlyTransaction() throws Exception {
+        var transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        var testee = new AsyncQueryExecutor(Runnable::run, transactionManager);
+        
+        var result = testee.submit(() -> "result").get();
+        
+        assertThat(result).isEqualTo("result");
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly() 
+                && definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager).commit(any());
+    }
+    
+    @Test
+    void submit_completesExceptionally() {
+        var testee = new AsyncQueryExecutor(Runnable::run, null);
+        
+        var result = testee.submit(() -> { throw new IllegalStateException("failed"); });
+        
+        assertThatThrownBy(result::join).isInstanceOf(CompletionException.class)
+                                        .hasCauseInstanceOf(IllegalStateException.class);
+    }
+    
+}
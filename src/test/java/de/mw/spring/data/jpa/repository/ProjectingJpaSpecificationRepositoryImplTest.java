@@ -7,6 +7,8 @@ import static org.mockito.Mockito.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
@@ -14,13 +16,18 @@ import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.NoResultException;
 import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.Expression;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import de.mw.spring.data.jpa.repository.projection.AggregateProjection;
+import de.mw.spring.data.jpa.repository.query.WindowCount;
+
 @SuppressWarnings({"unchecked","rawtypes"})
 class ProjectingJpaSpecificationRepositoryImplTest extends AbstractRepositoryQueryTest {
     
@@ -45,6 +52,10 @@ class ProjectingJpaSpecificationRepositoryImplTest extends AbstractRepositoryQue
         @Id
         Long id;
         
+        String name;
+        
+        Long amount;
+        
     }
     
     @Override
@@ -128,6 +139,89 @@ class ProjectingJpaSpecificationRepositoryImplTest extends AbstractRepositoryQue
         verify(query).setHint("foo", "bar");
     }
 
+    @Test
+    void findSlice_fetchesOneMoreResult_returnsSliceWithNext_withoutCountQuery() {
+        doReturn(query).when(testee).createProjectionQuery(any(), any(), any(), any());
+        when(query.getResultList()).thenReturn(List.of(1L, 2L, 3L));
+        
+        var result = testee.findSlice(testSpecification, PageRequest.of(1, 2, testSort), Long.class, projection);
+        
+        assertThat(result.getContent()).containsExactly(1L, 2L);
+        assertThat(result.hasNext()).isTrue();
+        verify(query).setFirstResult(2);
+        verify(query).setMaxResults(3);
+        verify(testee, never()).getCountQuery(any());
+    }
+    
+    @Test
+    void findSlice_returnsLastSlice_onShortResult() {
+        doReturn(query).when(testee).createProjectionQuery(any(), any(), any(), any());
+        when(query.getResultList()).thenReturn(List.of(1L));
+        
+        var result = testee.findSlice(testSpecification, PageRequest.of(0, 2, testSort), Long.class, projection);
+        
+        assertThat(result.getContent()).containsExactly(1L);
+        assertThat(result.hasNext()).isFalse();
+    }
+    
+    @Test
+    void findAll_withWindowCountPaging_readsTotalCountFromContentRows_withoutCountQuery() {
+        testee.setWindowCountPaging(true);
+        doReturn(true).when(testee).isWindowCountSupported();
+        doReturn(query).when(testee).createProjectionQuery(any(), any(), any(), any());
+        Tuple row = mock(Tuple.class);
+        TupleElement totalCount = mock(TupleElement.class);
+        when(totalCount.getAlias()).thenReturn(WindowCount.TOTAL_COUNT_ALIAS);
+        when(row.getElements()).thenReturn(List.of(mock(TupleElement.class), totalCount));
+        when(row.toArray()).thenReturn(new Object[] {"content", 42L});
+        when(query.getResultList()).thenReturn(List.of(row, row));
+        
+        Page<Tuple> result = testee.findAll(testSpecification, PageRequest.of(1, 2, testSort), Tuple.class, projection);
+        
+        assertThat(result.getTotalElements()).isEqualTo(42L);
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.getContent().get(0).getElements()).hasSize(1);
+        verify(testee, never()).getCountQuery(any());
+    }
+    
+    @Test
+    void findAll_withAggregateProjection_countsGroups_insteadOfEntities() {
+        var aggregate = AggregateProjection.<TestEntity>groupBy("name").count("count");
+        doReturn(query).when(testee).createProjectionQuery(any(), any(), any(), any());
+        doReturn(5L).when(testee).countGroups(any(), any());
+        when(query.getResultList()).thenReturn(List.of(1L, 2L));
+        
+        var result = testee.findAll(testSpecification, PageRequest.of(0, 2, testSort), Long.class, (Projection) aggregate);
+        
+        assertThat(result.getTotalElements()).isEqualTo(5L);
+        verify(testee).countGroups(testSpecification, aggregate);
+        verify(testee, never()).getCountQuery(any());
+    }
+    
+    @Test
+    void countGroups_countsRowsOfGroupedCountQuery() {
+        var aggregate = AggregateProjection.<TestEntity>groupBy("name").count("count");
+        when(query.getResultList()).thenReturn(List.of(3L, 1L, 7L));
+        
+        var result = testee.countGroups(testSpecification, aggregate);
+        
+        assertThat(result).isEqualTo(3L);
+        assertThat(getQueryString("test")).containsSubsequence("select count(test) from", "where test.id=42L", "group by test.name");
+    }
+    
+    @Test
+    void createProjectionQuery_withAggregateProjection_groupsAndFiltersGroups() throws Exception {
+        var aggregate = AggregateProjection.<TestEntity>groupBy("name")
+                                           .count("count")
+                                           .sum("amount", "total")
+                                           .having((root, aggregates, builder) -> builder.gt((Expression<Long>) aggregates.get("count"), 1L));
+        
+        testee.createProjectionQuery(testSpecification, Sort.by("name"), Tuple.class, aggregate);
+        
+        assertThat(getQueryString("test")).containsSubsequence("select test.name, count(test), sum(test.amount) from", "where test.id=42L", 
+                                                               "group by test.name", "having count(test)>1", "order by test.name");
+    }
+    
     @Test
     void createProjectionQuery_createsCorrectQueryWithProjection() throws Exception {
         Projection testProjection = (root, query, builder) -> List.of(root.get("id"));
@@ -138,5 +232,24 @@ class ProjectingJpaSpecificationRepositoryImplTest extends AbstractRepositoryQue
         assertThat(getCiteriaQuery().getResultType()).isEqualTo(Tuple.class);
         assertThat(getQueryString("test")).containsSubsequence("select test.id from", "where test.id=42L", "order by test.id");
     }
+    
+    @Test
+    void createProjectionQuery_selectsConstructorExpression_withoutWrappingIt() throws Exception {
+        Projection testProjection = (root, query, builder) -> List.of(builder.construct(TestDto.class, root.get("id")));
+        
+        var result = testee.createProjectionQuery(testSpecification, testSort, TestDto.class, testProjection);
+        
+        assertThat(result).isEqualTo(query);
+        assertThat(getCiteriaQuery().getResultType()).isEqualTo(TestDto.class);
+        assertThat(getCiteriaQuery().getSelection().getCompoundSelectionItems()).hasSize(1);
+        assertThat(getQueryString("test")).containsSubsequence("select new " + TestDto.class.getName() + "(test.id) from", "where test.id=42L", "order by test.id");
+    }
+    
+    public static class TestDto {
+        
+        public TestDto(Long id) {
+        }
+        
+    }
 
 }
@@ -0,0 +1,86 @@
+package de.mw.spring.data.jpa.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.Id;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Component tests of the streams which can not be verified by the rendered criteria query,
+ * executed against the in-memory database.
+ */
+@DataJpaTest
+class StreamingJpaSpecificationRepositoryImplDatabaseTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private StreamingJpaSpecificationRepositoryImpl<TestEntity,Long> testee;
+
+    @Entity
+    static class TestEntity {
+
+        @Id
+        Long id;
+
+        String name;
+
+    }
+
+    @BeforeEach
+    void setup() {
+        testee = new StreamingJpaSpecificationRepositoryImpl<>(TestEntity.class, entityManager);
+        entityManager.persist(entity(1L, "a"));
+        entityManager.persist(entity(2L, "b"));
+        entityManager.persist(entity(3L, "b"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findAllStatelessStream_bindsLiteralsOfSpecification_returnsUnmanagedEntities() {
+        Specification<TestEntity> spec = (root, query, builder) -> builder.equal(root.get("name"), "b");
+
+        try (var stream = testee.findAllStatelessStream(spec, Sort.by(Sort.Direction.DESC, "id"), Map.of())) {
+            var result = stream.collect(Collectors.toList());
+
+            assertThat(result).extracting(entity -> entity.id).containsExactly(3L, 2L);
+            assertThat(result).noneMatch(entityManager::contains);
+        }
+    }
+
+    @Test
+    void findAllStatelessStream_withoutSpecification_returnsAllEntities() {
+        try (var stream = testee.findAllStatelessStream(null, Sort.by("id"), Map.of())) {
+            assertThat(stream.map(entity -> entity.name)).containsExactly("a", "b", "b");
+        }
+    }
+
+    @Test
+    void findAllStatelessStream_withoutTransaction_failsFast() {
+        TestTransaction.end();
+
+        assertThatThrownBy(() -> testee.findAllStatelessStream(null, Sort.by("id"), Map.of())).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static TestEntity entity(Long id, String name) {
+        var entity = new TestEntity();
+        entity.id = id;
+        entity.name = name;
+        return entity;
+    }
+
+}
@@ -0,0 +1,115 @@
+package de.mw.spring.data.jpa.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.Id;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscribes publishers without a surrounding transaction against the in-memory database,
+ * so the test data is committed and the subscriptions run in their own transactions.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StreamingJpaSpecificationRepositoryImplPublisherTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StreamingJpaSpecificationRepositoryImpl<TestEntity,Long> testee;
+
+    @Entity
+    static class TestEntity {
+
+        @Id
+        Long id;
+
+    }
+
+    @BeforeEach
+    void setup() {
+        testee = new StreamingJpaSpecificationRepositoryImpl<>(TestEntity.class, entityManager);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (long id = 1; id <= 3; id++) {
+                var entity = new TestEntity();
+                entity.id = id;
+                entityManager.persist(entity);
+            }
+        });
+    }
+
+    @AfterEach
+    void cleanup() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager.createQuery("delete from " + TestEntity.class.getName()).executeUpdate());
+    }
+
+    @Test
+    void findAllPublisher_withoutTransactionManager_failsFast() {
+        assertThatThrownBy(() -> testee.findAllPublisher(null, Sort.by("id"), Map.of())).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void findAllPublisher_withTransactionManager_streamsEntitiesInTransactionOfSubscription() throws Exception {
+        testee.setAsyncQueryExecutor(new AsyncQueryExecutor(AsyncQueryExecutor.getDefaultExecutor(), transactionManager));
+        var subscriber = new TestSubscriber();
+
+        testee.findAllPublisher(null, Sort.by("id"), Map.of()).subscribe(subscriber);
+
+        assertThat(subscriber.terminated.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.errors).isEmpty();
+        assertThat(subscriber.rows).extracting(entity -> entity.id).containsExactly(1L, 2L, 3L);
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<TestEntity> {
+
+        private final List<TestEntity> rows = new CopyOnWriteArrayList<>();
+        private final List<Throwable> errors = new CopyOnWriteArrayList<>();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(TestEntity row) {
+            rows.add(row);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            errors.add(throwable);
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            terminated.countDown();
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package de.mw.spring.data.jpa.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -10,13 +11,18 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.Id;
+import javax.persistence.ManyToOne;
 import javax.persistence.TypedQuery;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import de.mw.spring.data.jpa.repository.StreamingJpaSpecificationRepositoryImplTest.TestEntity;
+import de.mw.spring.data.jpa.repository.fetch.AdaptiveFetchSizeController;
 
 class StreamingJpaSpecificationRepositoryImplTest extends AbstractRepositoryQueryTest<TestEntity> {
     
@@ -38,6 +44,9 @@ class StreamingJpaSpecificationRepositoryImplTest extends AbstractRepositoryQuer
         @Id
         Long id;
         
+        @ManyToOne(fetch = FetchType.LAZY)
+        TestEntity parent;
+        
     }
     
     @Override
@@ -63,4 +72,72 @@ class StreamingJpaSpecificationRepositoryImplTest extends AbstractRepositoryQuer
         verify(query).setHint("foo", "bar");
     }
 
+    @Test
+    void findAllKeysetStream_queriesChunksAfterLastSeenKey_untilChunkIsIncomplete() throws Exception {
+        var first  = new TestEntity(); first.id  = 1L;
+        var second = new TestEntity(); second.id = 2L;
+        var third  = new TestEntity(); third.id  = 3L;
+        when(query.getResultList()).thenReturn(List.of(first, second), List.of(third));
+        
+        var result = testee.findAllKeysetStream(testSpecification, Sort.unsorted(), 2).collect(Collectors.toList());
+        
+        assertThat(result).containsExactly(first, second, third);
+        assertThat(getQueryString(0, "test")).containsSubsequence("where test.id=42L", "order by test.id asc");
+        assertThat(getQueryString(1, "test")).containsSubsequence("where ( test.id>2L ) and ( test.id=42L )", "order by test.id asc");
+        verify(query, times(2)).setMaxResults(2);
+        verify(query, times(2)).getResultList();
+    }
+
+    @Test
+    void findAllKeysetStream_withFetchSizeController_queriesChunksOfChosenFetchSize() throws Exception {
+        var first  = new TestEntity(); first.id  = 1L;
+        var second = new TestEntity(); second.id = 2L;
+        var third  = new TestEntity(); third.id  = 3L;
+        when(query.getResultList()).thenReturn(List.of(first), List.of(second, third), List.of());
+        var fetchSizeController = new AdaptiveFetchSizeController(1, 4, 1024 * 1024);
+        
+        var result = testee.findAllKeysetStream(testSpecification, Sort.unsorted(), Map.of(), fetchSizeController).collect(Collectors.toList());
+        
+        assertThat(result).containsExactly(first, second, third);
+        verify(query).setMaxResults(1);
+        verify(query).setHint(org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, "1");
+        verify(query).setMaxResults(2);
+        verify(query).setHint(org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, "2");
+        verify(query).setMaxResults(4);
+        assertThat(fetchSizeController.getStatistics().getChunks()).isEqualTo(3);
+        assertThat(fetchSizeController.getStatistics().getRows()).isEqualTo(3);
+    }
+
+    @Test
+    void findAllStream_withDetachEviction_detachesStreamedEntitiesEveryInterval() throws Exception {
+        var first  = new TestEntity();
+        var second = new TestEntity();
+        var third  = new TestEntity();
+        when(query.getResultStream()).thenReturn(Stream.of(first, second, third));
+        doNothing().when(entityManagerSpy).detach(any());
+        
+        var result = testee.findAllStream(testSpecification, testSort, Map.of(), PersistenceContextEviction.detachEvery(2)).collect(Collectors.toList());
+        
+        assertThat(result).containsExactly(first, second, third);
+        verify(entityManagerSpy).detach(first);
+        verify(entityManagerSpy).detach(second);
+        verify(entityManagerSpy, never()).detach(third);
+        verify(entityManagerSpy, never()).clear();
+    }
+
+    @Test
+    void findAllStream_withBatchInitialization_loadsUninitializedReferencesOfChunkByInQuery() throws Exception {
+        var first  = new TestEntity(); first.id  = 1L; first.parent  = entityManager.getReference(TestEntity.class, 10L);
+        var second = new TestEntity(); second.id = 2L; second.parent = entityManager.getReference(TestEntity.class, 11L);
+        when(query.getResultStream()).thenReturn(Stream.of(first, second));
+        when(query.getResultList()).thenReturn(List.of());
+        
+        var result = testee.findAllStream(testSpecification, testSort, Map.of(), BatchInitialization.of(10, "parent"), null)
+                           .collect(Collectors.toList());
+        
+        assertThat(result).containsExactly(first, second);
+        assertThat(getQueryString(1, "test")).containsSubsequence("where test.id in (", "10L", "11L");
+        verify(query).getResultList();
+    }
+
 }
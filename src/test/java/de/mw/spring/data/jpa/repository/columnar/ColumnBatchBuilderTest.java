@@ -0,0 +1,93 @@
+package de.mw.spring.data.jpa.repository.columnar;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class ColumnBatchBuilderTest {
+    
+    private ColumnBatchBuilder testee = new ColumnBatchBuilder(List.of("id", "amount", "price", "name"), 
+                                                               List.of(long.class, Integer.class, Double.class, String.class), 2);
+
+    @Test
+    void build_fillsTypedColumns_growingBeyondInitialCapacity() {
+        var result = testee.build(Stream.of(new Object[] {1L, 10, 1.5, "a"},
+                                            new Object[] {2L, 20, 2.5, "b"},
+                                            new Object[] {3L, 30, 3.5, "a"}));
+        
+        assertThat(result.getRowCount()).isEqualTo(3);
+        assertThat(result.getLongColumn("id").getLong(2)).isEqualTo(3L);
+        assertThat(result.getIntColumn("amount").getInt(1)).isEqualTo(20);
+        assertThat(result.getDoubleColumn("price").getDouble(0)).isEqualTo(1.5);
+        assertThat(result.getStringColumn("name").getString(2)).isEqualTo("a");
+    }
+    
+    @Test
+    void build_dictionaryEncodesStrings() {
+        var result = testee.build(Stream.of(new Object[] {1L, 10, 1.5, "a"},
+                                            new Object[] {2L, 20, 2.5, "b"},
+                                            new Object[] {3L, 30, 3.5, "a"}));
+        
+        var column = result.getStringColumn("name");
+        assertThat(column.getDictionary()).containsExactly("a", "b");
+        assertThat(column.getCode(0)).isEqualTo(column.getCode(2)).isZero();
+        assertThat(column.getCode(1)).isEqualTo(1);
+    }
+    
+    @Test
+    void build_marksNullsInBitmap() {
+        var result = testee.build(Stream.of(new Object[] {1L, null, 1.5, null},
+                                            new Object[] {2L, 20, null, "b"}));
+        
+        assertThat(result.getIntColumn("amount").isNull(0)).isTrue();
+        assertThat(result.getIntColumn("amount").isNull(1)).isFalse();
+        assertThat(result.getDoubleColumn("price").isNull(1)).isTrue();
+        assertThat(result.getStringColumn("name").getString(0)).isNull();
+        assertThat(result.getStringColumn("name").getCode(0)).isEqualTo(-1);
+        assertThat(result.getLongColumn("id").hasNulls()).isFalse();
+    }
+    
+    @Test
+    void build_acceptsPlainValues_forSingleColumn() {
+        var singleColumn = new ColumnBatchBuilder(List.of("id"), List.of(Long.class), 16);
+        
+        var result = singleColumn.build(Stream.of(1L, 2L));
+        
+        assertThat(result.getRowCount()).isEqualTo(2);
+        assertThat(result.getLongColumn("id").getLong(1)).isEqualTo(2L);
+    }
+    
+    @Test
+    void chunks_buildsBatchesOfChunkSize_andClosesSource() {
+        var closed = new AtomicBoolean();
+        var rows = Stream.of(1L, 2L, 3L, 4L, 5L).map(i -> new Object[] {i, i.intValue(), i.doubleValue(), "n" + i}).onClose(() -> closed.set(true));
+        
+        List<ColumnBatch> result;
+        try (var batches = testee.chunks(rows, 2)) {
+            result = batches.collect(Collectors.toList());
+        }
+        
+        assertThat(result).extracting(ColumnBatch::getRowCount).containsExactly(2, 2, 1);
+        assertThat(result.get(2).getLongColumn("id").getLong(0)).isEqualTo(5L);
+        assertThat(closed).isTrue();
+    }
+    
+    @Test
+    void getColumn_failsOnWrongColumnType() {
+        var result = testee.build(Stream.of());
+        
+        assertThatThrownBy(() -> result.getLongColumn("name")).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void columnOf_failsOnUnsupportedType() {
+        assertThatThrownBy(() -> Column.of("date", java.util.Date.class, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+}
@@ -0,0 +1,125 @@
+package de.mw.spring.data.jpa.repository.count;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.mw.spring.data.jpa.repository.CacheableSpecification;
+
+class CachingCountStrategyTest {
+    
+    private final AtomicLong counts = new AtomicLong();
+    
+    private final CountStrategy delegate = (domainClass, spec, countQuery) -> counts.incrementAndGet();
+    
+    private MutableClock clock = new MutableClock();
+    
+    private CachingCountStrategy testee = new CachingCountStrategy(delegate, Duration.ofMinutes(1), 2, clock);
+    
+    @Test
+    void count_cachesCountPerFingerprintAndParameters() {
+        var first = testee.count(Object.class, new TestSpecification("a", Map.of("p", 1)), null);
+        var second = testee.count(Object.class, new TestSpecification("a", Map.of("p", 1)), null);
+        var otherParameters = testee.count(Object.class, new TestSpecification("a", Map.of("p", 2)), null);
+        
+        assertThat(first).isEqualTo(1L);
+        assertThat(second).isEqualTo(1L);
+        assertThat(otherParameters).isEqualTo(2L);
+    }
+    
+    @Test
+    void count_recountsAfterTimeToLive() {
+        testee.count(Object.class, new TestSpecification("a", Map.of()), null);
+        clock.now = clock.now.plusSeconds(61);
+        
+        var result = testee.count(Object.class, new TestSpecification("a", Map.of()), null);
+        
+        assertThat(result).isEqualTo(2L);
+    }
+    
+    @Test
+    void count_evictsLeastRecentlyUsed() {
+        testee.count(Object.class, new TestSpecification("a", Map.of()), null);
+        testee.count(Object.class, new TestSpecification("b", Map.of()), null);
+        testee.count(Object.class, new TestSpecification("a", Map.of()), null);
+        testee.count(Object.class, new TestSpecification("c", Map.of()), null);
+        
+        assertThat(testee.size()).isEqualTo(2);
+        assertThat(testee.count(Object.class, new TestSpecification("a", Map.of()), null)).isEqualTo(1L);
+        assertThat(testee.count(Object.class, new TestSpecification("b", Map.of()), null)).isEqualTo(4L);
+    }
+    
+    @Test
+    void count_doesNotCacheOtherSpecifications() {
+        Specification<Object> spec = (root, query, cb) -> null;
+        
+        testee.count(Object.class, spec, null);
+        testee.count(Object.class, spec, null);
+        
+        assertThat(counts).hasValue(2L);
+        assertThat(testee.size()).isZero();
+    }
+    
+    
+    static class TestSpecification implements CacheableSpecification<Object> {
+        
+        private final Object fingerprint;
+        private final Map<String, Object> parameters;
+        
+        TestSpecification(Object fingerprint, Map<String, Object> parameters) {
+            this.fingerprint = fingerprint;
+            this.parameters = parameters;
+        }
+        
+        @Override
+        public Predicate toPredicate(Root<Object> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+            return null;
+        }
+        
+        @Override
+        public Object getFingerprint() {
+            return fingerprint;
+        }
+        
+        @Override
+        public Map<String, Object> getParameters() {
+            return parameters;
+        }
+        
+    }
+    
+    static class MutableClock extends Clock {
+        
+        Instant now = Instant.parse("2020-01-01T00:00:00Z");
+        
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+        
+        @Override
+        public Instant instant() {
+            return now;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,48 @@
+package de.mw.spring.data.jpa.repository.count;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+class EstimatedCountStrategyTest {
+
+    private EstimatedCountStrategy testee = new EstimatedCountStrategy(mock(EntityManager.class), new ExactCountStrategy(), 1000);
+    
+    @Test
+    void parsePlanRows_readsRowsBelowCountAggregate() {
+        var result = testee.parsePlanRows(List.of(
+                "Aggregate  (cost=1943.00..1943.01 rows=1 width=8)",
+                "  ->  Seq Scan on person p  (cost=0.00..1818.00 rows=50000 width=8)",
+                "        Filter: ((name)::text = 'x'::text)"));
+        
+        assertThat(result).isEqualTo(OptionalLong.of(50000));
+    }
+    
+    @Test
+    void parsePlanRows_multipliesParallelRowsByWorkersAndLeader() {
+        var result = testee.parsePlanRows(List.of(
+                "Finalize Aggregate  (cost=10000.00..10000.01 rows=1 width=8)",
+                "  ->  Gather  (cost=9999.00..10000.00 rows=2 width=8)",
+                "        Workers Planned: 2",
+                "        ->  Partial Aggregate  (cost=8999.00..8999.01 rows=1 width=8)",
+                "              ->  Parallel Seq Scan on person p  (cost=0.00..8000.00 rows=400000 width=8)"));
+        
+        assertThat(result).isEqualTo(OptionalLong.of(1200000));
+    }
+    
+    @Test
+    void parsePlanRows_doesNotEstimateGroupedCounts() {
+        var result = testee.parsePlanRows(List.of(
+                "HashAggregate  (cost=2068.00..2070.00 rows=200 width=16)",
+                "  ->  Seq Scan on person p  (cost=0.00..1818.00 rows=50000 width=8)"));
+        
+        assertThat(result).isEmpty();
+    }
+    
+}
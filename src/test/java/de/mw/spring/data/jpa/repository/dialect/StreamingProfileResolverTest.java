@@ -0,0 +1,65 @@
+package de.mw.spring.data.jpa.repository.dialect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MariaDB103Dialect;
+import org.hibernate.dialect.Oracle12cDialect;
+import org.hibernate.dialect.PostgreSQL10Dialect;
+import org.hibernate.jpa.QueryHints;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+class StreamingProfileResolverTest {
+
+    private final StreamingProfileResolver testee = new StreamingProfileResolver();
+    
+    
+    @Test
+    void resolve_mysqlFamily_overridesFetchSizeWithStreamingFetchSize() {
+        var profile = testee.resolve(new MariaDB103Dialect());
+        
+        assertThat(profile.getName()).isEqualTo("MySQL");
+        assertThat(profile.apply(Map.of(QueryHints.HINT_FETCH_SIZE, "500", "foo", "bar")))
+            .containsEntry(QueryHints.HINT_FETCH_SIZE, String.valueOf(Integer.MIN_VALUE))
+            .containsEntry(QueryHints.HINT_READONLY, "true")
+            .containsEntry("foo", "bar");
+    }
+    
+    @Test
+    void resolve_postgresql_requiresTransaction_keepsFetchSizeOfCaller() {
+        var profile = testee.resolve(new PostgreSQL10Dialect());
+        
+        assertThat(profile.isTransactionRequired()).isTrue();
+        assertThat(profile.apply(Map.of(QueryHints.HINT_FETCH_SIZE, "500"))).containsEntry(QueryHints.HINT_FETCH_SIZE, "500");
+        assertThat(profile.apply(Map.of())).containsEntry(QueryHints.HINT_FETCH_SIZE, String.valueOf(StreamingProfile.DEFAULT_FETCH_SIZE));
+    }
+    
+    @Test
+    void resolve_oracle_appliesDefaultFetchSize() {
+        var profile = testee.resolve(new Oracle12cDialect());
+        
+        assertThat(profile.getName()).isEqualTo("Oracle");
+        assertThat(profile.isStreamingGuaranteed()).isTrue();
+        assertThat(profile.apply(Map.of())).containsEntry(QueryHints.HINT_FETCH_SIZE, String.valueOf(StreamingProfile.DEFAULT_FETCH_SIZE));
+    }
+    
+    @Test
+    void resolve_unknownDialect_returnsGenericProfileWithoutGuarantee() {
+        var profile = testee.resolve(new H2Dialect());
+        
+        assertThat(profile.getName()).isEqualTo("generic");
+        assertThat(profile.isStreamingGuaranteed()).isFalse();
+    }
+    
+    @Test
+    void register_overridesProfileOfDialect() {
+        var custom = new StreamingProfile("H2", Map.of(), Map.of(), false, true);
+        
+        var profile = testee.register(H2Dialect.class, custom).resolve(new H2Dialect());
+        
+        assertThat(profile).isSameAs(custom);
+    }
+    
+}
@@ -0,0 +1,110 @@
+package de.mw.spring.data.jpa.repository.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+@SuppressWarnings("unchecked")
+class TupleExporterTest {
+    
+    private List<TupleElement<?>> elements = List.of(element("id"), element("name"), element(null));
+
+    @Test
+    void csv_writesHeaderAndRows_quotingTextAndSkippingNulls() throws Exception {
+        var out = new ByteArrayOutputStream();
+        
+        var rows = TupleExporter.csv().export(Stream.of(tuple(1L, "plain", null), tuple(-2, "a,\"b\"", true)), out);
+        
+        assertThat(rows).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id,name,column3\n" +
+                                                                   "1,plain,\n" +
+                                                                   "-2,\"a,\"\"b\"\"\",true\n");
+    }
+    
+    @Test
+    void csv_writesNothing_onEmptyResult() throws Exception {
+        var out = new ByteArrayOutputStream();
+        
+        var rows = TupleExporter.csv().export(Stream.of(), out);
+        
+        assertThat(rows).isZero();
+        assertThat(out.size()).isZero();
+    }
+    
+    @Test
+    void ndjson_writesObjectPerRow_escapingStringsAndLiterals() throws Exception {
+        var out = new ByteArrayOutputStream();
+        
+        TupleExporter.ndjson().export(Stream.of(tuple(1L, "x\n\"\\\u0001", Double.NaN), tuple(2L, null, LocalDate.of(2020, 2, 29))), out);
+        
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("{\"id\":1,\"name\":\"x\\n\\\"\\\\\\u0001\",\"column3\":null}\n" +
+                                                                   "{\"id\":2,\"name\":null,\"column3\":\"2020-02-29\"}\n");
+    }
+    
+    @Test
+    void export_encodesTemporalValuesAsIso8601() throws Exception {
+        var out = new ByteArrayOutputStream();
+        
+        new CsvTupleExporter(';', false, 64).export(Stream.of(tuple(LocalDateTime.of(2020, 1, 2, 3, 4, 5, 100_000_000), 
+                                                                     Instant.parse("1969-12-31T23:59:59.000001Z"), 
+                                                                     OffsetDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneOffset.ofHours(2)))), out);
+        
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("2020-01-02T03:04:05.100;1969-12-31T23:59:59.000001Z;2020-01-01T00:00:00+02:00\n");
+    }
+    
+    @Test
+    void export_encodesUtf8() throws Exception {
+        var out = new ByteArrayOutputStream();
+        
+        new CsvTupleExporter(',', false, 64).export(Stream.of(tuple("\u00fc\uD83D\uDE00", null, null)), out);
+        
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("\u00fc\uD83D\uDE00,,\n");
+    }
+    
+    @Test
+    void export_flushesWhenExceedingFlushSize() throws Exception {
+        var channel = mock(WritableByteChannel.class);
+        when(channel.write(any())).thenAnswer(invocation -> {
+            ByteBuffer buffer = invocation.getArgument(0);
+            int remaining = buffer.remaining();
+            buffer.position(buffer.limit());
+            return remaining;
+        });
+        
+        new CsvTupleExporter(',', false, 8).export(Stream.of(tuple(1234567L, null, null), tuple(1L, null, null), tuple(2L, null, null)), channel);
+        
+        verify(channel, times(2)).write(any()); // after the first and the third row
+    }
+    
+    private Tuple tuple(Object... values) {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.getElements()).thenReturn(elements);
+        for (int i = 0; i < values.length; i++) {
+            when(tuple.get(i)).thenReturn(values[i]);
+        }
+        return tuple;
+    }
+    
+    private static TupleElement<?> element(String alias) {
+        TupleElement<?> element = mock(TupleElement.class);
+        when(element.getAlias()).thenReturn(alias);
+        return element;
+    }
+    
+}
@@ -0,0 +1,89 @@
+package de.mw.spring.data.jpa.repository.fetch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+class AdaptiveFetchSizeControllerTest {
+
+    @Test
+    void nextFetchSize_doublesDuringProbes_thenFixesSizeByRoundTripShare() {
+        var testee = new TestController(10, 10_000, Long.MAX_VALUE);
+        
+        assertThat(probe(testee, "x")).isEqualTo(10);
+        assertThat(probe(testee, "x")).isEqualTo(20);
+        assertThat(probe(testee, "x")).isEqualTo(40);
+        
+        // round trip 1ms, load and consumption 1us per row each: 9 * 1ms / 2us
+        assertThat(testee.nextFetchSize()).isEqualTo(4500);
+        assertThat(testee.nextFetchSize()).isEqualTo(4500);
+        var statistics = testee.getStatistics();
+        assertThat(statistics.isTuned()).isTrue();
+        assertThat(statistics.getChunks()).isEqualTo(3);
+        assertThat(statistics.getRows()).isEqualTo(70);
+        assertThat(statistics.getRoundTripNanos()).isEqualTo(1_000_000);
+        assertThat(statistics.getLoadNanosPerRow()).isEqualTo(1_000);
+        assertThat(statistics.getConsumeNanosPerRow()).isEqualTo(1_000);
+    }
+    
+    @Test
+    void nextFetchSize_isBoundedByMemoryBudget() {
+        var row = "x".repeat(100);
+        long rowSize = AdaptiveFetchSizeController.estimateSize(row);
+        var testee = new TestController(10, 10_000, rowSize * 50);
+        
+        probe(testee, row);
+        probe(testee, row);
+        assertThat(probe(testee, row)).isEqualTo(40);
+        
+        assertThat(testee.nextFetchSize()).isEqualTo(50);
+        assertThat(testee.getStatistics().getAverageRowSize()).isEqualTo(rowSize);
+    }
+    
+    @Test
+    void nextFetchSize_isNotLessThanMinimum() {
+        var testee = new TestController(10, 10_000, 1);
+        
+        probe(testee, "x");
+        probe(testee, "x");
+        probe(testee, "x");
+        
+        assertThat(testee.nextFetchSize()).isEqualTo(10);
+    }
+    
+    @Test
+    void estimateSize_sumsElementsOfArrays() {
+        assertThat(AdaptiveFetchSizeController.estimateSize(new Object[] {1L, "ab", null}))
+            .isEqualTo(16 + 8 + 24 + 8 + 44 + 8);
+    }
+    
+    
+    /**
+     * Loads a chunk of the next fetch size, which takes 1ms plus 1us per row, and consumes it within 1us per row.
+     */
+    private static int probe(TestController testee, Object row) {
+        int fetchSize = testee.nextFetchSize();
+        testee.now += 1_000 * fetchSize;
+        testee.recordChunk(Collections.nCopies(fetchSize, row), 1_000_000 + 1_000 * fetchSize);
+        testee.now += 1_000 * fetchSize;
+        return fetchSize;
+    }
+    
+    private static class TestController extends AdaptiveFetchSizeController {
+        
+        long now;
+        
+        TestController(int minFetchSize, int maxFetchSize, long memoryBudget) {
+            super(minFetchSize, maxFetchSize, memoryBudget);
+        }
+        
+        @Override
+        protected long nanoTime() {
+            return now;
+        }
+        
+    }
+
+}
@@ -0,0 +1,65 @@
+package de.mw.spring.data.jpa.repository.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class MeteredSpliteratorTest {
+    
+    private final List<Long> firstRows = new ArrayList<>();
+    private final List<Long> closedRows = new ArrayList<>();
+    
+    private final RepositoryMetrics metrics = new RepositoryMetrics() {
+        
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+        
+        @Override
+        public void recordFirstRow(Class<?> domainClass, Class<?> projectionClass, long nanos) {
+            firstRows.add(nanos);
+        }
+        
+        @Override
+        public void recordStreamClosed(Class<?> domainClass, Class<?> projectionClass, long rows, long openNanos) {
+            closedRows.add(rows);
+        }
+        
+    };
+
+    @Test
+    void stream_recordsFirstRowOnce_andRowsOnClose() {
+        var sourceClosed = new AtomicBoolean();
+        var source = Stream.of(1, 2, 3).onClose(() -> sourceClosed.set(true));
+        
+        List<Integer> result;
+        try (var stream = MeteredSpliterator.stream(source, Object.class, Integer.class, metrics, System.nanoTime())) {
+            result = stream.collect(Collectors.toList());
+        }
+        
+        assertThat(result).containsExactly(1, 2, 3);
+        assertThat(firstRows).hasSize(1);
+        assertThat(closedRows).containsExactly(3L);
+        assertThat(sourceClosed).isTrue();
+    }
+    
+    @Test
+    void stream_recordsNoFirstRow_onEmptyStream() {
+        var stream = MeteredSpliterator.stream(Stream.empty(), Object.class, Integer.class, metrics, System.nanoTime());
+        
+        stream.forEach(row -> {});
+        stream.close();
+        stream.close();
+        
+        assertThat(firstRows).isEmpty();
+        assertThat(closedRows).containsExactly(0L);
+    }
+    
+}
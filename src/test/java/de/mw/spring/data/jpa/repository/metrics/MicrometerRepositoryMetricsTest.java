@@ -0,0 +1,98 @@
+package de.mw.spring.data.jpa.repository.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.Id;
+import javax.persistence.Tuple;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import de.mw.spring.data.jpa.repository.MappingJpaSpecificationRepositoryImpl;
+import de.mw.spring.data.jpa.repository.projection.ProjectionByAttributeNames;
+
+@DataJpaTest
+class MicrometerRepositoryMetricsTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final MicrometerRepositoryMetrics testee = new MicrometerRepositoryMetrics(registry, "test");
+
+    @Entity(name = "MicrometerRepositoryMetricsTestEntity")
+    static class TestEntity {
+
+        @Id
+        Long id;
+
+    }
+
+
+    @Test
+    void recordQueryExecution_recordsTimerTaggedByDomainProjectionAndOperation() {
+        testee.recordQueryExecution(String.class, Long.class, "findAll", 1_000_000);
+        testee.recordQueryExecution(String.class, Long.class, "findAll", 3_000_000);
+
+        var timer = registry.get("test.query.execution").tag("domain", "String").tag("projection", "Long").tag("operation", "findAll").timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(4);
+    }
+
+    @Test
+    void recordCount_recordsTimerTaggedByDomainOnly() {
+        testee.recordCount(String.class, 1_000_000);
+
+        var timer = registry.get("test.count").timer();
+        assertThat(timer.getId().getTag("domain")).isEqualTo("String");
+        assertThat(timer.getId().getTag("projection")).isNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void meteredStream_recordsFirstRowOpenTimeAndRows() {
+        List<Integer> result;
+        try (var stream = MeteredSpliterator.stream(Stream.of(1, 2, 3), String.class, Integer.class, testee, System.nanoTime())) {
+            result = stream.collect(Collectors.toList());
+        }
+
+        assertThat(result).containsExactly(1, 2, 3);
+        assertThat(registry.get("test.stream.first.row").tag("domain", "String").tag("projection", "Integer").timer().count()).isEqualTo(1);
+        assertThat(registry.get("test.stream.open").tag("domain", "String").tag("projection", "Integer").timer().count()).isEqualTo(1);
+        assertThat(registry.get("test.stream.rows").tag("domain", "String").tag("projection", "Integer").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void findAllBatchMappedStream_recordsMappingTimerPerBatch() {
+        for (long id = 1; id <= 3; id++) {
+            var entity = new TestEntity();
+            entity.id = id;
+            entityManager.persist(entity);
+        }
+        var repository = new MappingJpaSpecificationRepositoryImpl<TestEntity,Long>(TestEntity.class, entityManager);
+        repository.setRepositoryMetrics(testee);
+
+        List<Object> result;
+        try (var stream = repository.findAllBatchMappedStream(null, Sort.by("id"), Map.of(), 2, new ProjectionByAttributeNames<>("id"), 
+                                                              tuples -> tuples.stream().map((Tuple tuple) -> tuple.get(0)).collect(Collectors.toList()))) {
+            result = stream.collect(Collectors.toList());
+        }
+
+        assertThat(result).containsExactly(1L, 2L, 3L);
+        var timer = registry.get("test.mapping").tag("domain", "TestEntity").tag("projection", "Tuple").timer();
+        assertThat(timer.count()).isEqualTo(2);
+    }
+
+}
@@ -0,0 +1,124 @@
+package de.mw.spring.data.jpa.repository.projection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.Tuple;
+
+class CompiledConstructorInvokerTest {
+   
+    private static class TestClass {
+        
+        private final boolean constructorInvoked;
+        private final String string;
+        private final int integer;
+        
+        
+        @SuppressWarnings("unused")
+        public TestClass(String string, int integer) {
+            this.string = string;
+            this.integer = integer;
+            
+            this.constructorInvoked = true;
+        }
+        
+    }
+    
+    private static class PrimitiveTestClass {
+        
+        private final long longValue;
+        private final double doubleValue;
+        private final boolean booleanValue;
+        
+        
+        @SuppressWarnings("unused")
+        public PrimitiveTestClass(long longValue, double doubleValue, boolean booleanValue) {
+            this.longValue = longValue;
+            this.doubleValue = doubleValue;
+            this.booleanValue = booleanValue;
+        }
+        
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    void newInstance_invokesConstructorWithTupleValuesByIndex() throws Exception {
+        var tuple = mock(Tuple.class);
+        when(tuple.get(0)).thenReturn("foo");
+        when(tuple.get(1)).thenReturn(42);
+        var testee = new CompiledConstructorInvoker(TestClass.class.getConstructors()[0]);
+        
+        
+        var result = (TestClass) testee.newInstance(tuple);
+        
+        
+        assertThat(result.constructorInvoked).isTrue();
+        assertThat(result.string).isEqualTo("foo");
+        assertThat(result.integer).isEqualTo(42);
+        verify(tuple, never()).toArray();
+    }
+
+    @Test
+    void newInstance_unboxesPrimitiveArguments() throws Exception {
+        var testee = new CompiledConstructorInvoker<>(PrimitiveTestClass.class.getConstructor(long.class, double.class, boolean.class));
+        
+        var result = testee.newInstance(tuple(42L, 1.5d, true));
+        
+        assertThat(result.longValue).isEqualTo(42L);
+        assertThat(result.doubleValue).isEqualTo(1.5d);
+        assertThat(result.booleanValue).isTrue();
+    }
+    
+    @Test
+    void newInstance_widensPrimitiveArguments_likeReflectiveInvocation() throws Exception {
+        var constructor = PrimitiveTestClass.class.getConstructor(long.class, double.class, boolean.class);
+        var testee = new CompiledConstructorInvoker<>(constructor);
+        var tuple = tuple(42, 'a', true);
+        
+        var result = testee.newInstance(tuple);
+        var reflectiveResult = ConstructorInvoker.reflective(constructor).newInstance(tuple);
+        
+        assertThat(result.longValue).isEqualTo(42L).isEqualTo(reflectiveResult.longValue);
+        assertThat(result.doubleValue).isEqualTo(97d).isEqualTo(reflectiveResult.doubleValue);
+    }
+    
+    @Test
+    void newInstance_failsWithIllegalArgumentException_forNullPrimitiveArgument() throws Exception {
+        var testee = new CompiledConstructorInvoker<>(PrimitiveTestClass.class.getConstructor(long.class, double.class, boolean.class));
+        
+        assertThatThrownBy(() -> testee.newInstance(tuple(null, 1.5d, true))).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void newInstance_failsWithIllegalArgumentException_forNarrowingOrMismatchingArgument() throws Exception {
+        var testee = new CompiledConstructorInvoker<>(PrimitiveTestClass.class.getConstructor(long.class, double.class, boolean.class));
+        var stringTestee = new CompiledConstructorInvoker<>(TestClass.class.getConstructor(String.class, int.class));
+        
+        assertThatThrownBy(() -> testee.newInstance(tuple(42L, 1.5d, 1))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> stringTestee.newInstance(tuple("foo", 42L))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> stringTestee.newInstance(tuple(42, 42))).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void newInstance_passesNullReferenceArgument() throws Exception {
+        var testee = new CompiledConstructorInvoker<>(TestClass.class.getConstructor(String.class, int.class));
+        
+        var result = testee.newInstance(tuple(null, 42));
+        
+        assertThat(result.string).isNull();
+        assertThat(result.integer).isEqualTo(42);
+    }
+    
+    private Tuple tuple(Object... values) {
+        var tuple = mock(Tuple.class);
+        for (int i = 0; i < values.length; i++) {
+            when(tuple.get(i)).thenReturn(values[i]);
+        }
+        when(tuple.toArray()).thenReturn(values);
+        return tuple;
+    }
+
+}
@@ -0,0 +1,152 @@
+package de.mw.spring.data.jpa.repository.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import de.mw.spring.data.jpa.repository.BatchInitialization;
+import de.mw.spring.data.jpa.repository.PersistenceContextEviction;
+import de.mw.spring.data.jpa.repository.StreamingJpaSpecificationRepositoryImpl;
+
+/**
+ * Counts the statements of batch initialized entity streams against the in-memory database.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AssociationBatchLoaderTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private StreamingJpaSpecificationRepositoryImpl<Order,Long> testee;
+
+    @Entity(name = "AssociationBatchLoaderTestCustomer")
+    static class Customer {
+
+        @Id
+        Long id;
+
+    }
+
+    @Entity(name = "AssociationBatchLoaderTestOrder")
+    static class Order {
+
+        @Id
+        Long id;
+
+        @ManyToOne(fetch = FetchType.LAZY)
+        Customer customer;
+
+        @OneToMany(mappedBy = "order")
+        List<Item> items = new ArrayList<>();
+
+    }
+
+    @Entity(name = "AssociationBatchLoaderTestItem")
+    static class Item {
+
+        @Id
+        Long id;
+
+        @ManyToOne
+        Order order;
+
+    }
+
+    @BeforeEach
+    void setup() {
+        testee = new StreamingJpaSpecificationRepositoryImpl<>(Order.class, entityManager);
+        for (long id = 1; id <= 6; id++) {
+            var customer = new Customer();
+            customer.id = id;
+            entityManager.persist(customer);
+            var order = new Order();
+            order.id = id;
+            order.customer = customer;
+            entityManager.persist(order);
+            for (long itemId = 1; itemId <= 2; itemId++) {
+                var item = new Item();
+                item.id = id * 10 + itemId;
+                item.order = order;
+                entityManager.persist(item);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllStream_withBatchInitialization_initializesEachAssociationOfChunkByOneQuery() {
+        var statementCounts = new ArrayList<Long>();
+
+        List<Order> result;
+        try (var stream = testee.findAllStream(null, Sort.by("id"), Map.of(), BatchInitialization.of(3, "customer", "items"), null)) {
+            result = stream.peek(order -> assertInitialized(order))
+                           .peek(order -> statementCounts.add(statistics.getPrepareStatementCount()))
+                           .collect(Collectors.toList());
+        }
+
+        // streaming query, then one query per association and chunk
+        assertThat(statementCounts).containsExactly(3L, 3L, 3L, 5L, 5L, 5L);
+        assertThat(result).allMatch(entityManager::contains);
+        assertThat(result).extracting(order -> order.items.size()).containsOnly(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+    }
+
+    @Test
+    void findAllStream_withBatchInitializationAndClearEviction_initializesEachAssociationOfChunkByOneQuery() {
+        findAllStream_withEviction_initializesEachAssociationOfChunkByOneQuery(PersistenceContextEviction.clearEvery(3));
+    }
+
+    @Test
+    void findAllStream_withBatchInitializationAndDetachEviction_initializesEachAssociationOfChunkByOneQuery() {
+        findAllStream_withEviction_initializesEachAssociationOfChunkByOneQuery(PersistenceContextEviction.detachEvery(3));
+    }
+
+    private void findAllStream_withEviction_initializesEachAssociationOfChunkByOneQuery(PersistenceContextEviction eviction) {
+        var statementCounts = new ArrayList<Long>();
+
+        List<Order> result;
+        try (var stream = testee.findAllStream(null, Sort.by("id"), Map.of(), BatchInitialization.of(3, "customer", "items"), eviction)) {
+            result = stream.peek(order -> assertInitialized(order))
+                           .peek(order -> statementCounts.add(statistics.getPrepareStatementCount()))
+                           .collect(Collectors.toList());
+        }
+
+        assertThat(statementCounts).containsExactly(3L, 3L, 3L, 5L, 5L, 5L);
+        assertThat(result).noneMatch(entityManager::contains);
+        assertThat(result).noneMatch(order -> entityManager.contains(order.customer));
+        result.forEach(this::assertInitialized);
+        assertThat(result).extracting(order -> order.items.size()).containsOnly(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+    }
+
+    private void assertInitialized(Order order) {
+        assertThat(Hibernate.isInitialized(order.customer)).isTrue();
+        assertThat(Hibernate.isInitialized(order.items)).isTrue();
+    }
+
+}
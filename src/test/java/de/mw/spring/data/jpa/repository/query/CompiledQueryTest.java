@@ -0,0 +1,156 @@
+package de.mw.spring.data.jpa.repository.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.Id;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import de.mw.spring.data.jpa.repository.CacheableSpecification;
+import de.mw.spring.data.jpa.repository.ProjectingJpaSpecificationRepositoryImpl;
+import de.mw.spring.data.jpa.repository.Projection;
+import de.mw.spring.data.jpa.repository.projection.ProjectionByAttributeNames;
+
+/**
+ * Executes compiled queries against the in-memory database,
+ * because the implicit parameters of literals are only bound by the real query.
+ */
+@DataJpaTest
+class CompiledQueryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Entity
+    static class TestEntity {
+
+        @Id
+        Long id;
+
+        String name;
+
+    }
+
+    @BeforeEach
+    void setup() {
+        entityManager.persist(entity(1L, "a"));
+        entityManager.persist(entity(2L, "b"));
+    }
+
+    @Test
+    void createQuery_bindsImplicitParametersOfLiterals() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TestEntity> cq = cb.createQuery(TestEntity.class);
+        Root<TestEntity> root = cq.from(TestEntity.class);
+        cq.select(root).where(cb.equal(root.get("name"), "a"));
+
+        var compiledQuery = CompiledQuery.of(entityManager.createQuery(cq), Set.of());
+        var result = compiledQuery.createQuery(entityManager, TestEntity.class).getResultList();
+
+        assertThat(result).extracting(entity -> entity.id).containsExactly(1L);
+    }
+
+    @Test
+    void createQuery_leavesExplicitParametersUnbound() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TestEntity> cq = cb.createQuery(TestEntity.class);
+        Root<TestEntity> root = cq.from(TestEntity.class);
+        cq.select(root).where(cb.equal(root.get("name"), cb.parameter(String.class, "name")), cb.greaterThan(root.get("id"), 0L));
+        var query = entityManager.createQuery(cq);
+        query.setParameter("name", "a");
+
+        var compiledQuery = CompiledQuery.of(query, Set.of("name"));
+        var recreatedQuery = compiledQuery.createQuery(entityManager, TestEntity.class);
+        recreatedQuery.setParameter("name", "b");
+
+        assertThat(recreatedQuery.getResultList()).extracting(entity -> entity.id).containsExactly(2L);
+    }
+
+    @Test
+    void findAll_withQueryCache_executesCachedQueryOfSpecificationWithLiterals() {
+        var repository = new ProjectingJpaSpecificationRepositoryImpl<TestEntity,Long>(TestEntity.class, entityManager);
+        var queryCache = new LruQueryCache(10);
+        repository.setQueryCache(queryCache);
+        var spec = new NameSpecification("b");
+        var projection = new ProjectionByAttributeNames<TestEntity>("id");
+
+        var miss = repository.findAll(spec, Sort.by("id"), projection);
+        var hit  = repository.findAll(spec, Sort.by("id"), projection);
+
+        assertThat(miss).extracting(tuple -> tuple.get(0)).containsExactly(2L);
+        assertThat(hit).extracting(tuple -> tuple.get(0)).containsExactly(2L);
+        assertThat(queryCache.getMissCount()).isEqualTo(1);
+        assertThat(queryCache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findAll_withQueryCache_keepsAliasesOfTupleElementsOnCachedQuery() {
+        var repository = new ProjectingJpaSpecificationRepositoryImpl<TestEntity,Long>(TestEntity.class, entityManager);
+        var queryCache = new LruQueryCache(10);
+        repository.setQueryCache(queryCache);
+        var spec = new NameSpecification("b");
+        Projection<TestEntity,Tuple> projection = (root, query, builder) -> List.of(root.get("id").alias("theId"), root.get("name").alias("theName"));
+
+        var miss = repository.findAll(spec, Sort.by("id"), Tuple.class, projection);
+        var hit  = repository.findAll(spec, Sort.by("id"), Tuple.class, projection);
+        List<Tuple> streamedHit;
+        try (var stream = repository.findAllStream(spec, Sort.by("id"), Map.of(), Tuple.class, projection)) {
+            streamedHit = stream.collect(Collectors.toList());
+        }
+
+        assertThat(queryCache.getHitCount()).isEqualTo(2);
+        for (var result : List.of(miss, hit, streamedHit)) {
+            assertThat(result).extracting(tuple -> tuple.get("theId"), tuple -> tuple.get("theName", String.class)).containsExactly(tuple(2L, "b"));
+            assertThat(result.get(0).getElements()).extracting(TupleElement::getAlias).containsExactly("theId", "theName");
+            assertThat(result.get(0).getElements()).<Class<?>>extracting(TupleElement::getJavaType).containsExactly(Long.class, String.class);
+        }
+    }
+
+    private static TestEntity entity(Long id, String name) {
+        var entity = new TestEntity();
+        entity.id = id;
+        entity.name = name;
+        return entity;
+    }
+
+    private static class NameSpecification implements CacheableSpecification<TestEntity> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+
+        NameSpecification(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Predicate toPredicate(Root<TestEntity> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+            return criteriaBuilder.equal(root.get("name"), name);
+        }
+
+        @Override
+        public Object getFingerprint() {
+            return Map.of("name", name);
+        }
+
+    }
+
+}
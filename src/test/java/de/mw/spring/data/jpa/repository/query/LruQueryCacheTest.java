@@ -0,0 +1,49 @@
+package de.mw.spring.data.jpa.repository.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.Tuple;
+
+import de.mw.spring.data.jpa.repository.query.QueryCacheKey.QueryType;
+
+class LruQueryCacheTest {
+
+    private LruQueryCache testee = new LruQueryCache(2);
+    
+    
+    @Test
+    void get_countsHitsAndMisses() {
+        var key = key("a");
+        var query = mock(CompiledQuery.class);
+        
+        assertThat(testee.get(key)).isNull();
+        testee.put(key, query);
+        
+        assertThat(testee.get(key("a"))).isSameAs(query);
+        assertThat(testee.getHitCount()).isEqualTo(1);
+        assertThat(testee.getMissCount()).isEqualTo(1);
+    }
+    
+    @Test
+    void put_evictsLeastRecentlyUsedQuery_whenMaxSizeIsExceeded() {
+        testee.put(key("a"), mock(CompiledQuery.class));
+        testee.put(key("b"), mock(CompiledQuery.class));
+        testee.get(key("a"));
+        
+        testee.put(key("c"), mock(CompiledQuery.class));
+        
+        assertThat(testee.size()).isEqualTo(2);
+        assertThat(testee.get(key("a"))).isNotNull();
+        assertThat(testee.get(key("b"))).isNull();
+        assertThat(testee.get(key("c"))).isNotNull();
+    }
+    
+    private QueryCacheKey key(String fingerprint) {
+        return new QueryCacheKey(QueryType.PROJECTION, Object.class, fingerprint, Sort.unsorted(), Tuple.class, null);
+    }
+
+}
@@ -0,0 +1,104 @@
+package de.mw.spring.data.jpa.repository.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.mw.spring.data.jpa.repository.ProjectingJpaSpecificationRepositoryImpl;
+import de.mw.spring.data.jpa.repository.projection.ProjectionByAttributeNames;
+
+/**
+ * Reads pages with the total count of the window function against the in-memory database.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.metadata_builder_contributor=de.mw.spring.data.jpa.repository.query.WindowCountFunctionContributor")
+class WindowCountTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private ProjectingJpaSpecificationRepositoryImpl<Parent,Long> testee;
+
+    @Entity(name = "WindowCountTestParent")
+    static class Parent {
+
+        @Id
+        Long id;
+
+        @OneToMany(mappedBy = "parent")
+        List<Child> children = new ArrayList<>();
+
+    }
+
+    @Entity(name = "WindowCountTestChild")
+    static class Child {
+
+        @Id
+        Long id;
+
+        @ManyToOne
+        Parent parent;
+
+    }
+
+    @BeforeEach
+    void setup() {
+        testee = new ProjectingJpaSpecificationRepositoryImpl<>(Parent.class, entityManager);
+        testee.setWindowCountPaging(true);
+        for (long parentId = 1; parentId <= 3; parentId++) {
+            var parent = new Parent();
+            parent.id = parentId;
+            entityManager.persist(parent);
+            for (long childId = 1; childId <= 3; childId++) {
+                var child = new Child();
+                child.id = parentId * 10 + childId;
+                child.parent = parent;
+                entityManager.persist(child);
+            }
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void findAll_withJoinedChildren_countsJoinedRowsByWindowFunction() {
+        Specification<Parent> spec = (root, query, builder) -> {
+            root.join("children");
+            return null;
+        };
+
+        var result = testee.findAll(spec, PageRequest.of(0, 2, Sort.by("id")), new ProjectionByAttributeNames<>("id"));
+
+        assertThat(result.getTotalElements()).isEqualTo(9);
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.getContent().get(0).getElements()).hasSize(1);
+    }
+
+    @Test
+    void findAll_withDistinctJoinedChildren_countsDistinctRowsByCountQuery() {
+        Specification<Parent> spec = (root, query, builder) -> {
+            root.join("children");
+            query.distinct(true);
+            return null;
+        };
+
+        var result = testee.findAll(spec, PageRequest.of(0, 2, Sort.by("id")), new ProjectionByAttributeNames<>("id"));
+
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getContent()).extracting(tuple -> tuple.get(0)).containsExactly(1L, 2L);
+    }
+
+}
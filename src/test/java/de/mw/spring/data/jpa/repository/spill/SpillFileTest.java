@@ -0,0 +1,107 @@
+package de.mw.spring.data.jpa.repository.spill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import de.mw.spring.data.jpa.repository.stream.ArrayTuple;
+
+class SpillFileTest {
+    
+    @TempDir
+    Path directory;
+    
+    private List<TupleElement<?>> elements = List.of(new ArrayTuple.Element<>("id", Long.class), 
+                                                     new ArrayTuple.Element<>("name", String.class),
+                                                     new ArrayTuple.Element<>("status", Status.class),
+                                                     new ArrayTuple.Element<>(null, Object.class));
+    
+    enum Status { OPEN, CLOSED }
+
+    @Test
+    void write_spillsTuples_whichCanBeReadRepeatedly() throws Exception {
+        try (var spillFile = SpillFile.write(Stream.of(tuple(1L, "a", Status.OPEN, LocalDateTime.of(2020, 1, 2, 3, 4, 5, 6)), 
+                                                       tuple(2L, null, Status.CLOSED, new BigDecimal("1.50"))), directory.resolve("spill"))) {
+            
+            assertThat(spillFile.size()).isEqualTo(2);
+            assertThat(spillFile.stream().map(Tuple::toArray)).containsExactly(new Object[] {1L, "a", Status.OPEN, LocalDateTime.of(2020, 1, 2, 3, 4, 5, 6)}, 
+                                                                               new Object[] {2L, null, Status.CLOSED, new BigDecimal("1.50")});
+            assertThat(spillFile.stream().count()).isEqualTo(2);
+            assertThat(spillFile.asList().get(1).get("status")).isEqualTo(Status.CLOSED);
+        }
+    }
+    
+    @Test
+    void write_preservesElements() throws Exception {
+        try (var spillFile = SpillFile.write(Stream.of(tuple(1L, "a", null, null)), directory.resolve("spill"))) {
+            
+            assertThat(spillFile.getElements()).extracting(TupleElement::getAlias).containsExactly("id", "name", "status", null);
+            assertThat(spillFile.getElements()).<Class<?>>extracting(TupleElement::getJavaType).containsExactly(Long.class, String.class, Status.class, Object.class);
+        }
+    }
+    
+    @Test
+    void write_supportsEmptyStream() throws Exception {
+        try (var spillFile = SpillFile.write(Stream.of(), directory.resolve("spill"))) {
+            
+            assertThat(spillFile.size()).isZero();
+            assertThat(spillFile.asList()).isEmpty();
+        }
+    }
+    
+    @Test
+    void write_removesTemporaryIndex() throws Exception {
+        SpillFile.write(Stream.of(tuple(1L, "a", null, null)), directory.resolve("spill")).close();
+        
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(Path::getFileName).map(Path::toString).collect(Collectors.toList())).containsExactly("spill");
+        }
+    }
+    
+    @Test
+    void open_readsWrittenFile() throws Exception {
+        var elements = List.<TupleElement<?>>of(new ArrayTuple.Element<>("n", Long.class));
+        SpillFile.write(LongStream.range(0, 10_000).mapToObj(i -> new ArrayTuple(elements, new Object[] {i})), directory.resolve("spill")).close();
+        
+        try (var spillFile = SpillFile.open(directory.resolve("spill"))) {
+            
+            assertThat(spillFile.get(9_999).get(0)).isEqualTo(9_999L);
+            assertThat(spillFile.stream().mapToLong(tuple -> tuple.get(0, Long.class)).sum()).isEqualTo(49_995_000L);
+        }
+    }
+    
+    @Test
+    void open_failsOnIncompleteFile() throws Exception {
+        Files.write(directory.resolve("spill"), new byte[64]);
+        
+        assertThatThrownBy(() -> SpillFile.open(directory.resolve("spill"))).isInstanceOf(IOException.class);
+    }
+    
+    @Test
+    void get_failsAfterClose() throws Exception {
+        var spillFile = SpillFile.write(Stream.of(tuple(1L, "a", null, null)), directory.resolve("spill"));
+        spillFile.close();
+        
+        assertThatThrownBy(() -> spillFile.get(0)).isInstanceOf(IllegalStateException.class);
+    }
+    
+    private Tuple tuple(Object... values) {
+        return new ArrayTuple(elements, values);
+    }
+    
+}
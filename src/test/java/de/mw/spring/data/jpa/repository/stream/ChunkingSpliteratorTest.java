@@ -0,0 +1,46 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class ChunkingSpliteratorTest {
+
+    @Test
+    void chunks_groupsRowsIncludingLastPartialChunk() {
+        var result = ChunkingSpliterator.chunks(Stream.of(1, 2, 3, 4, 5), 2).collect(Collectors.toList());
+        
+        assertThat(result).containsExactly(List.of(1, 2), List.of(3, 4), List.of(5));
+    }
+    
+    @Test
+    void mapChunks_mapsOneChunkPerCallLazily() {
+        var chunks = new ArrayList<List<Integer>>();
+        
+        var result = ChunkingSpliterator.mapChunks(Stream.of(1, 2, 3, 4, 5), 2, chunk -> {
+            chunks.add(chunk);
+            return chunk.stream().map(i -> i * 10).collect(Collectors.toList());
+        }).limit(3).collect(Collectors.toList());
+        
+        assertThat(result).containsExactly(10, 20, 30);
+        assertThat(chunks).containsExactly(List.of(1, 2), List.of(3, 4));
+    }
+    
+    @Test
+    void mapChunks_closesSource() {
+        var closed = new AtomicBoolean();
+        
+        try (var stream = ChunkingSpliterator.mapChunks(Stream.of(1).onClose(() -> closed.set(true)), 2, chunk -> chunk)) {
+            stream.forEach(i -> {});
+        }
+        
+        assertThat(closed).isTrue();
+    }
+    
+}
@@ -0,0 +1,63 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class KeysetChunkIteratorTest {
+
+    @Test
+    void stream_loadsChunksLazilyWithLastKeysOfPreviousChunk() {
+        var requestedKeys = new ArrayList<Object[]>();
+        var testee = new KeysetChunkIterator<Integer>(2, lastKeys -> {
+            requestedKeys.add(lastKeys);
+            int start = lastKeys == null ? 1 : (Integer) lastKeys[0] + 1;
+            return start > 5 ? List.of() : List.of(start, start + 1).stream().filter(i -> i <= 5).collect(Collectors.toList());
+        }, row -> new Object[] {row});
+        
+        var result = testee.stream().collect(Collectors.toList());
+        
+        assertThat(result).containsExactly(1, 2, 3, 4, 5);
+        assertThat(requestedKeys).hasSize(3);
+        assertThat(requestedKeys.get(0)).isNull();
+        assertThat(requestedKeys.get(1)).containsExactly(2);
+        assertThat(requestedKeys.get(2)).containsExactly(4);
+    }
+    
+    @Test
+    void stream_doesNotLoadChunkBeforeConsumption() {
+        var loads = new ArrayList<Object[]>();
+        var testee = new KeysetChunkIterator<Integer>(2, lastKeys -> {
+            loads.add(lastKeys);
+            return List.of(1, 2);
+        }, row -> new Object[] {row});
+        
+        var result = testee.stream().limit(1).collect(Collectors.toList());
+        
+        assertThat(result).containsExactly(1);
+        assertThat(loads).hasSize(1);
+    }
+    
+    @Test
+    void stream_loadsChunksOfSuppliedSizes_untilChunkIsIncomplete() {
+        var sizes = new ArrayList<Integer>();
+        var nextSize = new AtomicInteger(1);
+        var testee = new KeysetChunkIterator<Integer>(() -> nextSize.getAndUpdate(size -> size * 2), (lastKeys, size) -> {
+            sizes.add(size);
+            int start = lastKeys == null ? 1 : (Integer) lastKeys[0] + 1;
+            return IntStream.range(start, start + size).filter(i -> i <= 5).boxed().collect(Collectors.toList());
+        }, row -> new Object[] {row});
+        
+        var result = testee.stream().collect(Collectors.toList());
+        
+        assertThat(result).containsExactly(1, 2, 3, 4, 5);
+        assertThat(sizes).containsExactly(1, 2, 4);
+    }
+
+}
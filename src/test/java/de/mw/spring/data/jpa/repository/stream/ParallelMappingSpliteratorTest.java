@@ -0,0 +1,91 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class ParallelMappingSpliteratorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void stream_orderedEmitsInSourceOrder() {
+        var result = ParallelMappingSpliterator.stream(IntStream.range(0, 1000).boxed(), 7, 4, true, executor, slowly(i -> i * 2))
+                                               .collect(Collectors.toList());
+
+        assertThat(result).isEqualTo(IntStream.range(0, 1000).map(i -> i * 2).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    void stream_unorderedEmitsAllRows() {
+        var result = ParallelMappingSpliterator.stream(IntStream.range(0, 1000).boxed(), 7, 4, false, executor, slowly(i -> i * 2))
+                                               .collect(Collectors.toList());
+
+        assertThat(result).containsExactlyInAnyOrderElementsOf(IntStream.range(0, 1000).map(i -> i * 2).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    void stream_readsSourceNotMoreThanWindowAhead() {
+        var read = new AtomicInteger();
+
+        var first = ParallelMappingSpliterator.stream(IntStream.range(0, 1000).boxed().peek(i -> read.incrementAndGet()), 10, 3, true, executor, (List<Integer> chunk) -> chunk)
+                                              .findFirst();
+
+        assertThat(first).contains(0);
+        assertThat(read.get()).isLessThanOrEqualTo(30);
+    }
+
+    @Test
+    void stream_rethrowsExceptionOfMapper() {
+        var stream = ParallelMappingSpliterator.stream(IntStream.range(0, 100).boxed(), 10, 4, true, executor, (List<Integer> chunk) -> {
+            if (chunk.contains(42)) {
+                throw new IllegalStateException("mapping failed");
+            }
+            return chunk;
+        });
+
+        assertThatThrownBy(() -> stream.collect(Collectors.toList())).isInstanceOf(IllegalStateException.class).hasMessage("mapping failed");
+    }
+
+    @Test
+    void close_closesSource() {
+        var closed = new AtomicBoolean();
+
+        try (var stream = ParallelMappingSpliterator.stream(IntStream.range(0, 100).boxed().onClose(() -> closed.set(true)), 10, 4, false, executor, (List<Integer> chunk) -> chunk)) {
+            assertThat(stream.limit(5).count()).isEqualTo(5);
+        }
+
+        assertThat(closed).isTrue();
+    }
+
+
+    private static Function<List<Integer>, List<Integer>> slowly(Function<Integer, Integer> mapper) {
+        return chunk -> {
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return chunk.stream().map(mapper).collect(Collectors.toList());
+        };
+    }
+
+}
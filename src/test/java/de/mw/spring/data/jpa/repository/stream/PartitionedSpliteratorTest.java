@@ -0,0 +1,57 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class PartitionedSpliteratorTest {
+
+    @Test
+    void stream_returnsAllRowsOfAllPartitions_andClosesExhaustedPartitions() {
+        var closed = new AtomicInteger();
+        var partitions = new ArrayList<Supplier<Stream<Integer>>>();
+        for (int p = 0; p < 4; p++) {
+            int start = p * 10;
+            partitions.add(() -> IntStream.range(start, start + 10).boxed().onClose(closed::incrementAndGet));
+        }
+        
+        List<Integer> result;
+        try (var stream = PartitionedSpliterator.stream(partitions)) {
+            assertThat(stream.isParallel()).isTrue();
+            result = stream.collect(Collectors.toList());
+        }
+        
+        assertThat(result).containsExactlyInAnyOrderElementsOf(IntStream.range(0, 40).boxed().collect(Collectors.toList()));
+        assertThat(closed).hasValue(4);
+    }
+    
+    @Test
+    void close_closesStartedButNotExhaustedPartitions() {
+        var closed = new AtomicInteger();
+        var opened = new AtomicInteger();
+        List<Supplier<Stream<Integer>>> partitions = List.of(() -> {
+                                                                 opened.incrementAndGet();
+                                                                 return Stream.of(1, 2, 3).onClose(closed::incrementAndGet);
+                                                             }, () -> {
+                                                                 opened.incrementAndGet();
+                                                                 return Stream.of(4, 5, 6).onClose(closed::incrementAndGet);
+                                                             });
+        
+        var stream = PartitionedSpliterator.stream(partitions).sequential();
+        var iterator = stream.iterator();
+        iterator.next();
+        stream.close();
+        
+        assertThat(opened).hasValue(1);
+        assertThat(closed).hasValue(1);
+    }
+
+}
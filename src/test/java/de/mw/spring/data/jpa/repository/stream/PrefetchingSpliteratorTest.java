@@ -0,0 +1,106 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class PrefetchingSpliteratorTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void stream_emitsAllRowsInOrderThroughSmallBuffer() {
+        try (var stream = PrefetchingSpliterator.stream(() -> IntStream.range(0, 10_000).boxed(), 4, executor)) {
+            assertThat(stream.collect(Collectors.toList())).isEqualTo(IntStream.range(0, 10_000).boxed().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void stream_emitsNullRows() {
+        try (var stream = PrefetchingSpliterator.stream(() -> Stream.of("a", null, "b"), 2, executor)) {
+            assertThat(stream.collect(Collectors.toList())).isEqualTo(Arrays.asList("a", null, "b"));
+        }
+    }
+
+    @Test
+    void stream_opensReadsAndClosesSourceOnReaderThread() {
+        var openThread = new AtomicReference<Thread>();
+        var closeThread = new AtomicReference<Thread>();
+
+        try (var stream = PrefetchingSpliterator.stream(() -> {
+                openThread.set(Thread.currentThread());
+                return Stream.of(1, 2, 3).onClose(() -> closeThread.set(Thread.currentThread()));
+            }, 2, executor)) {
+            assertThat(stream.count()).isEqualTo(3);
+        }
+
+        assertThat(openThread.get()).isNotNull().isNotSameAs(Thread.currentThread());
+        assertThat(closeThread.get()).isSameAs(openThread.get());
+    }
+
+    @Test
+    void stream_rethrowsExceptionOfSourceAfterBufferedRows() {
+        var stream = PrefetchingSpliterator.stream(() -> Stream.of(1, 2, 3).map(i -> {
+            if (i == 3) {
+                throw new IllegalStateException("fetch failed");
+            }
+            return i;
+        }), 8, executor);
+        var iterator = stream.iterator();
+
+        assertThat(iterator.next()).isEqualTo(1);
+        assertThat(iterator.next()).isEqualTo(2);
+        assertThatThrownBy(iterator::hasNext).isInstanceOf(IllegalStateException.class).hasMessage("fetch failed");
+        stream.close();
+    }
+
+    @Test
+    void close_stopsReaderWaitingOnFullBufferAndClosesSource() {
+        var closeThread = new AtomicReference<Thread>();
+
+        var stream = PrefetchingSpliterator.stream(() -> IntStream.iterate(0, i -> i + 1).boxed().onClose(() -> closeThread.set(Thread.currentThread())), 4, executor);
+        assertThat(stream.limit(2).collect(Collectors.toList())).containsExactly(0, 1);
+        stream.close();
+
+        assertThat(closeThread.get()).isNotNull().isNotSameAs(Thread.currentThread());
+    }
+
+    @Test
+    void close_rethrowsExceptionOfClosingSource() {
+        var stream = PrefetchingSpliterator.stream(() -> Stream.of(1, 2).onClose(() -> {
+            throw new IllegalStateException("close failed");
+        }), 1, executor);
+        stream.iterator().next();
+
+        assertThatThrownBy(stream::close).isInstanceOf(IllegalStateException.class).hasMessage("close failed");
+    }
+
+    @Test
+    void close_withoutReadingDoesNotOpenSource() {
+        var opened = new AtomicReference<Boolean>(false);
+
+        PrefetchingSpliterator.stream(() -> {
+            opened.set(true);
+            return Stream.of(1);
+        }, 1, executor).close();
+
+        assertThat(opened.get()).isFalse();
+    }
+
+}
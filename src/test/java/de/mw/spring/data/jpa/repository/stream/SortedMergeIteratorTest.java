@@ -0,0 +1,47 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class SortedMergeIteratorTest {
+
+    @Test
+    void merge_mergesSortedStreamsInOrder_andClosesAllStreams() {
+        var closed = new AtomicInteger();
+        var streams = List.of(Stream.of(1, 4, 7).onClose(closed::incrementAndGet),
+                              Stream.of(2, 5).onClose(closed::incrementAndGet),
+                              Stream.<Integer>empty().onClose(closed::incrementAndGet),
+                              Stream.of(3, 6, 8, 9).onClose(closed::incrementAndGet));
+        
+        List<Integer> result;
+        try (var merged = SortedMergeIterator.merge(streams, Comparator.<Integer>naturalOrder())) {
+            result = merged.collect(Collectors.toList());
+        }
+        
+        assertThat(result).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(closed).hasValue(4);
+    }
+
+    @Test
+    void stream_closesOpenedStreams_whenOpeningPartitionFails() {
+        var closed = new AtomicInteger();
+        var failure = new IllegalStateException("no connection");
+        List<Supplier<Stream<Integer>>> partitions = List.of(() -> Stream.of(1, 3).onClose(closed::incrementAndGet),
+                                                             () -> Stream.of(2).onClose(closed::incrementAndGet),
+                                                             () -> { throw failure; },
+                                                             () -> Stream.of(4).onClose(closed::incrementAndGet));
+        
+        assertThatThrownBy(() -> SortedMergeIterator.stream(partitions, Comparator.<Integer>naturalOrder())).isSameAs(failure);
+        assertThat(closed).hasValue(2);
+    }
+
+}
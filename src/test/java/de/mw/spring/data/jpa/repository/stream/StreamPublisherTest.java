@@ -0,0 +1,124 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class StreamPublisherTest {
+
+    private final AtomicInteger fetchSize = new AtomicInteger();
+    private final AtomicInteger rowsRead = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    
+    private final StreamPublisher<Integer> testee = new StreamPublisher<>(this::openStream, runnable -> new Thread(runnable).start(), Runnable::run, 50);
+    
+    private Stream<Integer> openStream(int fetchSize) {
+        this.fetchSize.set(fetchSize);
+        return IntStream.range(0, 100).boxed().peek(row -> rowsRead.incrementAndGet()).onClose(() -> closed.set(true));
+    }
+    
+    @Test
+    void subscribe_emitsAllRowsAndCompletesAfterClosingStream() throws Exception {
+        var subscriber = new TestSubscriber(Long.MAX_VALUE);
+        
+        testee.subscribe(subscriber);
+        
+        assertThat(subscriber.terminated.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.rows).hasSize(100);
+        assertThat(subscriber.completedAfterClose).isTrue();
+        assertThat(fetchSize).hasValue(50);
+    }
+    
+    @Test
+    void subscribe_readsRowsOnlyOnDemand_closesStreamOnCancel() throws Exception {
+        var subscriber = new TestSubscriber(3) {
+            @Override
+            public void onNext(Integer row) {
+                super.onNext(row);
+                if (rows.size() == 3) {
+                    subscription.cancel();
+                    terminated.countDown();
+                }
+            }
+        };
+        
+        testee.subscribe(subscriber);
+        
+        assertThat(subscriber.terminated.await(5, TimeUnit.SECONDS)).isTrue();
+        waitUntilClosed();
+        assertThat(subscriber.rows).containsExactly(0, 1, 2);
+        assertThat(rowsRead).hasValue(3);
+        assertThat(fetchSize).hasValue(3);
+        assertThat(subscriber.errors).isEmpty();
+    }
+    
+    @Test
+    void subscribe_signalsErrorOnNonPositiveRequest() throws Exception {
+        var subscriber = new TestSubscriber(0);
+        
+        testee.subscribe(subscriber);
+        
+        assertThat(subscriber.terminated.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.rows).isEmpty();
+        assertThat(subscriber.errors).hasSize(1);
+        assertThat(subscriber.errors.get(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private void waitUntilClosed() throws InterruptedException {
+        for (int i = 0; i < 100 && !closed.get(); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(closed).isTrue();
+    }
+    
+    
+    class TestSubscriber implements Flow.Subscriber<Integer> {
+        
+        final long initialRequest;
+        final List<Integer> rows = new CopyOnWriteArrayList<>();
+        final List<Throwable> errors = new ArrayList<>();
+        final CountDownLatch terminated = new CountDownLatch(1);
+        Flow.Subscription subscription;
+        boolean completedAfterClose;
+        
+        TestSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+        
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+        
+        @Override
+        public void onNext(Integer row) {
+            rows.add(row);
+        }
+        
+        @Override
+        public void onError(Throwable error) {
+            errors.add(error);
+            terminated.countDown();
+        }
+        
+        @Override
+        public void onComplete() {
+            completedAfterClose = closed.get();
+            terminated.countDown();
+        }
+        
+    }
+    
+}
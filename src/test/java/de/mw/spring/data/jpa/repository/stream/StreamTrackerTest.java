@@ -0,0 +1,74 @@
+package de.mw.spring.data.jpa.repository.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+class StreamTrackerTest {
+
+    @Test
+    void track_countsOpenStreams_closesSourceOnClose() {
+        var testee = new StreamTracker();
+        var closed = new AtomicBoolean();
+        
+        var stream = testee.track(Stream.of(1, 2).onClose(() -> closed.set(true)), Object.class);
+        assertThat(testee.getOpenStreamCount()).isEqualTo(1);
+        
+        stream.close();
+        
+        assertThat(closed).isTrue();
+        assertThat(testee.getOpenStreamCount()).isZero();
+        assertThat(testee.getLeakedStreamCount()).isZero();
+    }
+    
+    @Test
+    void checkExpiredStreams_marksStreamsOlderThanMaxAge_ownerForceClosesOnNextRead() throws Exception {
+        var closed = new AtomicBoolean();
+        try (var testee = new StreamTracker(Duration.ofMinutes(1))) {
+            var stream = testee.track(Stream.of(1).onClose(() -> closed.set(true)), Object.class);
+            
+            testee.checkExpiredStreams();
+            
+            assertThat(testee.getExpiredStreamCount()).isZero();
+            assertThat(stream.iterator().next()).isEqualTo(1);
+        }
+        
+        try (var testee = new StreamTracker(Duration.ofMillis(1))) {
+            var stream = testee.track(Stream.of(1).onClose(() -> closed.set(true)), Object.class);
+            Thread.sleep(10);
+            
+            testee.checkExpiredStreams();
+            
+            assertThat(closed).isFalse();
+            assertThat(testee.getExpiredStreamCount()).isEqualTo(1);
+            assertThat(testee.getOpenStreamCount()).isEqualTo(1);
+            
+            assertThatThrownBy(() -> stream.iterator().next()).isInstanceOf(IllegalStateException.class);
+            assertThat(closed).isTrue();
+            assertThat(testee.getOpenStreamCount()).isZero();
+            assertThat(testee.getForceClosedStreamCount()).isEqualTo(1);
+        }
+    }
+    
+    @Test
+    void track_reportsLeakedStream_withoutClosingIt() throws Exception {
+        var testee = new StreamTracker();
+        var closed = new AtomicBoolean();
+        
+        testee.track(Stream.of(1).onClose(() -> closed.set(true)), Object.class);
+        for (int i = 0; i < 50 && testee.getLeakedStreamCount() == 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        
+        assertThat(testee.getLeakedStreamCount()).isEqualTo(1);
+        assertThat(testee.getOpenStreamCount()).isZero();
+        assertThat(closed).isFalse();
+    }
+    
+}